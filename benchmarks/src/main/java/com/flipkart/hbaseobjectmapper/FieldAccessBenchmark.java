@@ -0,0 +1,68 @@
+package com.flipkart.hbaseobjectmapper;
+
+import com.flipkart.hbaseobjectmapper.benchmarks.entities.Citizen;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares reflective field access (as {@link HBObjectMapper} did before field accessors were introduced) with {@link FieldAccessor}.
+ * Lives in the library's package so that it can reach package-private classes
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FieldAccessBenchmark {
+    private Citizen source, target;
+    private Field[] fields;
+    private FieldMapping[] columns;
+    private ClassMapping<Citizen> classMapping;
+
+    @Setup
+    public void setup() {
+        classMapping = new HBObjectMapper().getClassMapping(Citizen.class);
+        List<FieldMapping> columnList = classMapping.getColumns();
+        columns = columnList.toArray(new FieldMapping[columnList.size()]);
+        fields = new Field[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            fields[i] = columns[i].field();
+        }
+        source = Citizen.sample();
+        target = new Citizen();
+    }
+
+    @Benchmark
+    public Citizen reflectiveGetAndSet() throws IllegalAccessException {
+        for (Field field : fields) {
+            field.setAccessible(true);
+            Object value = field.get(source);
+            field.setAccessible(true);
+            field.set(target, value);
+        }
+        return target;
+    }
+
+    @Benchmark
+    public Citizen accessorGetAndSet() {
+        for (FieldMapping column : columns) {
+            column.set(target, column.get(source));
+        }
+        return target;
+    }
+
+    @Benchmark
+    public void reflectiveNewInstance(Blackhole blackhole) throws ReflectiveOperationException {
+        blackhole.consume(Citizen.class.newInstance());
+    }
+
+    @Benchmark
+    public void accessorNewInstance(Blackhole blackhole) {
+        blackhole.consume(classMapping.newInstance());
+    }
+}
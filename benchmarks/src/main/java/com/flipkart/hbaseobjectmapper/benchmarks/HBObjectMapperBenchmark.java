@@ -0,0 +1,97 @@
+package com.flipkart.hbaseobjectmapper.benchmarks;
+
+import com.flipkart.hbaseobjectmapper.HBObjectMapper;
+import com.flipkart.hbaseobjectmapper.HBRecord;
+import com.flipkart.hbaseobjectmapper.benchmarks.entities.Citizen;
+import com.flipkart.hbaseobjectmapper.benchmarks.entities.CitizenSummary;
+import com.flipkart.hbaseobjectmapper.benchmarks.entities.Crawl;
+import com.flipkart.hbaseobjectmapper.benchmarks.entities.Household;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures conversions of {@link HBObjectMapper} across entities of different shapes. Run with <code>-prof gc</code> to see allocation rates too (see README.md of this module)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HBObjectMapperBenchmark {
+
+    /**
+     * Shape of the entity being converted
+     */
+    public enum Shape {
+        /**
+         * One column (see {@link CitizenSummary})
+         */
+        NARROW(CitizenSummary.sample()),
+        /**
+         * Many columns of different types (see {@link Citizen})
+         */
+        WIDE(Citizen.sample()),
+        /**
+         * One column with many versions (see {@link Crawl})
+         */
+        MULTI_VERSIONED(Crawl.sample()),
+        /**
+         * Columns stored as JSON (see {@link Household})
+         */
+        JSON_HEAVY(Household.sample());
+
+        private final HBRecord sample;
+
+        Shape(HBRecord sample) {
+            this.sample = sample;
+        }
+    }
+
+    @Param
+    public Shape shape;
+
+    private HBObjectMapper hbObjectMapper;
+    private HBRecord record;
+    private Class<? extends HBRecord> recordClass;
+    private Put put;
+    private Result result;
+
+    @Setup
+    public void setup() {
+        hbObjectMapper = new HBObjectMapper();
+        record = shape.sample;
+        recordClass = record.getClass();
+        put = hbObjectMapper.writeValueAsPut(record);
+        result = hbObjectMapper.writeValueAsResult(record);
+    }
+
+    @Benchmark
+    public Put writeValueAsPut() {
+        return hbObjectMapper.writeValueAsPut(record);
+    }
+
+    @Benchmark
+    public Result writeValueAsResult() {
+        return hbObjectMapper.writeValueAsResult(record);
+    }
+
+    @Benchmark
+    public HBRecord readValueFromResult() {
+        return hbObjectMapper.readValue(result, recordClass);
+    }
+
+    @Benchmark
+    public HBRecord readValueFromPut() {
+        return hbObjectMapper.readValue(put, recordClass);
+    }
+
+    @Benchmark
+    public ImmutableBytesWritable getRowKey() {
+        return hbObjectMapper.getRowKey(record);
+    }
+}
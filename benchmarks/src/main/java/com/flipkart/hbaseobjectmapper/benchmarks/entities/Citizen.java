@@ -0,0 +1,93 @@
+package com.flipkart.hbaseobjectmapper.benchmarks.entities;
+
+import com.flipkart.hbaseobjectmapper.*;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * A wide entity (modelled on <code>Citizen</code> entity used in this library's unit tests)
+ */
+@HBTable("citizens")
+public class Citizen implements HBRecord {
+    private static final String KEY_DELIM = "#";
+    @HBRowKey
+    private String countryCode;
+    @HBRowKey
+    private Integer uid;
+    @HBColumn(family = "main", column = "name")
+    private String name;
+    @HBColumn(family = "optional", column = "age")
+    private Short age;
+    @HBColumn(family = "optional", column = "salary")
+    private Integer sal;
+    @HBColumn(family = "optional", column = "iph")
+    private Boolean isPassportHolder;
+    @HBColumn(family = "optional", column = "f1")
+    private Float f1;
+    @HBColumn(family = "optional", column = "f2")
+    private Double f2;
+    @HBColumn(family = "optional", column = "f3")
+    private Long f3;
+    @HBColumn(family = "optional", column = "f4")
+    private BigDecimal f4;
+    @HBColumn(family = "optional", column = "pincode", serializeAsString = true)
+    private Integer pincode;
+    @HBColumnMultiVersion(family = "optional", column = "phone_number")
+    private NavigableMap<Long, Integer> phoneNumberHistory;
+    @HBColumn(family = "optional", column = "flags")
+    private Map<String, Integer> extraFlags;
+
+    public Citizen() {
+    }
+
+    public Citizen(String countryCode, Integer uid, String name, Short age, Integer sal, Boolean isPassportHolder, Float f1, Double f2, Long f3, BigDecimal f4, Integer pincode, NavigableMap<Long, Integer> phoneNumberHistory, Map<String, Integer> extraFlags) {
+        this.countryCode = countryCode;
+        this.uid = uid;
+        this.name = name;
+        this.age = age;
+        this.sal = sal;
+        this.isPassportHolder = isPassportHolder;
+        this.f1 = f1;
+        this.f2 = f2;
+        this.f3 = f3;
+        this.f4 = f4;
+        this.pincode = pincode;
+        this.phoneNumberHistory = phoneNumberHistory;
+        this.extraFlags = extraFlags;
+    }
+
+    /**
+     * A fully populated sample instance
+     */
+    public static Citizen sample() {
+        NavigableMap<Long, Integer> phoneNumberHistory = new TreeMap<Long, Integer>();
+        phoneNumberHistory.put(1000L, 100001);
+        phoneNumberHistory.put(2000L, 100002);
+        Map<String, Integer> extraFlags = new HashMap<String, Integer>();
+        extraFlags.put("a", 1);
+        extraFlags.put("b", 2);
+        return new Citizen("IND", 101, "Manu", (short) 30, 30000, false, 2.3f, 4.33, 34L, new BigDecimal(100), 560034, phoneNumberHistory, extraFlags);
+    }
+
+    @Override
+    public byte[] composeRowKey() {
+        return Bytes.toBytes(countryCode + KEY_DELIM + uid);
+    }
+
+    @Override
+    public void parseRowKey(byte[] rowKey) {
+        String[] pieces = Bytes.toString(rowKey).split(KEY_DELIM);
+        this.countryCode = pieces[0];
+        this.uid = Integer.parseInt(pieces[1]);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Integer getSal() {
+        return sal;
+    }
+}
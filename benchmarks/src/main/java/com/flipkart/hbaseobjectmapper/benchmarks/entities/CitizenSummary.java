@@ -0,0 +1,44 @@
+package com.flipkart.hbaseobjectmapper.benchmarks.entities;
+
+import com.flipkart.hbaseobjectmapper.HBColumn;
+import com.flipkart.hbaseobjectmapper.HBRecord;
+import com.flipkart.hbaseobjectmapper.HBRowKey;
+import com.flipkart.hbaseobjectmapper.HBTable;
+
+/**
+ * A narrow entity (modelled on <code>CitizenSummary</code> entity used in this library's unit tests)
+ */
+@HBTable("citizen_summary")
+public class CitizenSummary implements HBRecord {
+    @HBRowKey
+    private byte[] key;
+    @HBColumn(family = "a", column = "average_age")
+    private Float averageAge;
+
+    public CitizenSummary() {
+        key = "summary".getBytes();
+    }
+
+    /**
+     * A fully populated sample instance
+     */
+    public static CitizenSummary sample() {
+        CitizenSummary citizenSummary = new CitizenSummary();
+        citizenSummary.averageAge = 34.5f;
+        return citizenSummary;
+    }
+
+    @Override
+    public byte[] composeRowKey() {
+        return key;
+    }
+
+    @Override
+    public void parseRowKey(byte[] rowKey) {
+        key = rowKey;
+    }
+
+    public Float getAverageAge() {
+        return averageAge;
+    }
+}
@@ -0,0 +1,55 @@
+package com.flipkart.hbaseobjectmapper.benchmarks.entities;
+
+import com.flipkart.hbaseobjectmapper.HBColumnMultiVersion;
+import com.flipkart.hbaseobjectmapper.HBRecord;
+import com.flipkart.hbaseobjectmapper.HBRowKey;
+import com.flipkart.hbaseobjectmapper.HBTable;
+
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * A multi-versioned entity (modelled on <code>Crawl</code> entity used in this library's unit tests)
+ */
+@HBTable("crawl")
+public class Crawl implements HBRecord {
+    /**
+     * Number of versions in sample instance
+     */
+    public static final int NUM_VERSIONS = 10;
+
+    @HBRowKey
+    private byte[] key;
+    @HBColumnMultiVersion(family = "a", column = "f1")
+    private NavigableMap<Long, Double> f1;
+
+    public Crawl() {
+    }
+
+    /**
+     * A fully populated sample instance
+     */
+    public static Crawl sample() {
+        Crawl crawl = new Crawl();
+        crawl.key = "key".getBytes();
+        crawl.f1 = new TreeMap<Long, Double>();
+        for (int i = 1; i <= NUM_VERSIONS; i++) {
+            crawl.f1.put(1000L * i, i / 10.0);
+        }
+        return crawl;
+    }
+
+    @Override
+    public byte[] composeRowKey() {
+        return key;
+    }
+
+    @Override
+    public void parseRowKey(byte[] rowKey) {
+        this.key = rowKey;
+    }
+
+    public NavigableMap<Long, Double> getF1() {
+        return f1;
+    }
+}
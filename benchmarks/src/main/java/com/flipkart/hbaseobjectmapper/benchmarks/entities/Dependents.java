@@ -0,0 +1,23 @@
+package com.flipkart.hbaseobjectmapper.benchmarks.entities;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * A value stored as JSON (modelled on <code>Dependents</code> class used in this library's unit tests)
+ */
+public class Dependents {
+    @JsonProperty
+    private Integer uidWife;
+    @JsonProperty
+    private List<Integer> uidChildren;
+
+    public Dependents() {
+    }
+
+    public Dependents(Integer uidWife, List<Integer> uidChildren) {
+        this.uidWife = uidWife;
+        this.uidChildren = uidChildren;
+    }
+}
@@ -0,0 +1,59 @@
+package com.flipkart.hbaseobjectmapper.benchmarks.entities;
+
+import com.flipkart.hbaseobjectmapper.HBColumn;
+import com.flipkart.hbaseobjectmapper.HBRecord;
+import com.flipkart.hbaseobjectmapper.HBRowKey;
+import com.flipkart.hbaseobjectmapper.HBTable;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.util.*;
+
+/**
+ * An entity whose fields are stored as JSON (modelled on <code>extraFlags</code> and <code>dependents</code> fields of <code>Citizen</code> entity used in this library's unit tests)
+ */
+@HBTable("households")
+public class Household implements HBRecord {
+    @HBRowKey
+    private Integer uid;
+    @HBColumn(family = "main", column = "flags")
+    private Map<String, Integer> extraFlags;
+    @HBColumn(family = "main", column = "dependents")
+    private Dependents dependents;
+    @HBColumn(family = "main", column = "relatives")
+    private List<Dependents> relatives;
+
+    public Household() {
+    }
+
+    /**
+     * A fully populated sample instance
+     */
+    public static Household sample() {
+        Household household = new Household();
+        household.uid = 101;
+        household.extraFlags = new HashMap<String, Integer>();
+        for (int i = 0; i < 20; i++) {
+            household.extraFlags.put("flag" + i, i);
+        }
+        household.dependents = new Dependents(102, Arrays.asList(103, 104, 105));
+        household.relatives = new ArrayList<Dependents>();
+        for (int i = 0; i < 5; i++) {
+            household.relatives.add(new Dependents(200 + i * 10, Arrays.asList(201 + i * 10, 202 + i * 10)));
+        }
+        return household;
+    }
+
+    @Override
+    public byte[] composeRowKey() {
+        return Bytes.toBytes(uid);
+    }
+
+    @Override
+    public void parseRowKey(byte[] rowKey) {
+        this.uid = Bytes.toInt(rowKey);
+    }
+
+    public Map<String, Integer> getExtraFlags() {
+        return extraFlags;
+    }
+}
@@ -0,0 +1,370 @@
+package com.flipkart.hbaseobjectmapper.processor;
+
+import com.flipkart.hbaseobjectmapper.HBRecordCodec;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes source of the codec (see {@link HBRecordCodec}) of an entity class. Generated code is straight-line: each mapped field is read, converted and written by code specific to it's type
+ */
+class CodecSourceWriter {
+
+    /**
+     * Types that are converted using methods of HBase's <code>Bytes</code> class (mirrors {@link com.flipkart.hbaseobjectmapper.HBObjectMapper}), against name of their primitive types
+     */
+    private static final Map<String, String> nativeTypes = new HashMap<String, String>() {
+        {
+            put(Boolean.class.getName(), "boolean");
+            put(Short.class.getName(), "short");
+            put(Integer.class.getName(), "int");
+            put(Long.class.getName(), "long");
+            put(Float.class.getName(), "float");
+            put(Double.class.getName(), "double");
+            put(String.class.getName(), null);
+            put(BigDecimal.class.getName(), null);
+        }
+    };
+
+    /**
+     * Primitive types that are supported, against names of their boxed types
+     */
+    private static final Map<String, String> boxedTypes = new HashMap<String, String>() {
+        {
+            for (Map.Entry<String, String> e : nativeTypes.entrySet()) {
+                if (e.getValue() != null)
+                    put(e.getValue(), e.getKey());
+            }
+        }
+    };
+
+    private final ProcessingEnvironment processingEnv;
+    private final TypeElement type;
+    private final List<MappedField> rowKeyFields, columns;
+    private final Map<String, String> familyConstants = new LinkedHashMap<String, String>();
+    private final String packageName, className, codecName;
+    private PrintWriter out;
+
+    CodecSourceWriter(ProcessingEnvironment processingEnv, TypeElement type, List<MappedField> rowKeyFields, List<MappedField> columns) {
+        this.processingEnv = processingEnv;
+        this.type = type;
+        this.rowKeyFields = rowKeyFields;
+        this.columns = columns;
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(type);
+        this.packageName = packageElement.isUnnamed() ? null : packageElement.getQualifiedName().toString();
+        this.className = type.getSimpleName().toString();
+        this.codecName = className + HBRecordCodec.CLASS_NAME_SUFFIX;
+        for (MappedField column : columns) {
+            if (!familyConstants.containsKey(column.family()))
+                familyConstants.put(column.family(), "FAMILY_" + familyConstants.size());
+        }
+    }
+
+    void write() throws IOException {
+        String qualifiedCodecName = packageName == null ? codecName : packageName + "." + codecName;
+        JavaFileObject sourceFile = processingEnv.getFiler().createSourceFile(qualifiedCodecName, type);
+        out = new PrintWriter(sourceFile.openWriter());
+        try {
+            writeHeader();
+            writeConstants();
+            writeMappingFingerprint();
+            writeToPut();
+            writeToResult();
+            writeFromResult();
+            for (MappedField column : columns) {
+                writeEncode(column);
+                writeDecode(column);
+            }
+            out.println("}");
+        } finally {
+            out.close();
+        }
+    }
+
+    private void writeHeader() {
+        if (packageName != null) {
+            out.printf("package %s;%n%n", packageName);
+        }
+        out.println("import com.flipkart.hbaseobjectmapper.AbstractHBRecordCodec;");
+        out.println("import com.flipkart.hbaseobjectmapper.exceptions.ObjectNotInstantiatableException;");
+        out.println("import org.apache.hadoop.hbase.HConstants;");
+        out.println("import org.apache.hadoop.hbase.KeyValue;");
+        out.println("import org.apache.hadoop.hbase.client.Put;");
+        out.println("import org.apache.hadoop.hbase.client.Result;");
+        out.println("import org.apache.hadoop.hbase.util.Bytes;");
+        out.println();
+        out.printf("/**%n * Codec for {@link %s}. Generated by {@code %s} - do not edit%n */%n", className, HBRecordCodecProcessor.class.getName());
+        String generatedAnnotation = generatedAnnotation();
+        if (generatedAnnotation != null) {
+            out.printf("@%s(\"%s\")%n", generatedAnnotation, HBRecordCodecProcessor.class.getName());
+        }
+        out.printf("public final class %s extends AbstractHBRecordCodec<%s> {%n", codecName, className);
+    }
+
+    private void writeConstants() {
+        for (Map.Entry<String, String> e : familyConstants.entrySet()) {
+            out.printf("    private static final byte[] %s = Bytes.toBytes(%s);%n", e.getValue(), quote(e.getKey()));
+        }
+        for (MappedField column : columns) {
+            out.printf("    private static final byte[] %s = Bytes.toBytes(%s);%n", columnConstant(column), quote(column.column()));
+        }
+        for (MappedField column : columns) {
+            if (column.codec() != null) {
+                out.printf("    private static final com.flipkart.hbaseobjectmapper.codec.HBCodec<%s> %s = new %s();%n", boxedName(column.valueType()), codecConstant(column), column.codec().getQualifiedName());
+            } else if (!isNative(column.valueType())) {
+                out.printf("    private static final com.flipkart.hbaseobjectmapper.codec.HBCodec<%1$s> %2$s = codecOf(com.flipkart.hbaseobjectmapper.codec.Format.%3$s, new com.fasterxml.jackson.core.type.TypeReference<%1$s>() {%n    });%n", column.valueType(), codecConstant(column), column.format().name());
+            }
+        }
+        out.println();
+        out.printf("    public %s() {%n", codecName);
+        out.printf("        super(%s.class);%n", className);
+        out.println("    }");
+    }
+
+    private void writeMappingFingerprint() {
+        out.println();
+        out.println("    @Override");
+        out.println("    public String getMappingFingerprint() {");
+        out.printf("        return \"%s\";%n", MappingFingerprint.of(type));
+        out.println("    }");
+    }
+
+    private void writeToPut() {
+        out.println();
+        out.println("    @Override");
+        out.printf("    public Put toPut(%s record) {%n", className);
+        out.println("        Put put = new Put(composeRowKey(record));");
+        writeCells("put.add(%s, %s, %s, %s);");
+        out.println("        return put;");
+        out.println("    }");
+    }
+
+    private void writeToResult() {
+        out.println();
+        out.println("    @Override");
+        out.printf("    public Result toResult(%s record) {%n", className);
+        out.println("        byte[] row = composeRowKey(record);");
+        out.println("        java.util.List<KeyValue> keyValues = new java.util.ArrayList<KeyValue>();");
+        writeCells("keyValues.add(new KeyValue(row, %s, %s, %s, %s));");
+        out.println("        return toResult(keyValues);");
+        out.println("    }");
+    }
+
+    /**
+     * Writes code that converts all mapped fields of the record into cells
+     *
+     * @param addCell Format of statement that adds a cell, given it's family, column, timestamp and value
+     */
+    private void writeCells(String addCell) {
+        for (MappedField rowKeyField : rowKeyFields) {
+            if (!rowKeyField.fieldType().getKind().isPrimitive())
+                out.printf("        checkRowKeyField(%s, %s);%n", rowKeyField.get("record"), quote(rowKeyField.name()));
+        }
+        out.println("        int numOfFieldsWritten = 0;");
+        for (MappedField column : columns) {
+            String family = familyConstants.get(column.family()), qualifier = columnConstant(column), encode = "encode" + capitalizedName(column);
+            if (column.isMultiVersioned()) {
+                out.println("        {");
+                out.printf("            %s versions = %s;%n", column.fieldType(), column.get("record"));
+                out.println("            if (versions != null) {");
+                out.println("                checkNotEmpty(versions);");
+                out.printf("                for (java.util.Map.Entry<Long, %s> e : versions.entrySet()) {%n", column.valueType());
+                out.println("                    if (e.getValue() != null)");
+                out.printf("                        %s%n", String.format(addCell, family, qualifier, "e.getKey()", encode + "(e.getValue())"));
+                out.println("                }");
+                out.println("                numOfFieldsWritten++;");
+                out.println("            }");
+                out.println("        }");
+            } else {
+                out.println("        {");
+                out.printf("            byte[] value = %s(%s);%n", encode, column.get("record"));
+                out.println("            if (value != null && value.length > 0) {");
+                out.printf("                %s%n", String.format(addCell, family, qualifier, "HConstants.LATEST_TIMESTAMP", "value"));
+                out.println("                numOfFieldsWritten++;");
+                out.println("            }");
+                out.println("        }");
+            }
+        }
+        out.println("        checkAnyFieldWritten(numOfFieldsWritten);");
+    }
+
+    private void writeFromResult() {
+        out.println();
+        out.println("    @Override");
+        out.printf("    public %s fromResult(byte[] rowKey, Result result) {%n", className);
+        out.printf("        %s record;%n", className);
+        out.println("        try {");
+        out.printf("            record = new %s();%n", className);
+        out.println("        } catch (RuntimeException ex) {");
+        out.println("            throw new ObjectNotInstantiatableException(\"Error while instantiating empty constructor of \" + hbRecordClass.getName(), ex);");
+        out.println("        }");
+        out.println("        parseRowKey(record, rowKey);");
+        for (MappedField column : columns) {
+            String family = familyConstants.get(column.family()), qualifier = columnConstant(column), decode = "decode" + capitalizedName(column);
+            out.println("        {");
+            if (column.isMultiVersioned()) {
+                out.printf("            java.util.List<KeyValue> keyValues = result.getColumn(%s, %s);%n", family, qualifier);
+                out.println("            if (!keyValues.isEmpty()) {");
+                out.printf("                java.util.NavigableMap<Long, %1$s> versions = new java.util.TreeMap<Long, %1$s>();%n", column.valueType());
+                out.println("                for (KeyValue kv : keyValues)");
+                out.printf("                    versions.put(kv.getTimestamp(), %s(kv.getValue()));%n", decode);
+                out.printf("                %s%n", column.set("record", "versions"));
+                out.println("            }");
+            } else {
+                out.printf("            byte[] value = result.getValue(%s, %s);%n", family, qualifier);
+                if (decodesBoxed(column)) {
+                    // value that can't be decoded leaves field untouched, as for an absent column
+                    out.println("            if (value != null && value.length > 0) {");
+                    out.printf("                %s decoded = %s(value);%n", decodedType(column), decode);
+                    out.println("                if (decoded != null)");
+                    out.printf("                    %s%n", column.set("record", "decoded"));
+                    out.println("            }");
+                } else {
+                    out.println("            if (value != null && value.length > 0)");
+                    out.printf("                %s%n", column.set("record", decode + "(value)"));
+                }
+            }
+            out.println("        }");
+        }
+        out.println("        return record;");
+        out.println("    }");
+    }
+
+    private void writeEncode(MappedField column) {
+        TypeMirror valueType = column.valueType();
+        out.println();
+        out.printf("    private static byte[] encode%s(%s value) {%n", capitalizedName(column), valueType);
+        if (!isPrimitive(valueType)) {
+            out.println("        if (value == null)");
+            out.println("            return null;");
+        }
+        if (hasCodecConstant(column)) {
+            out.printf("        return %s.toBytes(value);%n", codecConstant(column));
+        } else if (column.serializeAsString()) {
+            out.println("        return Bytes.toBytes(String.valueOf(value));");
+        } else {
+            String primitive = nativeTypes.get(valueType.toString());
+            out.printf("        return Bytes.toBytes(%s);%n", primitive == null ? "value" : "value." + primitive + "Value()");
+        }
+        out.println("    }");
+    }
+
+    private void writeDecode(MappedField column) {
+        TypeMirror valueType = column.valueType();
+        String typeName = boxedName(valueType);
+        out.println();
+        out.printf("    private %s decode%s(byte[] value) {%n", decodedType(column), capitalizedName(column));
+        if (!isPrimitive(valueType) || decodesBoxed(column)) { // primitives are decoded only from non-empty values
+            out.println("        if (value == null || value.length == 0)");
+            out.println("            return null;");
+        }
+        if (!hasCodecConstant(column) && column.serializeAsString() && !typeName.equals(String.class.getName())) {
+            String parser = typeName.equals(BigDecimal.class.getName()) ? "java.math.BigDecimal::new" : typeName + "::valueOf";
+            out.printf("        return fromString(value, %s);%n", parser);
+        } else {
+            out.println("        try {");
+            if (hasCodecConstant(column)) {
+                out.printf("            return %s.fromBytes(value, 0, value.length);%n", codecConstant(column));
+            } else {
+                String simpleName = typeName.substring(typeName.lastIndexOf('.') + 1);
+                String method = simpleName.equals("Integer") ? "toInt" : "to" + simpleName;
+                out.printf("            return Bytes.%s(value);%n", method);
+            }
+            out.println("        } catch (RuntimeException ex) {");
+            out.printf("            throw conversionFailed(%s, ex);%n", quote(column.name()));
+            out.println("        }");
+        }
+        out.println("    }");
+    }
+
+    /**
+     * @return Name of the <code>@Generated</code> annotation available to the compilation (it moved across JDK versions), <code>null</code> if there's none
+     */
+    private String generatedAnnotation() {
+        for (String name : new String[]{"javax.annotation.processing.Generated", "javax.annotation.Generated"}) {
+            if (processingEnv.getElementUtils().getTypeElement(name) != null)
+                return name;
+        }
+        return null;
+    }
+
+    static boolean isNative(TypeMirror type) {
+        return nativeTypes.containsKey(boxedName(type));
+    }
+
+    /**
+     * Whether values of a column are converted by a codec object (one specified on the field, or one for the field's format) instead of inline code
+     */
+    private static boolean hasCodecConstant(MappedField column) {
+        return column.codec() != null || !isNative(column.valueType());
+    }
+
+    private static boolean isPrimitive(TypeMirror type) {
+        return type.getKind().isPrimitive();
+    }
+
+    /**
+     * @return Name of the type, or of it's boxed type if it's a primitive
+     */
+    private static String boxedName(TypeMirror type) {
+        String name = type.toString();
+        return boxedTypes.containsKey(name) ? boxedTypes.get(name) : name;
+    }
+
+    /**
+     * Whether a primitive column is decoded boxed: values in string representation (or decoded by a codec) may not be decodable, which needs to be told apart
+     */
+    private static boolean decodesBoxed(MappedField column) {
+        return isPrimitive(column.valueType()) && (column.serializeAsString() || column.codec() != null);
+    }
+
+    /**
+     * @return Type returned by decode method of a column
+     */
+    private static String decodedType(MappedField column) {
+        return decodesBoxed(column) ? boxedName(column.valueType()) : column.valueType().toString();
+    }
+
+    private static String capitalizedName(MappedField column) {
+        String name = column.name();
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private static String columnConstant(MappedField column) {
+        return "COLUMN_" + column.name();
+    }
+
+    private static String codecConstant(MappedField column) {
+        return "CODEC_" + column.name();
+    }
+
+    private static String quote(String s) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (char c : s.toCharArray()) {
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                default:
+                    if (c < 0x20 || c > 0x7e)
+                        sb.append(String.format("\\u%04x", (int) c));
+                    else
+                        sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
@@ -0,0 +1,303 @@
+package com.flipkart.hbaseobjectmapper.processor;
+
+import com.flipkart.hbaseobjectmapper.*;
+import com.flipkart.hbaseobjectmapper.codec.Format;
+import com.flipkart.hbaseobjectmapper.codec.HBCodec;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.util.*;
+
+/**
+ * Generates a codec (see {@link HBRecordCodec}) for every class annotated with {@link HBTable}. Classes are validated the way {@link HBObjectMapper} validates them at runtime, except that violations are reported as compilation errors. {@link HBObjectMapper} then skips these validations for classes whose codecs are up-to-date (see {@link HBRecordCodec#getMappingFingerprint()}), except for checks that need the class itself (e.g. whether Jackson can deserialize a field's type).
+ * <br><br>
+ * A codec is not generated (and the class continues to be converted using reflection) if generated code can't reach a mapped field - i.e. the field is <code>private</code> and has no getter/setter.
+ */
+@SupportedAnnotationTypes("com.flipkart.hbaseobjectmapper.HBTable")
+public class HBRecordCodecProcessor extends AbstractProcessor {
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(HBTable.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                error(element, "@%s can only be applied on a class", HBTable.class.getName());
+                continue;
+            }
+            TypeElement type = (TypeElement) element;
+            List<MappedField> rowKeyFields = new ArrayList<MappedField>(), columns = new ArrayList<MappedField>();
+            if (!readFields(type, rowKeyFields, columns))
+                continue;
+            if (type.getNestingKind() != NestingKind.TOP_LEVEL) {
+                note(type, "Codec not generated for %s, since it's not a top-level class (it will be converted using reflection)", type.getQualifiedName());
+                continue;
+            }
+            try {
+                new CodecSourceWriter(processingEnv, type, rowKeyFields, columns).write();
+            } catch (IOException e) {
+                error(type, "Could not write codec for %s: %s", type.getQualifiedName(), e.getMessage());
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Validates fields of class and collects ones that form row key or are mapped to columns
+     *
+     * @return <code>true</code> if class is valid and a codec can be generated for it
+     */
+    private boolean readFields(TypeElement type, List<MappedField> rowKeyFields, List<MappedField> columns) {
+        Types types = processingEnv.getTypeUtils();
+        String className = type.getQualifiedName().toString();
+        boolean valid = true;
+        TypeMirror hbRecordType = processingEnv.getElementUtils().getTypeElement(HBRecord.class.getName()).asType();
+        if (!types.isAssignable(type.asType(), hbRecordType)) {
+            error(type, "Class %s is annotated with @%s, but doesn't implement %s", className, HBTable.class.getName(), HBRecord.class.getName());
+            return false;
+        }
+        if (type.getModifiers().contains(Modifier.ABSTRACT)) {
+            error(type, "Class %s is annotated with @%s, but is abstract", className, HBTable.class.getName());
+            valid = false;
+        }
+        valid &= validateEmptyConstructor(type);
+        Set<String> mappedColumns = new HashSet<String>();
+        boolean accessible = true;
+        int numOfVersionColumns = 0;
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            HBColumn hbColumn = field.getAnnotation(HBColumn.class);
+            HBColumnMultiVersion hbColumnMultiVersion = field.getAnnotation(HBColumnMultiVersion.class);
+            HBCounter hbCounter = field.getAnnotation(HBCounter.class);
+            HBVersionColumn hbVersionColumn = field.getAnnotation(HBVersionColumn.class);
+            // counters and versions of rows are columns stored as 8-byte longs
+            Class<? extends Annotation> longAnnotation = hbCounter != null ? HBCounter.class : hbVersionColumn != null ? HBVersionColumn.class : null;
+            String longFamily = hbCounter != null ? hbCounter.family() : hbVersionColumn != null ? hbVersionColumn.family() : null;
+            String longColumn = hbCounter != null ? hbCounter.column() : hbVersionColumn != null ? hbVersionColumn.column() : null;
+            boolean isRowKey = field.getAnnotation(HBRowKey.class) != null;
+            if (hbColumn != null && hbColumnMultiVersion != null) {
+                error(field, "Class %s has a field %s that's annotated with both @%s and @%s (you can use only one of them on a field)", className, field.getSimpleName(), HBColumn.class.getName(), HBColumnMultiVersion.class.getName());
+                valid = false;
+                continue;
+            }
+            if (longAnnotation != null && (hbColumn != null || hbColumnMultiVersion != null || (hbCounter != null && hbVersionColumn != null))) {
+                Class<? extends Annotation> other = hbColumn != null ? HBColumn.class : hbColumnMultiVersion != null ? HBColumnMultiVersion.class : HBVersionColumn.class;
+                error(field, "Class %s has a field %s that's annotated with both @%s and @%s (you can use only one of them on a field)", className, field.getSimpleName(), other.getName(), longAnnotation.getName());
+                valid = false;
+                continue;
+            }
+            if (longAnnotation != null) {
+                TypeKind kind = field.asType().getKind();
+                if (kind != TypeKind.LONG && !(kind == TypeKind.DECLARED && types.isSameType(field.asType(), processingEnv.getElementUtils().getTypeElement(Long.class.getName()).asType()))) {
+                    error(field, "Field %s in class %s is annotated with @%s, but is of type %s (such fields should be of type long or %s)", field.getSimpleName(), className, longAnnotation.getName(), field.asType(), Long.class.getName());
+                    valid = false;
+                    continue;
+                }
+            }
+            if (hbVersionColumn != null && ++numOfVersionColumns > 1) {
+                error(field, "Class %s has more than one field annotated with @%s (a row can have only one version)", className, HBVersionColumn.class.getName());
+                valid = false;
+                continue;
+            }
+            if (hbColumn == null && hbColumnMultiVersion == null && longAnnotation == null) {
+                if (isRowKey) {
+                    String getter = findGetter(type, field);
+                    accessible &= getter != null;
+                    rowKeyFields.add(new MappedField(field, null, null, false, false, null, null, field.asType(), getter, null));
+                }
+                continue;
+            }
+            String annotationName = (hbColumn != null ? HBColumn.class : longAnnotation != null ? longAnnotation : HBColumnMultiVersion.class).getName();
+            String family = hbColumn != null ? hbColumn.family() : longAnnotation != null ? longFamily : hbColumnMultiVersion.family();
+            String column = hbColumn != null ? hbColumn.column() : longAnnotation != null ? longColumn : hbColumnMultiVersion.column();
+            boolean serializeAsString = hbColumn != null ? hbColumn.serializeAsString() : longAnnotation == null && hbColumnMultiVersion.serializeAsString();
+            TypeElement codec = longAnnotation != null ? null : getCodec(field, annotationName);
+            Format format = hbColumn != null ? hbColumn.format() : longAnnotation != null ? Format.JSON : hbColumnMultiVersion.format();
+            Set<Modifier> modifiers = field.getModifiers();
+            if (modifiers.contains(Modifier.TRANSIENT)) {
+                error(field, "In class \"%s\", the field \"%s\" is annotated with \"%s\", but is declared as transient (Transient fields cannot be persisted)", className, field.getSimpleName(), annotationName);
+                valid = false;
+                continue;
+            }
+            if (modifiers.contains(Modifier.STATIC)) {
+                error(field, "In class \"%s\", the field \"%s\" is annotated with \"%s\", but is declared as static (Only instance fields can be mapped to HBase columns)", className, field.getSimpleName(), annotationName);
+                valid = false;
+                continue;
+            }
+            if (field.asType().getKind().isPrimitive() && !CodecSourceWriter.isNative(field.asType())) {
+                error(field, "Field %s in class %s is a primitive of type %s (Only primitives of types boolean, short, int, long, float and double are supported)", field.getSimpleName(), className, field.asType());
+                valid = false;
+                continue;
+            }
+            TypeMirror valueType = field.asType();
+            if (hbColumnMultiVersion != null) {
+                valueType = getMultiVersionValueType(field);
+                if (valueType == null) {
+                    valid = false;
+                    continue;
+                }
+            }
+            if (!mappedColumns.add(family + ":" + column)) {
+                error(field, "Class %s has two fields mapped to same column %s:%s", className, family, column);
+                valid = false;
+                continue;
+            }
+            if (codec != null && !validateCodec(field, codec)) {
+                valid = false;
+                continue;
+            }
+            String getter = findGetter(type, field), setter = findSetter(type, field);
+            accessible &= getter != null && setter != null;
+            MappedField mappedField = new MappedField(field, family, column, hbColumnMultiVersion != null, serializeAsString, codec, format, valueType, getter, setter);
+            columns.add(mappedField);
+            if (isRowKey)
+                rowKeyFields.add(mappedField);
+        }
+        if (valid && columns.isEmpty()) {
+            error(type, "Class %s doesn't even have a single field annotated with %s, %s, %s or %s", className, HBColumn.class.getName(), HBColumnMultiVersion.class.getName(), HBCounter.class.getName(), HBVersionColumn.class.getName());
+            valid = false;
+        }
+        if (valid && rowKeyFields.isEmpty()) {
+            error(type, "Class %s doesn't even have a single field annotated with %s (i.e. it doesn't have any row key fields)", className, HBRowKey.class.getName());
+            valid = false;
+        }
+        if (valid && !accessible) {
+            note(type, "Codec not generated for %s, since some of it's mapped fields are private and don't have getters/setters (it will be converted using reflection)", className);
+        }
+        return valid && accessible;
+    }
+
+    private boolean validateEmptyConstructor(TypeElement type) {
+        List<ExecutableElement> constructors = ElementFilter.constructorsIn(type.getEnclosedElements());
+        for (ExecutableElement constructor : constructors) {
+            if (constructor.getParameters().isEmpty()) {
+                if (constructor.getModifiers().contains(Modifier.PUBLIC))
+                    return true;
+                error(type, "Empty constructor of class %s is inaccessible", type.getQualifiedName());
+                return false;
+            }
+        }
+        error(type, "Class %s needs to specify an empty constructor", type.getQualifiedName());
+        return false;
+    }
+
+    /**
+     * @return Codec specified on field's annotation (read from annotation's mirror, since it's class may not have been compiled yet), <code>null</code> if none was specified
+     */
+    static TypeElement getCodec(VariableElement field, String annotationName) {
+        for (AnnotationMirror annotation : field.getAnnotationMirrors()) {
+            if (!((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationName))
+                continue;
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> e : annotation.getElementValues().entrySet()) {
+                if (e.getKey().getSimpleName().contentEquals("codec")) {
+                    TypeElement codec = (TypeElement) ((DeclaredType) e.getValue().getValue()).asElement();
+                    return codec.getQualifiedName().contentEquals(HBCodec.None.class.getCanonicalName()) ? null : codec;
+                }
+            }
+        }
+        return null;
+    }
+
+    private boolean validateCodec(VariableElement field, TypeElement codec) {
+        if (codec.getModifiers().contains(Modifier.PUBLIC) && !codec.getModifiers().contains(Modifier.ABSTRACT)) {
+            for (ExecutableElement constructor : ElementFilter.constructorsIn(codec.getEnclosedElements())) {
+                if (constructor.getParameters().isEmpty() && constructor.getModifiers().contains(Modifier.PUBLIC))
+                    return true;
+            }
+        }
+        error(field, "Codec %s specified on field %s could not be instantiated (codecs need a public empty constructor)", codec.getQualifiedName(), field.getSimpleName());
+        return false;
+    }
+
+    /**
+     * @return Type of values of a field annotated with {@link HBColumnMultiVersion}, <code>null</code> if field is not of type NavigableMap&lt;Long, ?&gt;
+     */
+    private TypeMirror getMultiVersionValueType(VariableElement field) {
+        String prefix = String.format("A field annotated with @%s should be of type %s<%s, ?>", HBColumnMultiVersion.class.getName(), NavigableMap.class.getName(), Long.class.getName());
+        if (field.asType().getKind() != TypeKind.DECLARED) {
+            error(field, "%s (Field %s is not even a parameterized type)", prefix, field.getSimpleName());
+            return null;
+        }
+        DeclaredType declaredType = (DeclaredType) field.asType();
+        if (!((TypeElement) declaredType.asElement()).getQualifiedName().contentEquals(NavigableMap.class.getName())) {
+            error(field, "%s (Field %s is not a NavigableMap)", prefix, field.getSimpleName());
+            return null;
+        }
+        List<? extends TypeMirror> typeArguments = declaredType.getTypeArguments();
+        if (typeArguments.size() != 2 || !isOfClass(typeArguments.get(0), Long.class)) {
+            error(field, "%s (Field %s has unexpected type params)", prefix, field.getSimpleName());
+            return null;
+        }
+        return typeArguments.get(1);
+    }
+
+    static boolean isOfClass(TypeMirror type, Class<?> clazz) {
+        return type.getKind() == TypeKind.DECLARED && ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().contentEquals(clazz.getName());
+    }
+
+    /**
+     * @return Expression (to be appended to a reference to the record) that reads the field, <code>null</code> if field can't be read from generated code
+     */
+    private String findGetter(TypeElement type, VariableElement field) {
+        if (!field.getModifiers().contains(Modifier.PRIVATE))
+            return "." + field.getSimpleName();
+        Types types = processingEnv.getTypeUtils();
+        String capitalized = capitalize(field.getSimpleName().toString());
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+            String name = method.getSimpleName().toString();
+            if ((name.equals("get" + capitalized) || name.equals("is" + capitalized))
+                    && method.getParameters().isEmpty()
+                    && !method.getModifiers().contains(Modifier.PRIVATE)
+                    && !method.getModifiers().contains(Modifier.STATIC)
+                    && types.isSameType(method.getReturnType(), field.asType())) {
+                return "." + name + "()";
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return Format (to be applied on a reference to the record and a value) of statement that writes the field, <code>null</code> if field can't be written from generated code
+     */
+    private String findSetter(TypeElement type, VariableElement field) {
+        if (!field.getModifiers().contains(Modifier.PRIVATE) && !field.getModifiers().contains(Modifier.FINAL))
+            return "%s." + field.getSimpleName() + " = %s;";
+        Types types = processingEnv.getTypeUtils();
+        String name = "set" + capitalize(field.getSimpleName().toString());
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+            if (method.getSimpleName().contentEquals(name)
+                    && method.getParameters().size() == 1
+                    && !method.getModifiers().contains(Modifier.PRIVATE)
+                    && !method.getModifiers().contains(Modifier.STATIC)
+                    && types.isSameType(method.getParameters().get(0).asType(), field.asType())) {
+                return "%s." + name + "(%s);";
+            }
+        }
+        return null;
+    }
+
+    private static String capitalize(String s) {
+        return Character.toUpperCase(s.charAt(0)) + s.substring(1);
+    }
+
+    private void error(Element element, String format, Object... args) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, String.format(format, args), element);
+    }
+
+    private void note(Element element, String format, Object... args) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, String.format(format, args), element);
+    }
+}
@@ -0,0 +1,96 @@
+package com.flipkart.hbaseobjectmapper.processor;
+
+import com.flipkart.hbaseobjectmapper.codec.Format;
+
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+
+/**
+ * A field of an entity, as seen by {@link HBRecordCodecProcessor}
+ */
+class MappedField {
+    private final VariableElement element;
+    private final String family, column;
+    private final boolean multiVersioned, serializeAsString;
+    private final TypeElement codec;
+    private final Format format;
+    private final TypeMirror valueType;
+    private final String getter, setter;
+
+    /**
+     * @param element           Field
+     * @param family            Column family (<code>null</code> for fields that only form row key)
+     * @param column            Column name (<code>null</code> for fields that only form row key)
+     * @param multiVersioned    Whether field is annotated with <code>HBColumnMultiVersion</code>
+     * @param serializeAsString Whether value is stored in it's string representation
+     * @param codec             Codec specified on the annotation (<code>null</code> if none was specified)
+     * @param format            Format in which values of types that HBase doesn't natively convert are stored
+     * @param valueType         Type of field (or, for multi-versioned fields, type of values in the map)
+     * @param getter            Expression (to be appended to a reference to the record) that reads the field
+     * @param setter            Format (to be applied on a reference to the record and a value) of statement that writes the field
+     */
+    MappedField(VariableElement element, String family, String column, boolean multiVersioned, boolean serializeAsString, TypeElement codec, Format format, TypeMirror valueType, String getter, String setter) {
+        this.element = element;
+        this.family = family;
+        this.column = column;
+        this.multiVersioned = multiVersioned;
+        this.serializeAsString = serializeAsString;
+        this.codec = codec;
+        this.format = format;
+        this.valueType = valueType;
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    VariableElement element() {
+        return element;
+    }
+
+    String name() {
+        return element.getSimpleName().toString();
+    }
+
+    String family() {
+        return family;
+    }
+
+    String column() {
+        return column;
+    }
+
+    boolean isMultiVersioned() {
+        return multiVersioned;
+    }
+
+    boolean serializeAsString() {
+        return serializeAsString;
+    }
+
+    TypeElement codec() {
+        return codec;
+    }
+
+    Format format() {
+        return format;
+    }
+
+    /**
+     * Declared type of the field
+     */
+    TypeMirror fieldType() {
+        return element.asType();
+    }
+
+    TypeMirror valueType() {
+        return valueType;
+    }
+
+    String get(String record) {
+        return record + getter;
+    }
+
+    String set(String record, String value) {
+        return String.format(setter, record, value);
+    }
+}
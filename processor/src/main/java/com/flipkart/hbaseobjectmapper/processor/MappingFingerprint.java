@@ -0,0 +1,143 @@
+package com.flipkart.hbaseobjectmapper.processor;
+
+import com.flipkart.hbaseobjectmapper.*;
+
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import java.lang.annotation.Annotation;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Computes fingerprint of mapping of an entity class (see {@link HBRecordCodec#getMappingFingerprint()}) from it's source. Mirrors computation of the fingerprint from the compiled class by <code>com.flipkart.hbaseobjectmapper.MappingFingerprint</code>: any change here must be made there too
+ */
+final class MappingFingerprint {
+    private static final List<Class<? extends Annotation>> ANNOTATIONS = Arrays.asList(HBRowKey.class, HBColumn.class, HBColumnMultiVersion.class, HBCounter.class, HBVersionColumn.class);
+
+    private MappingFingerprint() {
+    }
+
+    static String of(TypeElement type) {
+        StringBuilder description = new StringBuilder("class ").append(type.getQualifiedName()).append('\n');
+        description.append("constructor ").append(emptyConstructorAccess(type)).append('\n');
+        List<VariableElement> fields = new ArrayList<VariableElement>(ElementFilter.fieldsIn(type.getEnclosedElements()));
+        Collections.sort(fields, new Comparator<VariableElement>() {
+            @Override
+            public int compare(VariableElement f1, VariableElement f2) {
+                return f1.getSimpleName().toString().compareTo(f2.getSimpleName().toString());
+            }
+        });
+        for (VariableElement field : fields) {
+            List<String> annotations = new ArrayList<String>();
+            for (Class<? extends Annotation> annotationClass : ANNOTATIONS) {
+                if (field.getAnnotation(annotationClass) != null)
+                    annotations.add(describe(field, annotationClass));
+            }
+            if (annotations.isEmpty())
+                continue;
+            description.append("field ").append(field.getSimpleName());
+            if (field.getModifiers().contains(Modifier.STATIC))
+                description.append(" static");
+            if (field.getModifiers().contains(Modifier.TRANSIENT))
+                description.append(" transient");
+            description.append(' ').append(describe(field.asType()));
+            for (String annotation : annotations) {
+                description.append(' ').append(annotation);
+            }
+            description.append('\n');
+        }
+        return hash(description.toString());
+    }
+
+    private static String emptyConstructorAccess(TypeElement type) {
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty())
+                return constructor.getModifiers().contains(Modifier.PUBLIC) ? "public" : "inaccessible";
+        }
+        return "none";
+    }
+
+    private static String describe(VariableElement field, Class<? extends Annotation> annotationClass) {
+        if (annotationClass == HBColumn.class) {
+            HBColumn hbColumn = field.getAnnotation(HBColumn.class);
+            return describeAnnotation(HBColumn.class, hbColumn.family(), hbColumn.column(), hbColumn.serializeAsString(), codecName(field, HBColumn.class), hbColumn.format().name());
+        } else if (annotationClass == HBColumnMultiVersion.class) {
+            HBColumnMultiVersion hbColumnMultiVersion = field.getAnnotation(HBColumnMultiVersion.class);
+            return describeAnnotation(HBColumnMultiVersion.class, hbColumnMultiVersion.family(), hbColumnMultiVersion.column(), hbColumnMultiVersion.serializeAsString(), codecName(field, HBColumnMultiVersion.class), hbColumnMultiVersion.format().name());
+        } else if (annotationClass == HBCounter.class) {
+            HBCounter hbCounter = field.getAnnotation(HBCounter.class);
+            return describeAnnotation(HBCounter.class, hbCounter.family(), hbCounter.column());
+        } else if (annotationClass == HBVersionColumn.class) {
+            HBVersionColumn hbVersionColumn = field.getAnnotation(HBVersionColumn.class);
+            return describeAnnotation(HBVersionColumn.class, hbVersionColumn.family(), hbVersionColumn.column());
+        }
+        return describeAnnotation(annotationClass);
+    }
+
+    private static String codecName(VariableElement field, Class<? extends Annotation> annotationClass) {
+        TypeElement codec = HBRecordCodecProcessor.getCodec(field, annotationClass.getName());
+        return codec == null ? "" : codec.getQualifiedName().toString();
+    }
+
+    private static String describeAnnotation(Class<? extends Annotation> annotationClass, Object... values) {
+        StringBuilder description = new StringBuilder("@").append(annotationClass.getSimpleName()).append('(');
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0)
+                description.append(',');
+            description.append(values[i]);
+        }
+        return description.append(')').toString();
+    }
+
+    /**
+     * Describes a type the way it's written in source (with fully qualified names)
+     */
+    private static String describe(TypeMirror type) {
+        switch (type.getKind()) {
+            case DECLARED:
+                DeclaredType declaredType = (DeclaredType) type;
+                StringBuilder description = new StringBuilder(((TypeElement) declaredType.asElement()).getQualifiedName());
+                List<? extends TypeMirror> typeArguments = declaredType.getTypeArguments();
+                if (typeArguments.isEmpty())
+                    return description.toString();
+                description.append('<');
+                for (int i = 0; i < typeArguments.size(); i++) {
+                    if (i > 0)
+                        description.append(',');
+                    description.append(describe(typeArguments.get(i)));
+                }
+                return description.append('>').toString();
+            case ARRAY:
+                return describe(((ArrayType) type).getComponentType()) + "[]";
+            case WILDCARD:
+                WildcardType wildcardType = (WildcardType) type;
+                if (wildcardType.getSuperBound() != null)
+                    return "? super " + describe(wildcardType.getSuperBound());
+                TypeMirror extendsBound = wildcardType.getExtendsBound();
+                return extendsBound == null || HBRecordCodecProcessor.isOfClass(extendsBound, Object.class) ? "?" : "? extends " + describe(extendsBound);
+            default:
+                return type.toString(); // primitives and type variables
+        }
+    }
+
+    private static String hash(String description) {
+        try {
+            StringBuilder hash = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(description.getBytes(StandardCharsets.UTF_8))) {
+                hash.append(String.format("%02x", b));
+            }
+            return hash.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // every JVM supports SHA-256
+        }
+    }
+}
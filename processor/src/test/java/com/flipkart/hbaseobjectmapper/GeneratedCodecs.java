@@ -0,0 +1,16 @@
+package com.flipkart.hbaseobjectmapper;
+
+/**
+ * Exposes (to tests of the processor) which codec an object mapper uses for a class
+ */
+public final class GeneratedCodecs {
+    private GeneratedCodecs() {
+    }
+
+    /**
+     * @return Generated codec the object mapper converts objects of the class with, <code>null</code> if it converts them using reflection
+     */
+    public static <T extends HBRecord> HBRecordCodec<T> of(HBObjectMapper hbObjectMapper, Class<T> clazz) {
+        return hbObjectMapper.getClassMapping(clazz).getGeneratedCodec();
+    }
+}
@@ -0,0 +1,147 @@
+package com.flipkart.hbaseobjectmapper.processor;
+
+import com.flipkart.hbaseobjectmapper.GeneratedCodecs;
+import com.flipkart.hbaseobjectmapper.HBObjectMapper;
+import com.flipkart.hbaseobjectmapper.HBRecord;
+import com.flipkart.hbaseobjectmapper.HBRecordCodec;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.*;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class TestHBRecordCodecProcessor {
+
+    @Rule
+    public TemporaryFolder outputFolder = new TemporaryFolder();
+
+    @Test
+    public void testGeneratedCodec() throws Exception {
+        List<Diagnostic<? extends JavaFileObject>> diagnostics = compile("Employee.java");
+        assertTrue("Valid entity should compile cleanly: " + diagnostics, errors(diagnostics).isEmpty());
+        ClassLoader classLoader = new URLClassLoader(new URL[]{outputFolder.getRoot().toURI().toURL()}, getClass().getClassLoader());
+        @SuppressWarnings("unchecked")
+        Class<HBRecord> employeeClass = (Class<HBRecord>) classLoader.loadClass("entities.Employee");
+        Class<?> codecClass = classLoader.loadClass("entities.Employee" + HBRecordCodec.CLASS_NAME_SUFFIX);
+        assertTrue("Generated class should be a codec", HBRecordCodec.class.isAssignableFrom(codecClass));
+
+        HBRecord employee = employeeClass.newInstance();
+        set(employee, "department", "engineering");
+        set(employee, "id", 42);
+        set(employee, "name", "Jane");
+        set(employee, "active", true);
+        set(employee, "salary", new BigDecimal("12345.67"));
+        set(employee, "age", (short) 35);
+        set(employee, "skills", Arrays.asList("java", "hbase"));
+        set(employee, "quoted", Collections.singletonMap("a", 1));
+        set(employee, "badge", "gold");
+        set(employee, "rank", 3);
+        TreeMap<Long, String> title = new TreeMap<Long, String>();
+        title.put(1L, "Engineer");
+        title.put(2L, null);
+        title.put(3L, "Senior Engineer");
+        set(employee, "title", title);
+        set(employee, "scores", new TreeMap<Long, Map<String, Long>>(Collections.singletonMap(1L, Collections.singletonMap("q1", 90L))));
+
+        HBObjectMapper hbMapper = new HBObjectMapper();
+        assertSame("Generated codec should be used (fingerprint of class at compile time should match that at runtime)", codecClass, GeneratedCodecs.of(hbMapper, employeeClass).getClass());
+        Put put = hbMapper.writeValueAsPut(employee);
+        assertEquals("Null fields and null versions shouldn't be written", 13, put.size());
+        title.remove(2L);
+        Result result = hbMapper.writeValueAsResult(employee);
+        assertEquals("Object converted to Result and back should match original", employee, hbMapper.readValue(result, employeeClass));
+        assertEquals("Object converted to Put and back should match original", employee, hbMapper.readValue(put, employeeClass));
+        assertArrayEquals("Row key should be composed using record's method", employee.composeRowKey(), result.getRow());
+        assertEquals("Codec specified on field should be used", "dlog", new String(result.getValue("optional".getBytes(), "badge".getBytes())));
+        assertEquals("Format specified on field should be used", ':', result.getValue("optional".getBytes(), "skills".getBytes())[0]); // Smile header ":)\n"
+        List<KeyValue> cellsWithoutRank = new ArrayList<KeyValue>();
+        for (KeyValue kv : result.raw()) {
+            if (!new String(kv.getQualifier()).equals("rank"))
+                cellsWithoutRank.add(kv);
+        }
+        set(employee, "rank", 0);
+        assertEquals("Primitive field of absent column should retain value assigned by empty constructor", employee, hbMapper.readValue(new Result(cellsWithoutRank), employeeClass));
+    }
+
+    @Test
+    public void testNoCodecForInaccessibleFields() throws Exception {
+        List<Diagnostic<? extends JavaFileObject>> diagnostics = compile("Inaccessible.java");
+        assertTrue("Entity with inaccessible fields should still compile: " + diagnostics, errors(diagnostics).isEmpty());
+        assertFalse("Codec shouldn't be generated for entity with inaccessible fields", new File(outputFolder.getRoot(), "entities/InaccessibleHBCodec.class").exists());
+    }
+
+    @Test
+    public void testInvalidEntities() throws Exception {
+        List<String> errors = errors(compile("Invalid.java"));
+        String[] expectedFragments = {
+                "needs to specify an empty constructor",
+                "Field initial in class entities.Invalid is a primitive",
+                "two fields mapped to same column main:key",
+                "field \"constant\" is annotated with",
+                "field \"temporary\" is annotated with",
+                "field both that's annotated with both",
+                "Field notNavigable is not a NavigableMap",
+                "Field keyNotLong has unexpected type params",
+                "Codec entities.Invalid.PrivateCodec specified on field encoded could not be instantiated",
+                "Field notLong in class entities.Invalid is annotated with @com.flipkart.hbaseobjectmapper.HBCounter",
+                "more than one field annotated with @com.flipkart.hbaseobjectmapper.HBVersionColumn"
+        };
+        for (String expectedFragment : expectedFragments) {
+            assertTrue(String.format("Expected an error containing \"%s\", but got %s", expectedFragment, errors), containsFragment(errors, expectedFragment));
+        }
+        assertEquals("Unexpected errors: " + errors, expectedFragments.length, errors.size());
+        assertTrue("Class that doesn't implement HBRecord should be rejected", containsFragment(errors(compile("NotARecord.java")), "doesn't implement"));
+    }
+
+    private List<Diagnostic<? extends JavaFileObject>> compile(String entitySource) throws IOException, URISyntaxException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+        StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null);
+        try {
+            File source = new File(getClass().getResource("/entities/" + entitySource).toURI());
+            List<String> options = Arrays.asList("-classpath", System.getProperty("java.class.path"), "-d", outputFolder.getRoot().getPath(), "-s", outputFolder.getRoot().getPath());
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null, fileManager.getJavaFileObjects(source));
+            task.setProcessors(Collections.singletonList(new HBRecordCodecProcessor()));
+            task.call();
+        } finally {
+            fileManager.close();
+        }
+        return diagnostics.getDiagnostics();
+    }
+
+    private static List<String> errors(List<Diagnostic<? extends JavaFileObject>> diagnostics) {
+        List<String> errors = new ArrayList<String>();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                errors.add(diagnostic.getMessage(Locale.ENGLISH));
+        }
+        return errors;
+    }
+
+    private static boolean containsFragment(List<String> messages, String fragment) {
+        for (String message : messages) {
+            if (message.contains(fragment))
+                return true;
+        }
+        return false;
+    }
+
+    private static void set(Object obj, String fieldName, Object value) throws ReflectiveOperationException {
+        Field field = obj.getClass().getDeclaredField(fieldName);
+        field.setAccessible(true);
+        field.set(obj, value);
+    }
+}
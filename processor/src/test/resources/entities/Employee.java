@@ -0,0 +1,114 @@
+package entities;
+
+import com.flipkart.hbaseobjectmapper.*;
+import com.flipkart.hbaseobjectmapper.codec.Format;
+import com.flipkart.hbaseobjectmapper.codec.HBCodec;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+@HBTable("employees")
+public class Employee implements HBRecord {
+    @HBRowKey
+    String department;
+
+    @HBRowKey
+    @HBColumn(family = "main", column = "id")
+    Integer id;
+
+    @HBColumn(family = "main", column = "name")
+    private String name;
+
+    @HBColumn(family = "main", column = "active")
+    private Boolean active;
+
+    @HBColumn(family = "main", column = "salary", serializeAsString = true)
+    BigDecimal salary;
+
+    @HBColumn(family = "optional", column = "age", serializeAsString = true)
+    Short age;
+
+    @HBColumn(family = "optional", column = "rating")
+    Double rating;
+
+    @HBColumn(family = "optional", column = "skills", format = Format.SMILE)
+    List<String> skills;
+
+    @HBColumn(family = "optional", column = "\"quoted\"")
+    Map<String, Integer> quoted;
+
+    @HBColumn(family = "optional", column = "badge", codec = ReversedStringCodec.class)
+    String badge;
+
+    @HBColumn(family = "optional", column = "rank")
+    int rank;
+
+    @HBColumn(family = "optional", column = "visits", serializeAsString = true)
+    long visits = -1;
+
+    @HBColumnMultiVersion(family = "tracked", column = "title")
+    NavigableMap<Long, String> title;
+
+    @HBColumnMultiVersion(family = "tracked", column = "scores", format = Format.CBOR)
+    NavigableMap<Long, Map<String, Long>> scores;
+
+    public Employee() {
+    }
+
+    public static class ReversedStringCodec implements HBCodec<String> {
+        @Override
+        public byte[] toBytes(String value) {
+            return Bytes.toBytes(new StringBuilder(value).reverse().toString());
+        }
+
+        @Override
+        public String fromBytes(byte[] bytes, int offset, int length) {
+            return new StringBuilder(Bytes.toString(bytes, offset, length)).reverse().toString();
+        }
+    }
+
+    @Override
+    public byte[] composeRowKey() {
+        return Bytes.toBytes(department + "#" + id);
+    }
+
+    @Override
+    public void parseRowKey(byte[] rowKey) {
+        String[] pieces = Bytes.toString(rowKey).split("#");
+        department = pieces[0];
+        id = Integer.valueOf(pieces[1]);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Boolean isActive() {
+        return active;
+    }
+
+    public void setActive(Boolean active) {
+        this.active = active;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof Employee))
+            return false;
+        Employee e = (Employee) o;
+        return Objects.equals(department, e.department) && Objects.equals(id, e.id) && Objects.equals(name, e.name)
+                && Objects.equals(active, e.active) && Objects.equals(salary, e.salary) && Objects.equals(age, e.age)
+                && Objects.equals(rating, e.rating) && Objects.equals(skills, e.skills) && Objects.equals(quoted, e.quoted)
+                && Objects.equals(badge, e.badge) && rank == e.rank && visits == e.visits && Objects.equals(title, e.title) && Objects.equals(scores, e.scores);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(department, id);
+    }
+}
@@ -0,0 +1,24 @@
+package entities;
+
+import com.flipkart.hbaseobjectmapper.*;
+import org.apache.hadoop.hbase.util.Bytes;
+
+@HBTable("inaccessible")
+public class Inaccessible implements HBRecord {
+    @HBRowKey
+    @HBColumn(family = "main", column = "key")
+    String key;
+
+    @HBColumn(family = "main", column = "hidden")
+    private String hidden;
+
+    @Override
+    public byte[] composeRowKey() {
+        return Bytes.toBytes(key);
+    }
+
+    @Override
+    public void parseRowKey(byte[] rowKey) {
+        key = Bytes.toString(rowKey);
+    }
+}
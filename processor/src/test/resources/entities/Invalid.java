@@ -0,0 +1,77 @@
+package entities;
+
+import com.flipkart.hbaseobjectmapper.*;
+import com.flipkart.hbaseobjectmapper.codec.HBCodec;
+
+import java.util.Map;
+import java.util.NavigableMap;
+
+@HBTable("invalid")
+public class Invalid implements HBRecord {
+    @HBRowKey
+    @HBColumn(family = "main", column = "key")
+    String key;
+
+    @HBColumn(family = "main", column = "initial")
+    char initial;
+
+    @HBColumn(family = "main", column = "key")
+    String duplicate;
+
+    @HBColumn(family = "main", column = "constant")
+    static String constant;
+
+    @HBColumn(family = "main", column = "temporary")
+    transient String temporary;
+
+    @HBColumn(family = "main", column = "both")
+    @HBColumnMultiVersion(family = "main", column = "both")
+    NavigableMap<Long, String> both;
+
+    @HBColumnMultiVersion(family = "main", column = "notNavigable")
+    Map<Long, String> notNavigable;
+
+    @HBColumnMultiVersion(family = "main", column = "keyNotLong")
+    NavigableMap<Integer, String> keyNotLong;
+
+    @HBColumn(family = "main", column = "encoded", codec = PrivateCodec.class)
+    String encoded;
+
+    @HBCounter(family = "main", column = "notLong")
+    Integer notLong;
+
+    @HBVersionColumn(family = "main", column = "version")
+    Long version;
+
+    @HBVersionColumn(family = "main", column = "revision")
+    Long revision;
+
+    public Invalid(String key) {
+        this.key = key;
+    }
+
+    public static class PrivateCodec implements HBCodec<String> {
+        private PrivateCodec() {
+        }
+
+        @Override
+        public byte[] toBytes(String value) {
+            return value.getBytes();
+        }
+
+        @Override
+        public String fromBytes(byte[] bytes, int offset, int length) {
+            return new String(bytes, offset, length);
+        }
+    }
+
+    @Override
+    public byte[] composeRowKey() {
+        return key.getBytes();
+    }
+
+    @Override
+    public void parseRowKey(byte[] rowKey) {
+        key = new String(rowKey);
+    }
+}
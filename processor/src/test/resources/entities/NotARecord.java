@@ -0,0 +1,10 @@
+package entities;
+
+import com.flipkart.hbaseobjectmapper.*;
+
+@HBTable("not_a_record")
+public class NotARecord {
+    @HBRowKey
+    @HBColumn(family = "main", column = "key")
+    String key;
+}
@@ -1,2 +1,5 @@
 #!/bin/bash
-mvn clean deploy -DperformRelease=true -DskipTests -DaltDeploymentRepository=flipkart::default::http://artifactory.nm.flipkart.com:8081/artifactory/libs-release-local
+# processor depends on library at same version, so library is deployed (and installed) first
+for pom in pom.xml processor/pom.xml ; do
+    mvn clean deploy -DperformRelease=true -DskipTests -DaltDeploymentRepository=flipkart::default::http://artifactory.nm.flipkart.com:8081/artifactory/libs-release-local -f "$pom" || exit 1
+done
@@ -1,50 +1,137 @@
 package com.flipkart.hbaseobjectmapper;
 
-import com.flipkart.hbaseobjectmapper.exceptions.FieldNotMappedToHBaseColumnException;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.Weigher;
 import com.google.common.reflect.TypeToken;
+import com.google.common.util.concurrent.MoreExecutors;
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.HRegionLocation;
 import org.apache.hadoop.hbase.KeyValue;
 import org.apache.hadoop.hbase.client.*;
+import org.apache.hadoop.hbase.filter.Filter;
+import org.apache.hadoop.hbase.filter.FilterList;
+import org.apache.hadoop.hbase.filter.FirstKeyOnlyFilter;
+import org.apache.hadoop.hbase.filter.KeyOnlyFilter;
 import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
 import org.apache.hadoop.hbase.util.Bytes;
 
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
 import java.lang.reflect.Array;
 import java.lang.reflect.Field;
-import java.lang.reflect.ParameterizedType;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
 
 /**
  * A <i>Data Access Object</i> class that enables simpler random access of HBase rows
+ * <br><br>
+ * Instances are thread-safe: every operation checks out an HBase table from a pool (see {@link #AbstractHBDAO(Configuration, HTablePool)}) and returns it when done. Hence, one instance can be shared by all threads of your application.
  *
  * @param <T> Entity type that maps to an HBase row (type must implement {@link HBRecord})
  */
-public abstract class AbstractHBDAO<T extends HBRecord> {
+public abstract class AbstractHBDAO<T extends HBRecord> implements Closeable {
 
     public static final int DEFAULT_NUM_VERSIONS = 1;
-    protected static final HBObjectMapper hbObjectMapper = new HBObjectMapper();
-    protected final HTable hTable;
+    /**
+     * Number of cells scans are tuned to fetch per RPC by default (scanner caching of a DAO is derived from this and number of columns of it's entity)
+     */
+    public static final int DEFAULT_CELLS_PER_RPC = 1000;
+    /**
+     * Maximum number of idle tables retained by the pool of a DAO that's constructed without one
+     */
+    public static final int DEFAULT_TABLE_POOL_SIZE = 64;
+    private static final HBObjectMapper defaultHBObjectMapper = new HBObjectMapper();
+    private static final int INVALIDATION_STRIPES = 1024; // power of 2
+    private static final ScanOptions ONE_CELL_PER_ROW_SCAN_OPTIONS = ScanOptions.CLIENT_DEFAULTS.caching(DEFAULT_CELLS_PER_RPC); // for scans that fetch one cell of each row (counts and aggregations)
+    protected final HBObjectMapper hbObjectMapper;
+    private final Configuration conf;
+    private final byte[] tableName;
+    private final HTablePool tablePool;
+    private final boolean ownsTablePool;
+    private final HConnection connection;
+    private final ThreadLocal<BoundedConnection> boundedConnection = new ThreadLocal<BoundedConnection>(); // connection that HBase calls made on current thread go through, in place of that of this DAO (see #callThrough)
+    private HTable hTable;
+    private boolean closed; // guarded by this
     @SuppressWarnings("FieldCanBeLocal")
     private final TypeToken<T> typeToken = new TypeToken<T>(getClass()) {
     };
     protected final Class<T> hbRecordClass;
     protected final Map<String, Field> fields;
+    private final ClassMapping<T> classMapping;
+    private volatile ScanOptions scanOptions;
+    private final ConcurrentMap<Long, Configuration> scannerConfs = new ConcurrentHashMap<Long, Configuration>(); // max result size to configuration for scanners (copying a configuration is costly)
+    private volatile Cache<RowKey, CachedRecord<T>> cache;
+    private final AtomicLongArray invalidations = new AtomicLongArray(INVALIDATION_STRIPES); // count of writes to row keys (striped by hash), to tell rows that were written while being read
+    private volatile GetCoalescer<T> coalescer;
+    private volatile ChangeTracker changeTracker;
 
     /**
      * Constructs a data access object. Classes extending this class <strong>must</strong> call this constructor using <code>super</code>
      *
      * @param conf Hadoop configuration
      */
-    @SuppressWarnings("unchecked")
     protected AbstractHBDAO(Configuration conf) throws IOException {
+        this(conf, defaultHBObjectMapper);
+    }
+
+    /**
+     * Constructs a data access object that converts objects using specified object mapper (e.g. one with codecs registered for specific types)
+     *
+     * @param conf           Hadoop configuration
+     * @param hbObjectMapper Object mapper
+     */
+    protected AbstractHBDAO(Configuration conf, HBObjectMapper hbObjectMapper) throws IOException {
+        this(conf, null, hbObjectMapper);
+    }
+
+    /**
+     * Constructs a data access object that checks out HBase tables from specified pool. Use this to share a pool across DAOs, or to control how tables are created (pass an {@link HTableInterfaceFactory} to the pool)
+     *
+     * @param conf      Hadoop configuration (same as that of the pool)
+     * @param tablePool Pool of HBase tables (it's not closed by {@link #close()})
+     */
+    protected AbstractHBDAO(Configuration conf, HTablePool tablePool) throws IOException {
+        this(conf, tablePool, defaultHBObjectMapper);
+    }
+
+    /**
+     * Constructs a data access object that checks out HBase tables from specified pool and converts objects using specified object mapper
+     *
+     * @param conf           Hadoop configuration (same as that of the pool)
+     * @param tablePool      Pool of HBase tables (if <code>null</code>, a pool of up to {@link #DEFAULT_TABLE_POOL_SIZE} tables is created, and closed by {@link #close()})
+     * @param hbObjectMapper Object mapper
+     */
+    @SuppressWarnings("unchecked")
+    protected AbstractHBDAO(Configuration conf, HTablePool tablePool, HBObjectMapper hbObjectMapper) throws IOException {
+        this.hbObjectMapper = hbObjectMapper;
         hbRecordClass = (Class<T>) typeToken.getRawType();
         if (hbRecordClass == null || hbRecordClass == HBRecord.class)
             throw new IllegalStateException("Unable to resolve HBase record type (record class is resolving to " + hbRecordClass + ")");
         HBTable hbTable = hbRecordClass.getAnnotation(HBTable.class);
         if (hbTable == null)
             throw new IllegalStateException(String.format("Type %s should be annotated with %s for use in class %s", hbRecordClass.getName(), HBTable.class.getName(), AbstractHBDAO.class.getName()));
-        this.hTable = new HTable(conf, hbTable.value());
-        this.fields = hbObjectMapper.getHBFields(hbRecordClass);
+        this.conf = conf;
+        this.tableName = Bytes.toBytes(hbTable.value());
+        this.ownsTablePool = tablePool == null;
+        this.tablePool = ownsTablePool ? new HTablePool(conf, DEFAULT_TABLE_POOL_SIZE) : tablePool;
+        this.connection = HConnectionManager.getConnection(conf);
+        this.classMapping = hbObjectMapper.getClassMapping(hbRecordClass);
+        this.fields = classMapping.getFields();
+        this.scanOptions = ScanOptions.CLIENT_DEFAULTS.caching(Math.max(1, DEFAULT_CELLS_PER_RPC / classMapping.getColumns().size()));
     }
 
     /**
@@ -56,8 +143,44 @@ public abstract class AbstractHBDAO<T extends HBRecord> {
      * @throws IOException When HBase call fails
      */
     public T get(byte[] rowKey, int versions) throws IOException {
-        Result result = this.hTable.get(new Get(rowKey).setMaxVersions(versions));
-        return hbObjectMapper.readValue(new ImmutableBytesWritable(rowKey), result, hbRecordClass);
+        if (versions != 1)
+            return decodeRow(rowKey, fetchRow(rowKey, versions));
+        Cache<RowKey, CachedRecord<T>> cache = this.cache;
+        GetCoalescer<T> coalescer = this.coalescer;
+        if (cache == null && coalescer == null)
+            return decodeRow(rowKey, fetchRow(rowKey, versions));
+        RowKey key = new RowKey(rowKey);
+        if (cache != null) {
+            CachedRecord<T> cached = cache.getIfPresent(key);
+            if (cached != null)
+                return cached.record;
+        }
+        if (coalescer != null)
+            return coalescer.get(rowKey);
+        long epoch = epoch(key);
+        Result result = fetchRow(rowKey, versions);
+        T record = decodeRow(rowKey, result);
+        cache(cache, key, epoch, record, result);
+        return record;
+    }
+
+    Result fetchRow(byte[] rowKey, int versions) throws IOException {
+        return fetch(new Get(rowKey).setMaxVersions(versions));
+    }
+
+    T decodeRow(byte[] rowKey, Result result) {
+        return track(hbObjectMapper.readValue(new ImmutableBytesWritable(rowKey), result, hbRecordClass), result);
+    }
+
+    private T decodeRow(Result result) {
+        return track(hbObjectMapper.readValue(result, hbRecordClass), result);
+    }
+
+    private T track(T record, Result result) {
+        ChangeTracker changeTracker = this.changeTracker;
+        if (changeTracker != null)
+            changeTracker.track(record, result);
+        return record;
     }
 
     /**
@@ -71,42 +194,49 @@ public abstract class AbstractHBDAO<T extends HBRecord> {
         return get(rowKey, DEFAULT_NUM_VERSIONS);
     }
 
-
-    /**
-     * Get multiple rows from HBase table for an array of row keys (This API is a bulk variant of {@link #get(byte[])} method)
-     */
-//    public T[] get(String[] rowKeys, int versions) throws IOException {
-//        List<Get> gets = new ArrayList<Get>(rowKeys.length);
-//        for (String rowKey : rowKeys) {
-//            gets.add(new Get(Bytes.toBytes(rowKey)).setMaxVersions(versions));
-//        }
-//        Result[] results = this.hTable.get(gets);
-//        @SuppressWarnings("unchecked") T[] records = (T[]) Array.newInstance(hbRecordClass, rowKeys.length);
-//        for (int i = 0; i < records.length; i++) {
-//            records[i] = hbObjectMapper.readValue(rowKeys[i], results[i], hbRecordClass);
-//        }
-//        return records;
-//    }
-
-    /**
-     * Get multiple rows from HBase table in one shot for an array of row keys (This API is a bulk variant of {@link #get(byte[])} method)
-     */
-//    public T[] get(String[] rowKeys) throws IOException {
-//        return get(rowKeys, DEFAULT_NUM_VERSIONS);
-//    }
-
     /**
      * Get multiple rows from HBase table in one shot for an array of row keys (This API is a bulk variant of {@link #get(byte[])} method)
      */
     public List<T> get(List<RowKey> rowKeys, int versions) throws IOException {
+        Cache<RowKey, CachedRecord<T>> cache = versions == 1 ? this.cache : null;
+        if (cache == null)
+            return decodeRows(fetchRows(rowKeys, versions));
+        List<T> records = new ArrayList<T>(rowKeys.size());
+        List<Integer> missingIndices = new ArrayList<Integer>();
+        List<RowKey> missingRowKeys = new ArrayList<RowKey>();
+        List<Long> epochs = new ArrayList<Long>();
+        for (RowKey rowKey : rowKeys) {
+            CachedRecord<T> cached = cache.getIfPresent(rowKey);
+            if (cached == null) {
+                missingIndices.add(records.size());
+                missingRowKeys.add(rowKey);
+                epochs.add(epoch(rowKey));
+            }
+            records.add(cached == null ? null : cached.record);
+        }
+        if (!missingRowKeys.isEmpty()) {
+            Result[] results = fetchRows(missingRowKeys, versions);
+            for (int i = 0; i < results.length; i++) {
+                T record = decodeRow(results[i]);
+                cache(cache, missingRowKeys.get(i), epochs.get(i), record, results[i]);
+                records.set(missingIndices.get(i), record);
+            }
+        }
+        return records;
+    }
+
+    Result[] fetchRows(List<RowKey> rowKeys, int versions) throws IOException {
         List<Get> gets = new ArrayList<Get>(rowKeys.size());
         for (RowKey rowKey : rowKeys) {
             gets.add(new Get(rowKey.bytes()).setMaxVersions(versions));
         }
-        Result[] results = this.hTable.get(gets);
-        List<T> records = new ArrayList<T>(rowKeys.size());
+        return fetch(gets);
+    }
+
+    List<T> decodeRows(Result[] results) {
+        List<T> records = new ArrayList<T>(results.length);
         for (Result result : results) {
-            records.add(hbObjectMapper.readValue(result, hbRecordClass));
+            records.add(decodeRow(result));
         }
         return records;
     }
@@ -118,17 +248,117 @@ public abstract class AbstractHBDAO<T extends HBRecord> {
         return get(rowKeys, DEFAULT_NUM_VERSIONS);
     }
 
+    /**
+     * Get multiple rows from HBase table for an array of row keys, fetching rows hosted on different region servers concurrently (This API is a variant of {@link #get(List, int)} method, for large number of row keys)
+     * <br><br>
+     * Row keys are grouped by the region server that hosts them. Each group is fetched and decoded as a separate task on given executor, so that latency isn't bound by the slowest server plus decoding of all rows. Like {@link #get(List, int)}, rows are read through cache, if enabled (see {@link #enableCache(CacheOptions)}): only row keys that aren't cached are fetched, and rows fetched are cached.
+     *
+     * @param rowKeys  Row keys
+     * @param versions Number of versions to be retrieved (default value: {@link #DEFAULT_NUM_VERSIONS})
+     * @param executor Executor to fetch groups of rows on (its threads should not be waiting on this call, to avoid deadlocks)
+     * @return Rows in the same order as their row keys, with <code>null</code> for row keys that don't exist
+     * @throws IOException When HBase call fails
+     */
+    public List<T> get(final List<RowKey> rowKeys, final int versions, ExecutorService executor) throws IOException {
+        final Cache<RowKey, CachedRecord<T>> cache = versions == 1 ? this.cache : null;
+        @SuppressWarnings("unchecked")
+        final T[] records = (T[]) Array.newInstance(hbRecordClass, rowKeys.size());
+        Map<String, List<Integer>> indicesByServer = new LinkedHashMap<String, List<Integer>>();
+        for (int i = 0; i < rowKeys.size(); i++) {
+            if (cache != null) {
+                CachedRecord<T> cached = cache.getIfPresent(rowKeys.get(i));
+                if (cached != null) {
+                    records[i] = cached.record;
+                    continue;
+                }
+            }
+            String server = connection().locateRegion(tableName, rowKeys.get(i).bytes()).getHostnamePort();
+            List<Integer> indices = indicesByServer.get(server);
+            if (indices == null)
+                indicesByServer.put(server, indices = new ArrayList<Integer>());
+            indices.add(i);
+        }
+        if (indicesByServer.size() <= 1) { // nothing to parallelize: fetch on this thread
+            try {
+                for (List<Integer> indices : indicesByServer.values()) {
+                    get(rowKeys, indices, versions, records, cache);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while fetching rows");
+            }
+            return new ArrayList<T>(Arrays.asList(records));
+        }
+        List<Future<?>> futures = new ArrayList<Future<?>>(indicesByServer.size());
+        for (final List<Integer> indices : indicesByServer.values()) {
+            futures.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    get(rowKeys, indices, versions, records, cache);
+                    return null;
+                }
+            }));
+        }
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            cancel(futures);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while fetching rows");
+        } catch (ExecutionException e) {
+            cancel(futures);
+            if (e.getCause() instanceof IOException)
+                throw (IOException) e.getCause();
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new IOException("Couldn't fetch rows", e.getCause());
+        }
+        return new ArrayList<T>(Arrays.asList(records));
+    }
+
+    /**
+     * Fetch rows (for row keys at given indices) in one batch and decode them into corresponding positions of <code>records</code> (caching them, if <code>cache</code> isn't <code>null</code>)
+     */
+    private void get(List<RowKey> rowKeys, List<Integer> indices, int versions, T[] records, Cache<RowKey, CachedRecord<T>> cache) throws IOException, InterruptedException {
+        List<Get> gets = new ArrayList<Get>(indices.size());
+        long[] epochs = new long[indices.size()];
+        for (int j = 0; j < indices.size(); j++) {
+            RowKey rowKey = rowKeys.get(indices.get(j));
+            gets.add(new Get(rowKey.bytes()).setMaxVersions(versions));
+            epochs[j] = epoch(rowKey);
+        }
+        Object[] results = new Object[gets.size()];
+        // rows are all on one server, so the batch is sent on this thread
+        connection().processBatch(gets, tableName, MoreExecutors.sameThreadExecutor(), results);
+        for (int j = 0; j < results.length; j++) {
+            Result result = (Result) results[j];
+            T record = decodeRow(result);
+            if (cache != null)
+                cache(cache, rowKeys.get(indices.get(j)), epochs[j], record, result);
+            records[indices.get(j)] = record;
+        }
+    }
+
+    private static void cancel(List<Future<?>> futures) {
+        for (Future<?> future : futures) {
+            future.cancel(true);
+        }
+    }
+
     /**
      * Get multiple rows from HBase table in one shot for a range of row keys (This API is a bulk variant of {@link #get(byte[])} method)
      */
     public List<T> get(byte[] startRowKey, byte[] endRowKey, int versions) throws IOException {
-        Scan scan = new Scan(startRowKey, endRowKey).setMaxVersions(versions);
-        ResultScanner scanner = hTable.getScanner(scan);
-        List<T> records = new ArrayList<T>();
-        for (Result result : scanner) {
-            records.add(hbObjectMapper.readValue(result, hbRecordClass));
-        }
-        return records;
+        return toList(scan(startRowKey, endRowKey, versions));
+    }
+
+    /**
+     * Get multiple rows from HBase table in one shot for a range of row keys, tuning the scan with given options (see {@link ScanOptions})
+     */
+    public List<T> get(byte[] startRowKey, byte[] endRowKey, int versions, ScanOptions scanOptions) throws IOException {
+        return toList(scan(startRowKey, endRowKey, versions, scanOptions));
     }
 
     /**
@@ -138,40 +368,617 @@ public abstract class AbstractHBDAO<T extends HBRecord> {
         return get(startRowKey, endRowKey, DEFAULT_NUM_VERSIONS);
     }
 
+    /**
+     * Get one row from HBase table by it's row key, such that fields are decoded only when they're accessed (see {@link LazyRecord})
+     *
+     * @param rowKey   Row key
+     * @param versions Number of versions to be retrieved (default value: {@link #DEFAULT_NUM_VERSIONS})
+     * @return Contents of one row, <code>null</code> if there's no row with given row key
+     * @throws IOException When HBase call fails
+     */
+    public LazyRecord<T> getLazily(byte[] rowKey, int versions) throws IOException {
+        Result result = fetch(new Get(rowKey).setMaxVersions(versions));
+        return hbObjectMapper.readValueLazily(new ImmutableBytesWritable(rowKey), result, hbRecordClass);
+    }
+
+    /**
+     * Get one row from HBase table by it's row key, such that fields are decoded only when they're accessed (see {@link LazyRecord})
+     */
+    public LazyRecord<T> getLazily(byte[] rowKey) throws IOException {
+        return getLazily(rowKey, DEFAULT_NUM_VERSIONS);
+    }
+
+    /**
+     * Get multiple rows from HBase table in one shot for an array of row keys, such that fields are decoded only when they're accessed (This API is a bulk variant of {@link #getLazily(byte[])} method)
+     */
+    public List<LazyRecord<T>> getLazily(List<RowKey> rowKeys, int versions) throws IOException {
+        List<Get> gets = new ArrayList<Get>(rowKeys.size());
+        for (RowKey rowKey : rowKeys) {
+            gets.add(new Get(rowKey.bytes()).setMaxVersions(versions));
+        }
+        Result[] results = fetch(gets);
+        List<LazyRecord<T>> records = new ArrayList<LazyRecord<T>>(rowKeys.size());
+        for (Result result : results) {
+            records.add(hbObjectMapper.readValueLazily(result, hbRecordClass));
+        }
+        return records;
+    }
+
+    /**
+     * Get multiple rows from HBase table in one shot for an array of row keys, such that fields are decoded only when they're accessed (This API is a bulk variant of {@link #getLazily(byte[])} method)
+     */
+    public List<LazyRecord<T>> getLazily(List<RowKey> rowKeys) throws IOException {
+        return getLazily(rowKeys, DEFAULT_NUM_VERSIONS);
+    }
+
+    /**
+     * Get multiple rows from HBase table in one shot for a range of row keys, such that fields are decoded only when they're accessed (This API is a bulk variant of {@link #getLazily(byte[])} method)
+     */
+    public List<LazyRecord<T>> getLazily(byte[] startRowKey, byte[] endRowKey, int versions) throws IOException {
+        return toList(scanLazily(startRowKey, endRowKey, versions));
+    }
+
+    /**
+     * Get multiple rows from HBase table in one shot for a range of row keys, such that fields are decoded only when they're accessed (This API is a bulk variant of {@link #getLazily(byte[])} method)
+     */
+    public List<LazyRecord<T>> getLazily(byte[] startRowKey, byte[] endRowKey) throws IOException {
+        return getLazily(startRowKey, endRowKey, DEFAULT_NUM_VERSIONS);
+    }
+
+    /**
+     * Scan rows of HBase table for a range of row keys, reading and converting one row at a time (unlike {@link #get(byte[], byte[], int)}, rows aren't held in memory all at once).
+     * <br><br>
+     * Underlying scanner is released when the returned iterator is exhausted or closed, whichever happens first. Hence, close it if you stop iterating early (e.g. use a <code>try</code>-with-resources block)
+     *
+     * @param startRowKey Row key to start scan from (inclusive)
+     * @param endRowKey   Row key to stop scan at (exclusive)
+     * @param versions    Number of versions to be retrieved (default value: {@link #DEFAULT_NUM_VERSIONS})
+     * @return Iterator over rows, as your bean-like objects
+     * @throws IOException When HBase call fails
+     */
+    public CloseableIterator<T> scan(byte[] startRowKey, byte[] endRowKey, int versions) throws IOException {
+        return scan(startRowKey, endRowKey, versions, ScanOptions.CLIENT_DEFAULTS);
+    }
+
+    /**
+     * Scan rows of HBase table for a range of row keys, reading and converting one row at a time (see {@link #scan(byte[], byte[], int)})
+     *
+     * @param scanOptions Options to tune the scan with (options not set here fall back to those of this DAO, see {@link #setScanOptions(ScanOptions)})
+     */
+    public CloseableIterator<T> scan(byte[] startRowKey, byte[] endRowKey, int versions, ScanOptions scanOptions) throws IOException {
+        return scan(startRowKey, endRowKey, versions, scanOptions, null);
+    }
+
+    /**
+     * Scan rows of HBase table for a range of row keys, that pass given filter (<code>null</code> for no filter)
+     */
+    CloseableIterator<T> scan(byte[] startRowKey, byte[] endRowKey, int versions, ScanOptions scanOptions, Filter filter) throws IOException {
+        return scan(newScan(startRowKey, endRowKey, versions).setFilter(filter), scanOptions);
+    }
+
+    private CloseableIterator<T> scan(Scan scan, ScanOptions scanOptions) throws IOException {
+        return new ScannerIterator<T>(getScanner(scan, scanOptions), scan.getBatch() > 0) {
+            @Override
+            T convert(Result result) {
+                return decodeRow(result);
+            }
+        };
+    }
+
+    /**
+     * Scan rows of HBase table for a range of row keys, reading and converting one row at a time (see {@link #scan(byte[], byte[], int)})
+     */
+    public CloseableIterator<T> scan(byte[] startRowKey, byte[] endRowKey) throws IOException {
+        return scan(startRowKey, endRowKey, DEFAULT_NUM_VERSIONS);
+    }
+
+    /**
+     * Scan rows of HBase table for a range of row keys, one row at a time, such that fields are decoded only when they're accessed (see {@link #scan(byte[], byte[], int)} and {@link LazyRecord})
+     */
+    public CloseableIterator<LazyRecord<T>> scanLazily(byte[] startRowKey, byte[] endRowKey, int versions) throws IOException {
+        return scanLazily(startRowKey, endRowKey, versions, ScanOptions.CLIENT_DEFAULTS);
+    }
+
+    /**
+     * Scan rows of HBase table for a range of row keys, one row at a time, such that fields are decoded only when they're accessed, tuning the scan with given options (see {@link ScanOptions})
+     */
+    public CloseableIterator<LazyRecord<T>> scanLazily(byte[] startRowKey, byte[] endRowKey, int versions, ScanOptions scanOptions) throws IOException {
+        Scan scan = newScan(startRowKey, endRowKey, versions);
+        return new ScannerIterator<LazyRecord<T>>(getScanner(scan, scanOptions), scan.getBatch() > 0) {
+            @Override
+            LazyRecord<T> convert(Result result) {
+                return hbObjectMapper.readValueLazily(result, hbRecordClass);
+            }
+        };
+    }
+
+    /**
+     * Scan rows of HBase table for a range of row keys, one row at a time, such that fields are decoded only when they're accessed (see {@link #scan(byte[], byte[], int)} and {@link LazyRecord})
+     */
+    public CloseableIterator<LazyRecord<T>> scanLazily(byte[] startRowKey, byte[] endRowKey) throws IOException {
+        return scanLazily(startRowKey, endRowKey, DEFAULT_NUM_VERSIONS);
+    }
+
+    /**
+     * Scan rows of HBase table for a range of row keys, splitting the range at region boundaries and scanning sub-ranges concurrently (This API is a variant of {@link #scan(byte[], byte[], int)} method, for ranges that span many regions)
+     * <br><br>
+     * Rows are read and converted on threads of given executor, and buffered (up to {@value ParallelScanIterator#BUFFERED_ROWS_PER_SCAN} rows per sub-range) until they're consumed. Close the returned iterator if you stop iterating early, so that scans still running are stopped.
+     *
+     * @param startRowKey Row key to start scan from (inclusive)
+     * @param endRowKey   Row key to stop scan at (exclusive)
+     * @param versions    Number of versions to be retrieved (default value: {@link #DEFAULT_NUM_VERSIONS})
+     * @param scanOptions Options to tune scan of each sub-range with (see {@link #scan(byte[], byte[], int, ScanOptions)})
+     * @param executor    Executor to scan sub-ranges on (it should have <code>parallelism</code> threads to spare, none of which are waiting on this call)
+     * @param parallelism Maximum number of sub-ranges to be scanned at a time
+     * @param ordered     Whether rows are to be returned in row key order (if <code>false</code>, rows are returned as soon as they're read, which keeps all scans busy)
+     * @return Iterator over rows, as your bean-like objects
+     * @throws IOException When region boundaries couldn't be looked up
+     */
+    public CloseableIterator<T> scan(byte[] startRowKey, byte[] endRowKey, final int versions, final ScanOptions scanOptions, ExecutorService executor, int parallelism, boolean ordered) throws IOException {
+        return new ParallelScanIterator<T>(splitAtRegions(startRowKey, endRowKey), executor, parallelism, ordered) {
+            @Override
+            CloseableIterator<T> scan(byte[] startRowKey, byte[] stopRowKey) throws IOException {
+                return AbstractHBDAO.this.scan(startRowKey, stopRowKey, versions, scanOptions);
+            }
+        };
+    }
+
+    /**
+     * Scan rows of HBase table for a range of row keys, splitting the range at region boundaries and scanning sub-ranges concurrently (see {@link #scan(byte[], byte[], int, ScanOptions, ExecutorService, int, boolean)})
+     */
+    public CloseableIterator<T> scan(byte[] startRowKey, byte[] endRowKey, int versions, ExecutorService executor, int parallelism, boolean ordered) throws IOException {
+        return scan(startRowKey, endRowKey, versions, ScanOptions.CLIENT_DEFAULTS, executor, parallelism, ordered);
+    }
+
+    /**
+     * Split a range of row keys at boundaries of regions of this table
+     *
+     * @return Non-empty sub-ranges, in row key order (each an array of start row key and stop row key, either of which may be empty, i.e. unbounded)
+     */
+    private List<byte[][]> splitAtRegions(byte[] startRowKey, byte[] endRowKey) throws IOException {
+        List<HRegionLocation> regions = connection().locateRegions(tableName);
+        List<byte[]> regionStartKeys = new ArrayList<byte[]>(regions.size());
+        for (HRegionLocation region : regions) {
+            regionStartKeys.add(region.getRegionInfo().getStartKey());
+        }
+        Collections.sort(regionStartKeys, Bytes.BYTES_COMPARATOR);
+        List<byte[][]> ranges = new ArrayList<byte[][]>(regionStartKeys.size());
+        for (int i = 0; i < regionStartKeys.size(); i++) {
+            byte[] regionStartKey = regionStartKeys.get(i), regionEndKey = i + 1 < regionStartKeys.size() ? regionStartKeys.get(i + 1) : HConstants.EMPTY_END_ROW;
+            byte[] from = Bytes.compareTo(startRowKey, regionStartKey) >= 0 ? startRowKey : regionStartKey;
+            byte[] to = regionEndKey.length == 0 || (endRowKey.length > 0 && Bytes.compareTo(endRowKey, regionEndKey) < 0) ? endRowKey : regionEndKey;
+            if (to.length == 0 || Bytes.compareTo(from, to) < 0)
+                ranges.add(new byte[][]{from, to});
+        }
+        return ranges;
+    }
+
+    private Scan newScan(byte[] startRowKey, byte[] endRowKey, int versions) {
+        return new Scan(startRowKey, endRowKey).setMaxVersions(versions);
+    }
+
+    /**
+     * Open a scanner after tuning the scan with given options (falling back to options of this DAO)
+     */
+    private ResultScanner getScanner(Scan scan, ScanOptions scanOptions) throws IOException {
+        ScanOptions options = scanOptions.orElse(this.scanOptions);
+        if (options.getCacheBlocks() == null && scan.getStartRow().length == 0 && scan.getStopRow().length == 0)
+            options = options.cacheBlocks(false); // a full table scan shouldn't evict blocks that other reads need
+        options.applyTo(scan);
+        if (options.getMaxResultSize() <= 0) {
+            HTableInterface table = checkoutTable();
+            try {
+                return table.getScanner(scan); // scanner doesn't need the table once it's open
+            } finally {
+                table.close();
+            }
+        }
+        if (scan.getCaching() <= 0)
+            scan.setCaching(conf.getInt("hbase.client.scanner.caching", 1));
+        return new ClientScanner(getScannerConf(options.getMaxResultSize()), scan, tableName, connection());
+    }
+
+    /**
+     * Get configuration of this DAO with a max result size for scanners (derived once per size, and reused across scans)
+     */
+    private Configuration getScannerConf(long maxResultSize) {
+        Configuration scannerConf = scannerConfs.get(maxResultSize);
+        if (scannerConf == null) {
+            scannerConf = new Configuration(conf);
+            scannerConf.setLong(HConstants.HBASE_CLIENT_SCANNER_MAX_RESULT_SIZE_KEY, maxResultSize);
+            Configuration existing = scannerConfs.putIfAbsent(maxResultSize, scannerConf);
+            if (existing != null)
+                scannerConf = existing;
+        }
+        return scannerConf;
+    }
+
+    /**
+     * Set options to tune scans of this DAO with (these apply to all range reads, unless overridden per call)
+     * <br><br>
+     * By default, scanner caching is derived from the entity (the narrower the row, the more rows are fetched per RPC) and block caching is turned off for full table scans
+     */
+    public void setScanOptions(ScanOptions scanOptions) {
+        if (scanOptions == null)
+            throw new IllegalArgumentException("Scan options can't be null (use " + ScanOptions.class.getSimpleName() + ".CLIENT_DEFAULTS instead)");
+        this.scanOptions = scanOptions;
+    }
+
+    /**
+     * Get options scans of this DAO are tuned with (see {@link #setScanOptions(ScanOptions)})
+     */
+    public ScanOptions getScanOptions() {
+        return scanOptions;
+    }
+
+    /**
+     * Start a query on field values, evaluated on region servers (see {@link Query})
+     *
+     * @param fieldName Name of the private variable of your bean-like object (of a class that implements {@link HBRecord}) to put a condition on
+     * @return Condition on the field, to be completed with an operator and a value (e.g. <code>where("age").gt(30)</code>)
+     */
+    public Query.Condition<T> where(String fieldName) {
+        return Query.where(this, fieldName);
+    }
+
+    static <E> List<E> toList(CloseableIterator<E> iterator) {
+        try {
+            List<E> list = new ArrayList<E>();
+            while (iterator.hasNext()) {
+                list.add(iterator.next());
+            }
+            return list;
+        } finally {
+            iterator.close();
+        }
+    }
+
     /**
      * Persist your bean-like object (of a class that implements {@link HBRecord}) to HBase table
+     * <br><br>
+     * If change tracking is enabled (see {@link #enableChangeTracking()}), only columns that changed since the object was read (or last persisted) are written.
      *
      * @param obj Object that needs to be persisted
      * @return Row key for the object
      * @throws IOException Thrown if there is an HBase error
      */
     public byte[] persist(HBRecord obj) throws IOException {
-        Put put = hbObjectMapper.writeValueAsPut(obj);
-        hTable.put(put);
-        return obj.composeRowKey();
+        return persist(Collections.singletonList(obj)).get(0);
     }
 
     /**
      * Persist a list of your bean-like objects (of a class that implements {@link HBRecord}) to HBase table (this is a bulk variant of {@link #persist(HBRecord)} method)
      */
     public List<byte[]> persist(List<? extends HBRecord> objs) throws IOException {
-        List<Put> puts = new ArrayList<Put>(objs.size());
+        write(objs, toPuts(objs));
         List<byte[]> rowKeys = new ArrayList<byte[]>(objs.size());
         for (HBRecord obj : objs) {
-            puts.add(hbObjectMapper.writeValueAsPut(obj));
             rowKeys.add(obj.composeRowKey());
         }
-        hTable.put(puts);
         return rowKeys;
     }
 
+    /**
+     * Persist your bean-like object only if it's row wasn't written since the object was read, i.e. if version of the row (the field annotated with {@link HBVersionColumn}) is still that of the object. Checking the version and writing the object (with version bumped up by one) is a single atomic operation on HBase (a <i>check-and-put</i>), so concurrent writers of a row need no lock: a writer whose check fails can read the row afresh and retry.
+     * <br><br>
+     * Versions start at 1: an object whose version is <code>null</code> (or <code>0</code>, for a primitive field) is written only if the row doesn't have a version yet (e.g. it doesn't exist). Once written, the object carries the new version, so it can be modified and persisted again. Note that writes that don't go through this method (e.g. {@link #persist(HBRecord)}) aren't checked against, and don't bump, version of the row.
+     *
+     * @param obj Object that needs to be persisted
+     * @return <code>true</code> if the object was written, <code>false</code> if it's row was written by someone else since (the object is left as is)
+     * @throws IOException              When HBase call fails
+     * @throws IllegalArgumentException When class of the object has no field annotated with {@link HBVersionColumn}
+     */
+    public boolean persistIfUnchanged(T obj) throws IOException {
+        FieldMapping versionColumn = classMapping.getVersionColumn();
+        if (versionColumn == null) {
+            throw new IllegalArgumentException(String.format("Class %s doesn't have a field annotated with @%s", hbRecordClass.getName(), HBVersionColumn.class.getName()));
+        }
+        Long version = (Long) versionColumn.get(obj);
+        boolean unversioned = version == null || version == 0;
+        versionColumn.set(obj, unversioned ? 1L : version + 1);
+        boolean written = false;
+        try {
+            Put put = toPuts(Collections.singletonList(obj)).get(0); // there's always one, since version changed
+            HTableInterface table = checkoutTable();
+            try {
+                written = table.checkAndPut(put.getRow(), versionColumn.family(), versionColumn.column(), unversioned ? null : Bytes.toBytes(version), put);
+            } finally {
+                table.close();
+                invalidateCached(Collections.singletonList(put));
+            }
+        } finally {
+            if (!written) {
+                versionColumn.set(obj, version);
+                ChangeTracker changeTracker = this.changeTracker;
+                if (changeTracker != null)
+                    changeTracker.forget(obj);
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Convert objects to {@link Put}s (if change tracking is enabled, of their changed columns only, and none for objects that haven't changed)
+     */
+    List<Put> toPuts(List<? extends HBRecord> objs) {
+        ChangeTracker changeTracker = this.changeTracker;
+        List<Put> puts = new ArrayList<Put>(objs.size());
+        for (HBRecord obj : objs) {
+            Put put = toPut(obj);
+            if (changeTracker != null && put != null)
+                put = changeTracker.changes(obj, put);
+            if (put != null)
+                puts.add(put);
+        }
+        return puts;
+    }
+
+    /**
+     * Convert an object to a {@link Put}, leaving out it's counters (see {@link HBCounter}): those are written through increments only, so that persisting an object doesn't overwrite increments made since it was read
+     *
+     * @return <code>null</code>, if object has nothing but counters to write
+     */
+    Put toPut(HBRecord obj) {
+        Put put = hbObjectMapper.writeValueAsPut(obj);
+        List<FieldMapping> counters = classMapping.getCounters();
+        if (counters.isEmpty())
+            return put;
+        Map<byte[], List<KeyValue>> familyMap = put.getFamilyMap();
+        for (FieldMapping counter : counters) {
+            List<KeyValue> cells = familyMap.get(counter.family());
+            if (cells == null)
+                continue;
+            for (Iterator<KeyValue> iterator = cells.iterator(); iterator.hasNext(); ) {
+                if (counter.matches(iterator.next()))
+                    iterator.remove();
+            }
+            if (cells.isEmpty())
+                familyMap.remove(counter.family());
+        }
+        return put.isEmpty() ? null : put;
+    }
+
+    /**
+     * Write {@link Put}s of objects (see {@link #toPuts(List)})
+     */
+    void write(List<? extends HBRecord> objs, List<Put> puts) throws IOException {
+        if (puts.isEmpty())
+            return;
+        try {
+            store(puts);
+        } catch (IOException | RuntimeException e) {
+            ChangeTracker changeTracker = this.changeTracker;
+            if (changeTracker != null) {
+                for (HBRecord obj : objs) {
+                    changeTracker.forget(obj);
+                }
+            }
+            throw e;
+        }
+    }
+
+    void store(List<Put> puts) throws IOException {
+        HTableInterface table = checkoutTable();
+        try {
+            if (puts.size() == 1)
+                table.put(puts.get(0));
+            else
+                table.put(puts);
+        } finally {
+            table.close();
+            invalidateCached(puts);
+        }
+    }
+
+    /**
+     * Cache rows read by {@link #get(byte[])} and {@link #get(List)} (and their variants that read one version), so that repeat reads of the same row keys are served without an HBase call or decoding. Rows written or deleted through this DAO (or writers obtained from it) are evicted from cache.
+     * <br><br>
+     * <b>Note</b>: Cached objects are shared by all callers that read them, so treat them as read-only (modify a copy before persisting it). Writes made by other processes (or outside this DAO) are visible only once cached rows expire (see {@link CacheOptions#expireAfterWrite(long, TimeUnit)}). Calling this again replaces the cache with an empty one.
+     *
+     * @param options Bounds on size and age of cached rows
+     */
+    public void enableCache(CacheOptions options) {
+        CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder().recordStats()
+                .concurrencyLevel(Runtime.getRuntime().availableProcessors())
+                .expireAfterWrite(options.getExpireAfterWriteMillis(), TimeUnit.MILLISECONDS);
+        if (options.getMaximumBytes() > 0) {
+            builder.maximumWeight(options.getMaximumBytes()).weigher(new Weigher<RowKey, CachedRecord<T>>() {
+                @Override
+                public int weigh(RowKey key, CachedRecord<T> value) {
+                    return value.bytes;
+                }
+            });
+        } else {
+            builder.maximumSize(options.getMaximumEntries());
+        }
+        this.cache = builder.build();
+    }
+
+    /**
+     * Stop caching rows (and discard cached ones)
+     */
+    public void disableCache() {
+        this.cache = null;
+    }
+
+    /**
+     * Get statistics of the cache (hits, misses, evictions etc.)
+     *
+     * @return Statistics since cache was enabled, <code>null</code> if cache isn't enabled
+     */
+    public CacheStats getCacheStats() {
+        Cache<RowKey, CachedRecord<T>> cache = this.cache;
+        return cache == null ? null : cache.stats();
+    }
+
+    /**
+     * Coalesce concurrent gets of one row each (i.e. {@link #get(byte[])} and it's variants that read one version): gets of the same row key that overlap share one HBase call, and gets of distinct row keys that arrive within <code>maxDelay</code> of each other are fetched together, in one multi-get of up to <code>maxBatchSize</code> rows.
+     * <br><br>
+     * This trades a little latency (up to <code>maxDelay</code> per get) for far fewer HBase calls when many threads read rows concurrently (e.g. a service that reads one row per request). It doesn't pay off when gets are mostly sequential. Rows are still read through cache, if enabled (see {@link #enableCache(CacheOptions)}). Gets that share a fetch each get an object of their own, decoded from the row read.
+     *
+     * @param maxBatchSize Maximum number of row keys fetched in one multi-get (a batch is fetched as soon as it's full)
+     * @param maxDelay     Maximum time a get waits for other gets to join it's batch (typically a millisecond or two)
+     * @param unit         Unit of <code>maxDelay</code>
+     */
+    public void enableCoalescing(int maxBatchSize, long maxDelay, TimeUnit unit) {
+        this.coalescer = new GetCoalescer<T>(this, maxBatchSize, maxDelay, unit);
+    }
+
+    /**
+     * Stop coalescing gets (gets that are in flight complete as usual)
+     */
+    public void disableCoalescing() {
+        this.coalescer = null;
+    }
+
+    /**
+     * Track changes to objects read through this DAO, so that {@link #persist(HBRecord)} (and it's bulk variant) writes only columns whose values changed since the object was read (or last persisted), and nothing at all if none did. This saves writes (and write-ahead log and compactions) for objects that are read, modified a little and written back.
+     * <br><br>
+     * A hash of each column of an object is kept for as long as the object is referenced. Note that:
+     * <ul>
+     * <li>Columns are compared by their encoded values, so a field whose value was replaced with an equal one counts as unchanged</li>
+     * <li>Since unchanged columns aren't written, values written to them by others since the object was read are retained (where they'd have been overwritten otherwise)</li>
+     * <li>Objects not read through this DAO (or read before this was enabled) are written in full, the first time</li>
+     * <li>Writers obtained from this DAO (see {@link #newBufferedWriter(WriteBufferOptions, WriteFailureListener)}) always write objects in full</li>
+     * </ul>
+     * Calling this again discards snapshots taken so far.
+     */
+    public void enableChangeTracking() {
+        this.changeTracker = new ChangeTracker(classMapping);
+    }
+
+    /**
+     * Stop tracking changes (objects are written in full from now on)
+     */
+    public void disableChangeTracking() {
+        this.changeTracker = null;
+    }
+
+    T getCached(byte[] rowKey) {
+        Cache<RowKey, CachedRecord<T>> cache = this.cache;
+        if (cache == null)
+            return null;
+        CachedRecord<T> cached = cache.getIfPresent(new RowKey(rowKey));
+        return cached == null ? null : cached.record;
+    }
+
+    /**
+     * Get count of writes to a row key so far (to be taken before the row is fetched, and passed on to {@link #cache(byte[], long, HBRecord, Result)})
+     */
+    long epoch(byte[] rowKey) {
+        return epoch(new RowKey(rowKey));
+    }
+
+    private long epoch(RowKey rowKey) {
+        return invalidations.get(rowKey.hashCode() & (INVALIDATION_STRIPES - 1));
+    }
+
+    /**
+     * Cache a row, unless it was written since <code>epoch</code> was taken (as then, it may have been fetched before the write and be stale)
+     */
+    void cache(byte[] rowKey, long epoch, T record, Result result) {
+        Cache<RowKey, CachedRecord<T>> cache = this.cache;
+        if (cache != null)
+            cache(cache, new RowKey(rowKey), epoch, record, result);
+    }
+
+    private void cache(Cache<RowKey, CachedRecord<T>> cache, RowKey rowKey, long epoch, T record, Result result) {
+        if (record == null) // rows that don't exist aren't cached
+            return;
+        if (epoch(rowKey) != epoch) // row was written since it was fetched
+            return;
+        int bytes = rowKey.bytes().length;
+        for (KeyValue kv : result.raw()) {
+            bytes += kv.getLength();
+        }
+        cache.put(rowKey, new CachedRecord<T>(record, bytes));
+        if (epoch(rowKey) != epoch) // a write that raced with above put may have invalidated the row before it was cached
+            cache.invalidate(rowKey);
+    }
+
+    void invalidateCached(List<? extends Row> mutations) {
+        Cache<RowKey, CachedRecord<T>> cache = this.cache;
+        for (Row mutation : mutations) {
+            RowKey rowKey = new RowKey(mutation.getRow());
+            invalidations.incrementAndGet(rowKey.hashCode() & (INVALIDATION_STRIPES - 1)); // before invalidating, so that reads in flight don't cache the row afresh
+            if (cache != null)
+                cache.invalidate(rowKey);
+        }
+    }
+
+    private static class CachedRecord<T> {
+        private final T record;
+        private final int bytes;
+
+        CachedRecord(T record, int bytes) {
+            this.record = record;
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * Create a writer that persists records of this DAO's type in the background, in batches (see {@link BufferedHBWriter})
+     *
+     * @param options  Options for buffering and flushing of records
+     * @param listener Listener for records that couldn't be written (may be <code>null</code>, in which case failures are reported by {@link BufferedHBWriter#flush()} and {@link BufferedHBWriter#close()})
+     * @return A writer with it's own connection to the HBase table (close it when done)
+     * @throws IOException When HBase table couldn't be opened
+     */
+    public BufferedHBWriter<T> newBufferedWriter(WriteBufferOptions options, WriteFailureListener<? super T> listener) throws IOException {
+        return new BufferedHBWriter<T>(new HTable(conf, tableName), this, options, listener);
+    }
+
+    /**
+     * Create a writer that persists records of this DAO's type in the background, in batches, with {@link WriteBufferOptions#DEFAULTS default options} (see {@link #newBufferedWriter(WriteBufferOptions, WriteFailureListener)})
+     */
+    public BufferedHBWriter<T> newBufferedWriter() throws IOException {
+        return newBufferedWriter(WriteBufferOptions.DEFAULTS, null);
+    }
+
+    /**
+     * Atomically add to a counter (a field annotated with {@link HBCounter}) on HBase, in one call (no read-modify-write)
+     *
+     * @param rowKey    Row key
+     * @param fieldName Name of the private variable of your bean-like object (of a class that implements {@link HBRecord}), annotated with {@link HBCounter}
+     * @param delta     Amount to add (may be negative)
+     * @return Value of the counter after the increment
+     * @throws IOException When HBase call fails
+     */
+    public long increment(byte[] rowKey, String fieldName, long delta) throws IOException {
+        FieldMapping column = getCounter(fieldName);
+        HTableInterface table = checkoutTable();
+        try {
+            return table.incrementColumnValue(rowKey, column.family(), column.column(), delta);
+        } finally {
+            table.close();
+            invalidateCached(Collections.singletonList(new Increment(rowKey)));
+        }
+    }
+
+    /**
+     * Get a combiner that increments counters of this table in the background, summing deltas of the same counter in memory in between (see {@link IncrementCombiner}). Use this for counters that are incremented very frequently.
+     *
+     * @param flushInterval Interval at which deltas are sent to HBase (counters lag behind by up to this much)
+     * @param unit          Unit of <code>flushInterval</code>
+     * @return Combiner (which must be closed when no longer needed)
+     */
+    public IncrementCombiner<T> newIncrementCombiner(long flushInterval, TimeUnit unit) {
+        return new IncrementCombiner<T>(this, flushInterval, unit);
+    }
+
 
     /**
      * Delete row from an HBase table for a given row key
      */
     public void delete(byte[] rowKeyBytes) throws IOException {
         Delete delete = new Delete(rowKeyBytes);
-        this.hTable.delete(delete);
+        HTableInterface table = checkoutTable();
+        try {
+            table.delete(delete);
+        } finally {
+            table.close();
+            invalidateCached(Collections.singletonList(delete));
+        }
     }
 
     public void delete(RowKey rowKey) throws IOException {
@@ -193,7 +1000,13 @@ public abstract class AbstractHBDAO<T extends HBRecord> {
         for(byte[] rowKey : rowKeys) {
             deletes.add(new Delete(rowKey));
         }
-        this.hTable.delete(deletes);
+        HTableInterface table = checkoutTable();
+        try {
+            table.delete(deletes);
+        } finally {
+            table.close();
+            invalidateCached(deletes);
+        }
     }
 
     /**
@@ -221,7 +1034,7 @@ public abstract class AbstractHBDAO<T extends HBRecord> {
      * Get list of column families mapped
      */
     public Set<String> getColumnFamilies() {
-        return hbObjectMapper.getColumnFamilies(hbRecordClass);
+        return classMapping.getColumnFamilies();
     }
 
     /**
@@ -235,36 +1048,301 @@ public abstract class AbstractHBDAO<T extends HBRecord> {
     /**
      * Get reference to HBase table
      *
-     * @return {@link HTable} object
+     * @return {@link HTable} object (opened on first call and shared by subsequent calls)
+     * @deprecated {@link HTable} is not thread-safe. Use {@link #checkoutTable()} instead
      */
-    public HTable getHBaseTable() {
+    @Deprecated
+    public synchronized HTable getHBaseTable() {
+        if (hTable == null) {
+            try {
+                hTable = new HTable(conf, tableName);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
         return hTable;
     }
 
-    private Field getField(String fieldName) {
-        Field field = fields.get(fieldName);
-        if (field == null) {
+    /**
+     * Check out an HBase table from the pool of this DAO, for operations this class doesn't offer. The table <strong>must</strong> be closed after use (which returns it to the pool), and must not be shared across threads
+     */
+    public HTableInterface checkoutTable() {
+        BoundedConnection boundedConnection = this.boundedConnection.get();
+        return (boundedConnection == null ? tablePool : boundedConnection.getTablePool()).getTable(tableName);
+    }
+
+    private HConnection connection() {
+        BoundedConnection boundedConnection = this.boundedConnection.get();
+        return boundedConnection == null ? connection : boundedConnection.getConnection();
+    }
+
+    /**
+     * Run a call, with HBase calls of this DAO that it makes (on current thread) going through a connection whose calls are bound by a timeout, in place of the connection of this DAO
+     */
+    <R> R callThrough(BoundedConnection boundedConnection, Callable<R> call) throws Exception {
+        this.boundedConnection.set(boundedConnection);
+        try {
+            return call.call();
+        } finally {
+            this.boundedConnection.remove();
+        }
+    }
+
+    Configuration getConfiguration() {
+        return conf;
+    }
+
+    /**
+     * Release resources of this DAO: the pool of HBase tables (if it was created by this DAO) and it's reference to the HBase connection. Calling this more than once has no effect
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) // connection is reference-counted, so it must be released only once
+                return;
+            closed = true;
+            if (hTable != null)
+                hTable.close();
+        }
+        if (ownsTablePool)
+            tablePool.close();
+        HConnectionManager.deleteConnection(conf);
+    }
+
+    private Result fetch(Get get) throws IOException {
+        HTableInterface table = checkoutTable();
+        try {
+            return table.get(get);
+        } finally {
+            table.close();
+        }
+    }
+
+    private Result[] fetch(List<Get> gets) throws IOException {
+        HTableInterface table = checkoutTable();
+        try {
+            return table.get(gets);
+        } finally {
+            table.close();
+        }
+    }
+
+    FieldMapping getField(String fieldName) {
+        FieldMapping column = classMapping.getColumn(fieldName);
+        if (column == null) {
             throw new IllegalArgumentException(String.format("Unrecognized field: '%s'. Choose one of %s", fieldName, fields.values().toString()));
         }
-        return field;
+        return column;
+    }
+
+    FieldMapping getCounter(String fieldName) {
+        FieldMapping column = getField(fieldName);
+        if (!column.hbColumn().isCounter()) {
+            throw new IllegalArgumentException(String.format("Field '%s' isn't a counter (it should be annotated with @%s)", fieldName, HBCounter.class.getName()));
+        }
+        return column;
     }
 
-    private static void populateFieldValuesToMap(Field field, Result result, Map<RowKey, NavigableMap<Long, Object>> map) {
+    private void populateFieldValuesToMap(FieldMapping column, Result result, Map<RowKey, NavigableMap<Long, Object>> map) {
         if (result.isEmpty())
             return;
-        WrappedHBColumn hbColumn = new WrappedHBColumn(field);
-        List<KeyValue> kvs = result.getColumn(Bytes.toBytes(hbColumn.family()), Bytes.toBytes(hbColumn.column()));
-        for (KeyValue kv : kvs) {
-            Class<?> fieldType = hbColumn.isMultiVersioned() ? (Class) ((ParameterizedType) field.getGenericType()).getActualTypeArguments()[1] : field.getType();
-            final byte[] keyBytes = kv.getRow();
-            RowKey rowKey = new RowKey(keyBytes);
-            if (!map.containsKey(rowKey)) {
-                map.put(rowKey, new TreeMap<Long, Object>());
+        map.put(new RowKey(result.getRow()), toFieldValues(column, result));
+    }
+
+    private NavigableMap<Long, Object> toFieldValues(FieldMapping column, Result result) {
+        NavigableMap<Long, Object> values = new TreeMap<Long, Object>();
+        for (KeyValue kv : result.getColumn(column.family(), column.column())) {
+            values.put(kv.getTimestamp(), hbObjectMapper.byteArrayToValue(kv.getValue(), column));
+        }
+        return values;
+    }
+
+    /**
+     * Count rows of HBase table for a range of row keys. Only the first cell of each row (without it's value) is sent over the network, and nothing is decoded
+     *
+     * @param startRowKey Row key to start counting from (inclusive)
+     * @param endRowKey   Row key to stop counting at (exclusive)
+     * @return Number of rows
+     * @throws IOException When HBase call fails
+     */
+    public long count(byte[] startRowKey, byte[] endRowKey) throws IOException {
+        Scan scan = newScan(startRowKey, endRowKey, 1).setFilter(new FilterList(new FirstKeyOnlyFilter(), new KeyOnlyFilter()));
+        ResultScanner scanner = getScanner(scan, ONE_CELL_PER_ROW_SCAN_OPTIONS);
+        try {
+            long count = 0;
+            while (scanner.next() != null) {
+                count++;
             }
-            map.get(rowKey).put(kv.getTimestamp(), hbObjectMapper.byteArrayToValue(kv.getValue(), fieldType, hbColumn.serializeAsString()));
+            return count;
+        } finally {
+            scanner.close();
         }
     }
 
+    /**
+     * Summarize values of an integral field (i.e. of type <code>short</code>, <code>int</code> or <code>long</code>) for a range of row keys: count, sum, minimum, maximum and average. Only the field's column is fetched, and values are decoded straight into primitives, so that memory use doesn't grow with the number of rows
+     * <br><br>
+     * Rows in which field is absent (or it's value can't be decoded) are skipped. For multi-versioned fields, latest version of each row is considered.
+     *
+     * @param fieldName   Name of the private variable of your bean-like object (of a class that implements {@link HBRecord})
+     * @param startRowKey Row key to start scan from (inclusive)
+     * @param endRowKey   Row key to stop scan at (exclusive)
+     * @return Summary of field values
+     * @throws IOException When HBase call fails
+     */
+    public LongSummaryStatistics summarizeLong(String fieldName, byte[] startRowKey, byte[] endRowKey) throws IOException {
+        final FieldMapping column = getField(fieldName);
+        if (!NumericCells.isIntegral(column))
+            throw new IllegalArgumentException(String.format("Field '%s' is of type %s, which isn't integral (use summarizeDouble instead)", fieldName, column.valueClass().getName()));
+        final LongSummaryStatistics statistics = new LongSummaryStatistics();
+        scanColumn(column, startRowKey, endRowKey, new Consumer<KeyValue>() {
+            @Override
+            public void accept(KeyValue cell) {
+                NumericCells.decodeLong(column, cell, statistics);
+            }
+        });
+        return statistics;
+    }
+
+    /**
+     * Summarize values of a numeric field for a range of row keys: count, sum, minimum, maximum and average (see {@link #summarizeLong(String, byte[], byte[])})
+     */
+    public DoubleSummaryStatistics summarizeDouble(String fieldName, byte[] startRowKey, byte[] endRowKey) throws IOException {
+        final FieldMapping column = getNumericField(fieldName);
+        final DoubleSummaryStatistics statistics = new DoubleSummaryStatistics();
+        scanColumn(column, startRowKey, endRowKey, new Consumer<KeyValue>() {
+            @Override
+            public void accept(KeyValue cell) {
+                NumericCells.decodeDouble(column, cell, statistics);
+            }
+        });
+        return statistics;
+    }
+
+    /**
+     * Build a histogram of values of a numeric field for a range of row keys, with buckets of equal width (see {@link #summarizeLong(String, byte[], byte[])} for how rows are read)
+     *
+     * @param fieldName   Name of the private variable of your bean-like object (of a class that implements {@link HBRecord})
+     * @param bucketWidth Width of each bucket (e.g. with <code>10</code>, buckets are [0, 10), [10, 20) and so on)
+     * @param startRowKey Row key to start scan from (inclusive)
+     * @param endRowKey   Row key to stop scan at (exclusive)
+     * @return Map of lower bound of each bucket to number of values in it (only non-empty buckets are present)
+     * @throws IOException When HBase call fails
+     */
+    public NavigableMap<Double, Long> histogram(String fieldName, final double bucketWidth, byte[] startRowKey, byte[] endRowKey) throws IOException {
+        if (!(bucketWidth > 0) || Double.isInfinite(bucketWidth))
+            throw new IllegalArgumentException("Bucket width should be a positive number (got " + bucketWidth + ")");
+        final FieldMapping column = getNumericField(fieldName);
+        final Map<Long, long[]> counts = new HashMap<Long, long[]>();
+        final DoubleConsumer bucketer = new DoubleConsumer() {
+            @Override
+            public void accept(double value) {
+                if (Double.isNaN(value))
+                    return;
+                long bucket = (long) Math.floor(value / bucketWidth);
+                long[] count = counts.get(bucket);
+                if (count == null)
+                    counts.put(bucket, count = new long[1]);
+                count[0]++;
+            }
+        };
+        scanColumn(column, startRowKey, endRowKey, new Consumer<KeyValue>() {
+            @Override
+            public void accept(KeyValue cell) {
+                NumericCells.decodeDouble(column, cell, bucketer);
+            }
+        });
+        NavigableMap<Double, Long> histogram = new TreeMap<Double, Long>();
+        for (Map.Entry<Long, long[]> count : counts.entrySet()) {
+            histogram.put(count.getKey() * bucketWidth, count.getValue()[0]);
+        }
+        return histogram;
+    }
+
+    private FieldMapping getNumericField(String fieldName) {
+        FieldMapping column = getField(fieldName);
+        if (!NumericCells.isNumeric(column))
+            throw new IllegalArgumentException(String.format("Field '%s' is of type %s, which isn't numeric", fieldName, column.valueClass().getName()));
+        return column;
+    }
+
+    /**
+     * Scan latest version of a column for a range of row keys, passing each cell on
+     */
+    private void scanColumn(FieldMapping column, byte[] startRowKey, byte[] endRowKey, Consumer<KeyValue> consumer) throws IOException {
+        Scan scan = newScan(startRowKey, endRowKey, 1).addColumn(column.family(), column.column());
+        ResultScanner scanner = getScanner(scan, ONE_CELL_PER_ROW_SCAN_OPTIONS);
+        try {
+            Result result;
+            while ((result = scanner.next()) != null) {
+                for (KeyValue cell : result.raw()) {
+                    consumer.accept(cell);
+                }
+            }
+        } finally {
+            scanner.close();
+        }
+    }
+
+    /**
+     * Fetch specified fields of multiple rows in one shot for an array of row keys, such that only columns of those fields are read (from HBase and over the network). This is a variant of {@link #get(List, int)} for when you need only some fields (e.g. to fetch three fields of many rows, instead of calling {@link #fetchFieldValues(List, String)} thrice)
+     * <br><br>
+     * <b>Note</b>: Other fields of returned objects are left unset. If such an object is persisted back, columns of it's unset object fields are left as they are (fields that are <code>null</code> aren't written), but columns of it's unset primitive fields are overwritten with their default values (e.g. 0 or <code>false</code>). Projected rows aren't cached (see {@link #enableCache(CacheOptions)}).
+     *
+     * @param rowKeys    Row keys
+     * @param fieldNames Names of the private variables of your bean-like object (of a class that implements {@link HBRecord}) to be fetched
+     * @param versions   Number of versions to be retrieved (for multi-versioned fields)
+     * @return Rows in the same order as their row keys, with <code>null</code> for row keys that don't exist (or have none of specified fields)
+     * @throws IOException When HBase call fails
+     */
+    public List<T> fetchFields(List<RowKey> rowKeys, Collection<String> fieldNames, int versions) throws IOException {
+        List<FieldMapping> columns = getFields(fieldNames);
+        List<Get> gets = new ArrayList<Get>(rowKeys.size());
+        for (RowKey rowKey : rowKeys) {
+            Get get = new Get(rowKey.bytes()).setMaxVersions(versions);
+            for (FieldMapping column : columns) {
+                get.addColumn(column.family(), column.column());
+            }
+            gets.add(get);
+        }
+        return decodeRows(fetch(gets));
+    }
+
+    /**
+     * Fetch specified fields of multiple rows in one shot for an array of row keys (see {@link #fetchFields(List, Collection, int)})
+     */
+    public List<T> fetchFields(List<RowKey> rowKeys, Collection<String> fieldNames) throws IOException {
+        return fetchFields(rowKeys, fieldNames, DEFAULT_NUM_VERSIONS);
+    }
+
+    /**
+     * Scan specified fields of rows for a range of row keys, such that only columns of those fields are read (see {@link #fetchFields(List, Collection, int)} and {@link #scan(byte[], byte[], int, ScanOptions)})
+     */
+    public CloseableIterator<T> scanFields(byte[] startRowKey, byte[] endRowKey, Collection<String> fieldNames, int versions, ScanOptions scanOptions) throws IOException {
+        Scan scan = newScan(startRowKey, endRowKey, versions);
+        for (FieldMapping column : getFields(fieldNames)) {
+            scan.addColumn(column.family(), column.column());
+        }
+        return scan(scan, scanOptions);
+    }
+
+    /**
+     * Fetch specified fields of multiple rows for a range of row keys (see {@link #fetchFields(List, Collection, int)})
+     */
+    public List<T> fetchFields(byte[] startRowKey, byte[] endRowKey, Collection<String> fieldNames) throws IOException {
+        return toList(scanFields(startRowKey, endRowKey, fieldNames, DEFAULT_NUM_VERSIONS, ScanOptions.CLIENT_DEFAULTS));
+    }
+
+    private List<FieldMapping> getFields(Collection<String> fieldNames) {
+        if (fieldNames.isEmpty())
+            throw new IllegalArgumentException("At least one field is needed");
+        List<FieldMapping> columns = new ArrayList<FieldMapping>(fieldNames.size());
+        for (String fieldName : fieldNames) {
+            columns.add(getField(fieldName));
+        }
+        return columns;
+    }
+
     /**
      * Fetch value of column for a given row key and field
      *
@@ -274,7 +1352,6 @@ public abstract class AbstractHBDAO<T extends HBRecord> {
      * @throws IOException Thrown when there is an exception from HBase
      */
     public Object fetchFieldValue(byte[] rowKey, String fieldName) throws IOException {
-        System.out.println("FetchFieldValue " + rowKey + " , "  + fieldName);
         final NavigableMap<Long, Object> fieldValues = fetchFieldValueVersioned(rowKey, fieldName, 1);
         if (fieldValues == null || fieldValues.isEmpty()) return null;
         else return fieldValues.lastEntry().getValue();
@@ -313,7 +1390,7 @@ public abstract class AbstractHBDAO<T extends HBRecord> {
      * @param mapInitialCapacity
      * @return
      */
-    private static Map<RowKey, Object> toSingleVersioned(Map<RowKey, NavigableMap<Long, Object>> multiVersionedMap, int mapInitialCapacity) {
+    static Map<RowKey, Object> toSingleVersioned(Map<RowKey, NavigableMap<Long, Object>> multiVersionedMap, int mapInitialCapacity) {
         Map<RowKey, Object> map = new HashMap<>(mapInitialCapacity);
         for (Map.Entry<RowKey, NavigableMap<Long, Object>> e : multiVersionedMap.entrySet()) {
             map.put(e.getKey(), e.getValue().lastEntry().getValue());
@@ -322,19 +1399,37 @@ public abstract class AbstractHBDAO<T extends HBRecord> {
     }
 
     public NavigableMap<RowKey, NavigableMap<Long, Object>> fetchFieldValuesVersioned(RowKey startRowKey, RowKey endRowKey, String fieldName, int versions) throws IOException {
-        Field field = getField(fieldName);
-        WrappedHBColumn hbColumn = new WrappedHBColumn(field);
-        Scan scan = new Scan(startRowKey.bytes(), endRowKey.bytes());
-        scan.addColumn(Bytes.toBytes(hbColumn.family()), Bytes.toBytes(hbColumn.column()));
-        scan.setMaxVersions(versions);
-        ResultScanner scanner = hTable.getScanner(scan);
         NavigableMap<RowKey, NavigableMap<Long, Object>> map = new TreeMap<>();
-        for (Result result : scanner) {
-            populateFieldValuesToMap(field, result, map);
+        for (Map.Entry<RowKey, NavigableMap<Long, Object>> e : toList(scanFieldValues(startRowKey, endRowKey, fieldName, versions))) {
+            map.put(e.getKey(), e.getValue());
         }
         return map;
     }
 
+    /**
+     * Scan column values for a given range of row keys, reading one row at a time (streaming variant of {@link #fetchFieldValuesVersioned(RowKey, RowKey, String, int)}; see {@link #scan(byte[], byte[], int)} on releasing the iterator)
+     *
+     * @return Iterator over entries of row key and it's column values (timestamp to value)
+     */
+    public CloseableIterator<Map.Entry<RowKey, NavigableMap<Long, Object>>> scanFieldValues(RowKey startRowKey, RowKey endRowKey, String fieldName, int versions) throws IOException {
+        return scanFieldValues(startRowKey, endRowKey, fieldName, versions, ScanOptions.CLIENT_DEFAULTS);
+    }
+
+    /**
+     * Scan column values for a given range of row keys, reading one row at a time, tuning the scan with given options (see {@link ScanOptions})
+     */
+    public CloseableIterator<Map.Entry<RowKey, NavigableMap<Long, Object>>> scanFieldValues(RowKey startRowKey, RowKey endRowKey, String fieldName, int versions, ScanOptions scanOptions) throws IOException {
+        final FieldMapping column = getField(fieldName);
+        Scan scan = newScan(startRowKey.bytes(), endRowKey.bytes(), versions);
+        scan.addColumn(column.family(), column.column());
+        return new ScannerIterator<Map.Entry<RowKey, NavigableMap<Long, Object>>>(getScanner(scan, scanOptions), scan.getBatch() > 0) {
+            @Override
+            Map.Entry<RowKey, NavigableMap<Long, Object>> convert(Result result) {
+                return new AbstractMap.SimpleImmutableEntry<RowKey, NavigableMap<Long, Object>>(new RowKey(result.getRow()), toFieldValues(column, result));
+            }
+        };
+    }
+
     /**
      * Fetch column values for a given array of row keys (bulk variant of method {@link #fetchFieldValue(byte[], String)})
      */
@@ -352,22 +1447,26 @@ public abstract class AbstractHBDAO<T extends HBRecord> {
      * @throws IOException
      */
     public Map<RowKey, NavigableMap<Long, Object>> fetchFieldValuesVersioned(List<RowKey> rowKeys, String fieldName, int versions) throws IOException {
-        Field field = getField(fieldName);
-        WrappedHBColumn hbColumn = new WrappedHBColumn(field);
-        if (!hbColumn.isPresent()) {
-            throw new FieldNotMappedToHBaseColumnException(hbRecordClass, fieldName);
-        }
+        return decodeFieldValues(fieldName, fetchFieldValueRows(rowKeys, fieldName, versions));
+    }
+
+    Result[] fetchFieldValueRows(List<RowKey> rowKeys, String fieldName, int versions) throws IOException {
+        FieldMapping column = getField(fieldName);
         List<Get> gets = new ArrayList<Get>(rowKeys.size());
         for (RowKey rowKey : rowKeys) {
             Get get = new Get(rowKey.bytes());
             get.setMaxVersions(versions);
-            get.addColumn(Bytes.toBytes(hbColumn.family()), Bytes.toBytes(hbColumn.column()));
+            get.addColumn(column.family(), column.column());
             gets.add(get);
         }
-        Result[] results = this.hTable.get(gets);
-        Map<RowKey, NavigableMap<Long, Object>> map = new HashMap<RowKey, NavigableMap<Long, Object>>(rowKeys.size());
+        return fetch(gets);
+    }
+
+    Map<RowKey, NavigableMap<Long, Object>> decodeFieldValues(String fieldName, Result[] results) {
+        FieldMapping column = getField(fieldName);
+        Map<RowKey, NavigableMap<Long, Object>> map = new HashMap<RowKey, NavigableMap<Long, Object>>(results.length);
         for (Result result : results) {
-            populateFieldValuesToMap(field, result, map);
+            populateFieldValuesToMap(column, result, map);
         }
         return map;
     }
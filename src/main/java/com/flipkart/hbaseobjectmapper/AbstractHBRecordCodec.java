@@ -0,0 +1,108 @@
+package com.flipkart.hbaseobjectmapper;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.flipkart.hbaseobjectmapper.codec.Format;
+import com.flipkart.hbaseobjectmapper.codec.HBCodec;
+import com.flipkart.hbaseobjectmapper.exceptions.*;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Base class for codecs generated by <code>hbase-object-mapper-processor</code>. Holds the pieces of conversion logic that are common to all entities, so that behaviour of generated code matches {@link HBObjectMapper}
+ *
+ * @param <T> Entity type
+ */
+public abstract class AbstractHBRecordCodec<T extends HBRecord> implements HBRecordCodec<T> {
+    private static final TypeFactory typeFactory = TypeFactory.defaultInstance();
+
+    protected final Class<T> hbRecordClass;
+
+    protected AbstractHBRecordCodec(Class<T> hbRecordClass) {
+        this.hbRecordClass = hbRecordClass;
+    }
+
+    /**
+     * Composes row key of a record (as {@link HBObjectMapper#getRowKey(HBRecord)} does)
+     */
+    protected static byte[] composeRowKey(HBRecord record) {
+        return HBObjectMapper.composeRowKey(record);
+    }
+
+    /**
+     * Populates row key fields of a record from row key
+     */
+    protected static void parseRowKey(HBRecord record, byte[] rowKey) {
+        try {
+            record.parseRowKey(rowKey);
+        } catch (Exception ex) {
+            throw new RowKeyCouldNotBeParsedException(String.format("Supplied row key \"%s\" could not be parsed", rowKey), ex);
+        }
+    }
+
+    protected static void checkRowKeyField(Object fieldValue, String fieldName) {
+        if (fieldValue == null) {
+            throw new HBRowKeyFieldCantBeNullException("Field " + fieldName + " is null (fields part of row key cannot be null)");
+        }
+    }
+
+    protected static void checkNotEmpty(Map<Long, ?> fieldValueVersions) {
+        if (fieldValueVersions.isEmpty()) {
+            throw new FieldAnnotatedWithHBColumnMultiVersionCantBeEmpty();
+        }
+    }
+
+    protected static void checkAnyFieldWritten(int numOfFieldsWritten) {
+        if (numOfFieldsWritten == 0) {
+            throw new AllHBColumnFieldsNullException();
+        }
+    }
+
+    /**
+     * Builds codec for values of a type that HBase doesn't natively convert (as {@link HBObjectMapper} does for such fields)
+     *
+     * @param format        Format in which values are stored
+     * @param typeReference Type of values
+     */
+    @SuppressWarnings("unchecked")
+    protected static <V> HBCodec<V> codecOf(Format format, TypeReference<V> typeReference) {
+        return (HBCodec<V>) new JacksonCodec(format, typeFactory.constructType(typeReference));
+    }
+
+    /**
+     * Parses string representation of a value (for fields with <code>serializeAsString = true</code>)
+     *
+     * @return Parsed value, <code>null</code> if value couldn't be parsed
+     */
+    protected static <V> V fromString(byte[] value, StringParser<V> parser) {
+        try {
+            return parser.parse(Bytes.toString(value));
+        } catch (Exception ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Builds a {@link Result} object out of cells (in any order)
+     */
+    protected static Result toResult(List<KeyValue> keyValues) {
+        Collections.sort(keyValues, KeyValue.COMPARATOR);
+        return new Result(keyValues);
+    }
+
+    protected ConversionFailedException conversionFailed(String fieldName, Exception ex) {
+        return new ConversionFailedException("Could not set value on field \"" + fieldName + "\" on instance of class " + hbRecordClass, ex);
+    }
+
+    /**
+     * Parses string representation of a value
+     */
+    protected interface StringParser<V> {
+        V parse(String s) throws Exception;
+    }
+}
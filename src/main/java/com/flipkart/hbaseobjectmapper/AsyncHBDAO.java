@@ -0,0 +1,424 @@
+package com.flipkart.hbaseobjectmapper;
+
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.*;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * An asynchronous facade over a data access object: operations return {@link CompletableFuture}s instead of blocking the caller, so that calls to several tables can be overlapped.
+ * <br><br>
+ * HBase calls run on a bounded <i>I/O executor</i>, while conversion of rows to objects (and vice-versa) runs on a separate <i>decode executor</i>, so that I/O threads are freed up as soon as a call returns. Every operation is bound by a timeout: a future that times out completes with a {@link TimeoutException}. HBase client doesn't give up a call when it's thread is interrupted, so HBase calls of this facade go through a connection of it's own, whose RPCs time out along with the operation (and aren't retried): that's what frees an I/O thread stuck on a slow region.
+ * <br><br>
+ * Example:
+ * <pre>
+ * AsyncHBDAO&lt;Citizen&gt; asyncCitizenDao = new AsyncHBDAO&lt;Citizen&gt;(citizenDao, 32, 1000, 500, TimeUnit.MILLISECONDS);
+ * asyncCitizenDao.get(rowKey).thenAccept(citizen -&gt; ...);
+ * </pre>
+ *
+ * @param <T> Entity type
+ */
+public final class AsyncHBDAO<T extends HBRecord> implements Closeable {
+    private static final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "AsyncHBDAO-timer");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    private final AbstractHBDAO<T> dao;
+    private final ExecutorService ioExecutor;
+    private final Executor decodeExecutor;
+    private final boolean ownsIoExecutor;
+    private final long timeoutNanos;
+    private final BoundedConnection connection;
+
+    /**
+     * Create an asynchronous facade that runs HBase calls on given executor and decodes rows on another
+     *
+     * @param dao            Data access object to run operations of (must be thread-safe, which {@link AbstractHBDAO} is)
+     * @param ioExecutor     Executor for HBase calls (should be bounded: it's not shut down by {@link #close()})
+     * @param decodeExecutor Executor for conversion of rows to objects and vice-versa
+     * @param timeout        Timeout for each operation's HBase call
+     * @param unit           Unit of <code>timeout</code>
+     * @throws IOException When connection to HBase couldn't be set up
+     */
+    public AsyncHBDAO(AbstractHBDAO<T> dao, ExecutorService ioExecutor, Executor decodeExecutor, long timeout, TimeUnit unit) throws IOException {
+        this(dao, ioExecutor, false, decodeExecutor, unit.toNanos(timeout));
+    }
+
+    /**
+     * Create an asynchronous facade that runs HBase calls on an executor of it's own (shut down by {@link #close()}) and decodes rows on {@link ForkJoinPool#commonPool()}
+     *
+     * @param dao           Data access object to run operations of
+     * @param ioThreads     Number of threads for HBase calls
+     * @param queueCapacity Maximum number of operations waiting for an I/O thread (beyond which operations fail with {@link RejectedExecutionException})
+     * @param timeout       Timeout for each operation's HBase call
+     * @param unit          Unit of <code>timeout</code>
+     * @throws IOException When connection to HBase couldn't be set up
+     */
+    public AsyncHBDAO(AbstractHBDAO<T> dao, int ioThreads, int queueCapacity, long timeout, TimeUnit unit) throws IOException {
+        this(dao, newIoExecutor(dao, ioThreads, queueCapacity), true, ForkJoinPool.commonPool(), unit.toNanos(timeout));
+    }
+
+    private AsyncHBDAO(AbstractHBDAO<T> dao, ExecutorService ioExecutor, boolean ownsIoExecutor, Executor decodeExecutor, long timeoutNanos) throws IOException {
+        if (timeoutNanos <= 0)
+            throw new IllegalArgumentException("Timeout should be a positive duration");
+        this.dao = dao;
+        this.ioExecutor = ioExecutor;
+        this.ownsIoExecutor = ownsIoExecutor;
+        this.decodeExecutor = decodeExecutor;
+        this.timeoutNanos = timeoutNanos;
+        try {
+            this.connection = new BoundedConnection(dao.getConfiguration(), timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (IOException e) {
+            if (ownsIoExecutor)
+                ioExecutor.shutdown();
+            throw e;
+        }
+    }
+
+    private static ExecutorService newIoExecutor(AbstractHBDAO<?> dao, int ioThreads, int queueCapacity) {
+        final String threadNamePrefix = "AsyncHBDAO-" + dao.getTableName() + "-";
+        return new ThreadPoolExecutor(ioThreads, ioThreads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(queueCapacity), new ThreadFactory() {
+            private int count;
+
+            @Override
+            public synchronized Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, threadNamePrefix + count++);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Get a view of this facade whose operations have a different timeout (it shares executors with this facade, but has a connection of it's own: close it when done)
+     *
+     * @throws IOException When connection to HBase couldn't be set up
+     */
+    public AsyncHBDAO<T> withTimeout(long timeout, TimeUnit unit) throws IOException {
+        return new AsyncHBDAO<T>(dao, ioExecutor, false, decodeExecutor, unit.toNanos(timeout));
+    }
+
+    /**
+     * Get the underlying (blocking) data access object
+     */
+    public AbstractHBDAO<T> getDAO() {
+        return dao;
+    }
+
+    /**
+     * Asynchronous variant of {@link AbstractHBDAO#get(byte[], int)}
+     */
+    public CompletableFuture<T> get(final byte[] rowKey, final int versions) {
+        if (versions == 1) {
+            T cached = dao.getCached(rowKey);
+            if (cached != null)
+                return CompletableFuture.completedFuture(cached);
+        }
+        final long epoch = dao.epoch(rowKey);
+        return io(new Callable<Result>() {
+            @Override
+            public Result call() throws Exception {
+                return dao.fetchRow(rowKey, versions);
+            }
+        }).thenApplyAsync(new Function<Result, T>() {
+            @Override
+            public T apply(Result result) {
+                T record = dao.decodeRow(rowKey, result);
+                if (versions == 1)
+                    dao.cache(rowKey, epoch, record, result);
+                return record;
+            }
+        }, decodeExecutor);
+    }
+
+    /**
+     * Asynchronous variant of {@link AbstractHBDAO#get(byte[])}
+     */
+    public CompletableFuture<T> get(byte[] rowKey) {
+        return get(rowKey, AbstractHBDAO.DEFAULT_NUM_VERSIONS);
+    }
+
+    /**
+     * Asynchronous variant of {@link AbstractHBDAO#get(List, int)} (like {@link #get(byte[], int)}, rows are read through cache of the underlying data access object, if enabled)
+     */
+    public CompletableFuture<List<T>> get(final List<RowKey> rowKeys, final int versions) {
+        final List<T> records = new ArrayList<T>(rowKeys.size());
+        final List<Integer> missingIndices = new ArrayList<Integer>();
+        final List<RowKey> missingRowKeys = new ArrayList<RowKey>();
+        final List<Long> epochs = new ArrayList<Long>();
+        for (RowKey rowKey : rowKeys) {
+            T cached = versions == 1 ? dao.getCached(rowKey.bytes()) : null;
+            if (cached == null) {
+                missingIndices.add(records.size());
+                missingRowKeys.add(rowKey);
+                epochs.add(dao.epoch(rowKey.bytes()));
+            }
+            records.add(cached);
+        }
+        if (missingRowKeys.isEmpty())
+            return CompletableFuture.completedFuture(records);
+        return io(new Callable<Result[]>() {
+            @Override
+            public Result[] call() throws Exception {
+                return dao.fetchRows(missingRowKeys, versions);
+            }
+        }).thenApplyAsync(new Function<Result[], List<T>>() {
+            @Override
+            public List<T> apply(Result[] results) {
+                for (int i = 0; i < results.length; i++) {
+                    byte[] rowKey = missingRowKeys.get(i).bytes();
+                    T record = dao.decodeRow(rowKey, results[i]);
+                    if (versions == 1)
+                        dao.cache(rowKey, epochs.get(i), record, results[i]);
+                    records.set(missingIndices.get(i), record);
+                }
+                return records;
+            }
+        }, decodeExecutor);
+    }
+
+    /**
+     * Asynchronous variant of {@link AbstractHBDAO#get(List)}
+     */
+    public CompletableFuture<List<T>> get(List<RowKey> rowKeys) {
+        return get(rowKeys, AbstractHBDAO.DEFAULT_NUM_VERSIONS);
+    }
+
+    /**
+     * Asynchronous variant of {@link AbstractHBDAO#get(byte[], byte[], int)} (rows are decoded as they're scanned, on the I/O executor)
+     */
+    public CompletableFuture<List<T>> get(final byte[] startRowKey, final byte[] endRowKey, final int versions) {
+        return io(new Callable<List<T>>() {
+            @Override
+            public List<T> call() throws Exception {
+                return dao.get(startRowKey, endRowKey, versions);
+            }
+        });
+    }
+
+    /**
+     * Asynchronous variant of {@link AbstractHBDAO#get(byte[], byte[])} (rows are decoded as they're scanned, on the I/O executor)
+     */
+    public CompletableFuture<List<T>> get(byte[] startRowKey, byte[] endRowKey) {
+        return get(startRowKey, endRowKey, AbstractHBDAO.DEFAULT_NUM_VERSIONS);
+    }
+
+    /**
+     * Asynchronous variant of {@link AbstractHBDAO#persist(HBRecord)}
+     *
+     * @return Future of row key of the object
+     */
+    public CompletableFuture<byte[]> persist(final HBRecord obj) {
+        return persist(Collections.singletonList(obj)).thenApply(new Function<List<byte[]>, byte[]>() {
+            @Override
+            public byte[] apply(List<byte[]> rowKeys) {
+                return rowKeys.get(0);
+            }
+        });
+    }
+
+    /**
+     * Asynchronous variant of {@link AbstractHBDAO#persist(List)}
+     *
+     * @return Future of row keys of the objects
+     */
+    public CompletableFuture<List<byte[]>> persist(final List<? extends HBRecord> objs) {
+        return CompletableFuture.supplyAsync(new Supplier<List<Put>>() {
+            @Override
+            public List<Put> get() {
+                return dao.toPuts(objs);
+            }
+        }, decodeExecutor).thenCompose(new Function<List<Put>, CompletableFuture<List<byte[]>>>() {
+            @Override
+            public CompletableFuture<List<byte[]>> apply(final List<Put> puts) {
+                return io(new Callable<List<byte[]>>() {
+                    @Override
+                    public List<byte[]> call() throws Exception {
+                        dao.write(objs, puts);
+                        List<byte[]> rowKeys = new ArrayList<byte[]>(objs.size());
+                        for (HBRecord obj : objs) {
+                            rowKeys.add(obj.composeRowKey());
+                        }
+                        return rowKeys;
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Asynchronous variant of {@link AbstractHBDAO#delete(byte[])}
+     */
+    public CompletableFuture<Void> delete(final byte[] rowKey) {
+        return io(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                dao.delete(rowKey);
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Asynchronous variant of {@link AbstractHBDAO#delete(HBRecord)}
+     */
+    public CompletableFuture<Void> delete(HBRecord obj) {
+        return delete(obj.composeRowKey());
+    }
+
+    /**
+     * Asynchronous variant of {@link AbstractHBDAO#delete(List)}
+     */
+    public CompletableFuture<Void> delete(final List<byte[]> rowKeys) {
+        return io(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                dao.delete(rowKeys);
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Asynchronous variant of {@link AbstractHBDAO#fetchFieldValue(byte[], String)}
+     */
+    public CompletableFuture<Object> fetchFieldValue(byte[] rowKey, String fieldName) {
+        return fetchFieldValueVersioned(rowKey, fieldName, 1).thenApply(new Function<NavigableMap<Long, Object>, Object>() {
+            @Override
+            public Object apply(NavigableMap<Long, Object> values) {
+                return values == null || values.isEmpty() ? null : values.lastEntry().getValue();
+            }
+        });
+    }
+
+    /**
+     * Asynchronous variant of {@link AbstractHBDAO#fetchFieldValueVersioned(byte[], String, int)}
+     */
+    public CompletableFuture<NavigableMap<Long, Object>> fetchFieldValueVersioned(byte[] rowKey, String fieldName, int versions) {
+        final RowKey key = new RowKey(rowKey);
+        return fetchFieldValuesVersioned(Collections.singletonList(key), fieldName, versions).thenApply(new Function<Map<RowKey, NavigableMap<Long, Object>>, NavigableMap<Long, Object>>() {
+            @Override
+            public NavigableMap<Long, Object> apply(Map<RowKey, NavigableMap<Long, Object>> values) {
+                return values.get(key);
+            }
+        });
+    }
+
+    /**
+     * Asynchronous variant of {@link AbstractHBDAO#fetchFieldValues(List, String)}
+     */
+    public CompletableFuture<Map<RowKey, Object>> fetchFieldValues(final List<RowKey> rowKeys, String fieldName) {
+        return fetchFieldValuesVersioned(rowKeys, fieldName, 1).thenApply(new Function<Map<RowKey, NavigableMap<Long, Object>>, Map<RowKey, Object>>() {
+            @Override
+            public Map<RowKey, Object> apply(Map<RowKey, NavigableMap<Long, Object>> values) {
+                return AbstractHBDAO.toSingleVersioned(values, rowKeys.size());
+            }
+        });
+    }
+
+    /**
+     * Asynchronous variant of {@link AbstractHBDAO#fetchFieldValuesVersioned(List, String, int)}
+     */
+    public CompletableFuture<Map<RowKey, NavigableMap<Long, Object>>> fetchFieldValuesVersioned(final List<RowKey> rowKeys, final String fieldName, final int versions) {
+        return io(new Callable<Result[]>() {
+            @Override
+            public Result[] call() throws Exception {
+                return dao.fetchFieldValueRows(rowKeys, fieldName, versions);
+            }
+        }).thenApplyAsync(new Function<Result[], Map<RowKey, NavigableMap<Long, Object>>>() {
+            @Override
+            public Map<RowKey, NavigableMap<Long, Object>> apply(Result[] results) {
+                return dao.decodeFieldValues(fieldName, results);
+            }
+        }, decodeExecutor);
+    }
+
+    /**
+     * Asynchronous variant of {@link AbstractHBDAO#fetchFieldValues(byte[], byte[], String)} (values are decoded as they're scanned, on the I/O executor)
+     */
+    public CompletableFuture<Map<RowKey, Object>> fetchFieldValues(final byte[] startRowKey, final byte[] endRowKey, final String fieldName) {
+        return io(new Callable<Map<RowKey, Object>>() {
+            @Override
+            public Map<RowKey, Object> call() throws Exception {
+                return dao.fetchFieldValues(startRowKey, endRowKey, fieldName);
+            }
+        });
+    }
+
+    /**
+     * Asynchronous variant of {@link AbstractHBDAO#fetchFieldValuesVersioned(RowKey, RowKey, String, int)} (values are decoded as they're scanned, on the I/O executor)
+     */
+    public CompletableFuture<NavigableMap<RowKey, NavigableMap<Long, Object>>> fetchFieldValuesVersioned(final RowKey startRowKey, final RowKey endRowKey, final String fieldName, final int versions) {
+        return io(new Callable<NavigableMap<RowKey, NavigableMap<Long, Object>>>() {
+            @Override
+            public NavigableMap<RowKey, NavigableMap<Long, Object>> call() throws Exception {
+                return dao.fetchFieldValuesVersioned(startRowKey, endRowKey, fieldName, versions);
+            }
+        });
+    }
+
+    /**
+     * Run an HBase call on the I/O executor, bound by timeout of this facade
+     */
+    private <R> CompletableFuture<R> io(final Callable<R> call) {
+        final CompletableFuture<R> future = new CompletableFuture<R>();
+        final Future<?> task;
+        try {
+            task = ioExecutor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        future.complete(dao.callThrough(connection, call));
+                    } catch (Throwable e) {
+                        future.completeExceptionally(e);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+            return future;
+        }
+        final ScheduledFuture<?> timeout = timer.schedule(new Runnable() {
+            @Override
+            public void run() {
+                if (future.completeExceptionally(new TimeoutException(String.format("HBase call on table %s didn't complete in %d ms", dao.getTableName(), TimeUnit.NANOSECONDS.toMillis(timeoutNanos)))))
+                    task.cancel(true);
+            }
+        }, timeoutNanos, TimeUnit.NANOSECONDS);
+        future.whenComplete(new BiConsumer<R, Throwable>() {
+            @Override
+            public void accept(R result, Throwable e) {
+                timeout.cancel(false);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Shut down the I/O executor, if it was created by this facade, and release connection of this facade (the underlying data access object isn't closed). Operations still in flight may fail
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (ownsIoExecutor)
+                ioExecutor.shutdown();
+        } finally {
+            connection.close();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.flipkart.hbaseobjectmapper;
+
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.client.HConnection;
+import org.apache.hadoop.hbase.client.HConnectionManager;
+import org.apache.hadoop.hbase.client.HTablePool;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A connection to HBase (and a pool of tables over it) whose calls are bound by a timeout: each RPC gives up once the timeout elapses, and a call that fails isn't retried (a retry would outlast the timeout anyway).
+ * <br><br>
+ * HBase client doesn't give up a call when it's thread is interrupted (it waits for the region server to respond, or for the RPC to time out), so this is the only way to free a thread stuck on a slow region. Used by {@link AsyncHBDAO}, through {@link AbstractHBDAO#callThrough(BoundedConnection, java.util.concurrent.Callable)}
+ */
+final class BoundedConnection implements Closeable {
+    private final Configuration conf;
+    private final HConnection connection;
+    private final HTablePool tablePool;
+
+    /**
+     * @param conf    Configuration of the connection to derive this one from
+     * @param timeout Timeout for each call
+     * @param unit    Unit of <code>timeout</code>
+     */
+    BoundedConnection(Configuration conf, long timeout, TimeUnit unit) throws IOException {
+        int timeoutMillis = (int) Math.max(1, Math.min(Integer.MAX_VALUE, unit.toMillis(timeout)));
+        this.conf = new Configuration(conf);
+        this.conf.setInt(HConstants.HBASE_RPC_TIMEOUT_KEY, timeoutMillis);
+        this.conf.setInt(HConstants.HBASE_CLIENT_OPERATION_TIMEOUT, timeoutMillis); // bounds an operation's RPCs together (e.g. along with those that locate it's region)
+        this.conf.setInt(HConstants.HBASE_CLIENT_RETRIES_NUMBER, 1);
+        this.conf.setLong(HConstants.HBASE_CLIENT_PAUSE, Math.min(timeoutMillis, conf.getLong(HConstants.HBASE_CLIENT_PAUSE, HConstants.DEFAULT_HBASE_CLIENT_PAUSE)));
+        this.connection = HConnectionManager.getConnection(this.conf); // settings above are part of the key HBase client caches connections by, so this connection isn't shared with those of DAOs
+        this.tablePool = new HTablePool(this.conf, AbstractHBDAO.DEFAULT_TABLE_POOL_SIZE);
+    }
+
+    HConnection getConnection() {
+        return connection;
+    }
+
+    HTablePool getTablePool() {
+        return tablePool;
+    }
+
+    /**
+     * Close the pool of tables and release reference to the connection
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            tablePool.close();
+        } finally {
+            HConnectionManager.deleteConnection(conf);
+        }
+    }
+}
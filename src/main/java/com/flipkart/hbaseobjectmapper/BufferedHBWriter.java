@@ -0,0 +1,292 @@
+package com.flipkart.hbaseobjectmapper;
+
+import org.apache.hadoop.hbase.client.HTable;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.RetriesExhaustedWithDetailsException;
+import org.apache.hadoop.hbase.client.Row;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Writes records to HBase in the background ("write-behind"): records are converted on the calling thread, queued and flushed to HBase in batches on a background thread (by number of records, their size or their age, see {@link WriteBufferOptions}).
+ * <br><br>
+ * When the queue is full, {@link #write(HBRecord)} blocks until there's room (backpressure). Records that couldn't be written are reported to the {@link WriteFailureListener} (or, in it's absence, by {@link #flush()} and {@link #close()}).
+ * <br><br>
+ * Obtain instances from {@link AbstractHBDAO#newBufferedWriter(WriteBufferOptions, WriteFailureListener)}. Instances are thread-safe, and must be closed when no longer needed.
+ *
+ * @param <T> Entity type
+ */
+public final class BufferedHBWriter<T extends HBRecord> implements Closeable {
+    private static final long WORKER_CHECK_INTERVAL_MILLIS = 1000;
+
+    private final HTable table;
+    private final AbstractHBDAO<T> dao;
+    private final WriteBufferOptions options;
+    private final WriteFailureListener<? super T> listener;
+    private final BlockingQueue<Object> queue;
+    private final Thread worker;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock(); // writes and flushes share it, while close takes it exclusively (so nothing is queued after the stop request)
+    private boolean closed; // guarded by lock
+
+    // accessed only by worker thread (handed over to flush requests)
+    private int unreportedFailures;
+    private Throwable firstUnreportedFailure;
+
+    BufferedHBWriter(HTable table, AbstractHBDAO<T> dao, WriteBufferOptions options, WriteFailureListener<? super T> listener) throws IOException {
+        this.table = table;
+        this.dao = dao;
+        this.options = options;
+        this.listener = listener;
+        this.queue = new LinkedBlockingQueue<Object>(options.getQueueCapacity());
+        table.setAutoFlush(false, true);
+        table.setWriteBufferSize(options.getFlushBytes());
+        this.worker = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                runWorker();
+            }
+        }, "BufferedHBWriter-" + new String(table.getTableName()));
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Queue a record to be written to HBase, blocking if the queue is full
+     *
+     * @param record Record to be written (it's converted to a {@link Put} right away, so later changes to it aren't written)
+     * @throws InterruptedIOException When interrupted while waiting for room in the queue
+     * @throws IllegalStateException  When this writer is closed
+     */
+    public void write(T record) throws IOException {
+        Put put = dao.toPut(record);
+        if (put == null) // nothing but counters to write
+            return;
+        enqueueUnlessClosed(new PendingWrite<T>(record, put));
+    }
+
+    /**
+     * Queue records to be written to HBase, blocking while the queue is full (see {@link #write(HBRecord)})
+     */
+    public void write(List<? extends T> records) throws IOException {
+        for (T record : records) {
+            write(record);
+        }
+    }
+
+    /**
+     * Wait until all records queued before this call have been sent to HBase
+     *
+     * @throws IOException When records couldn't be written (only when this writer has no {@link WriteFailureListener}) or when interrupted while waiting
+     */
+    public void flush() throws IOException {
+        FlushRequest request = new FlushRequest(false);
+        enqueueUnlessClosed(request);
+        await(request);
+    }
+
+    /**
+     * Flush all queued records (see {@link #flush()}), stop the background thread and release the underlying table. Calling this more than once (even concurrently) has no effect
+     */
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (closed)
+                return;
+            closed = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        // writes and flushes that got in before are all queued by now, and none can be queued from here on
+        FlushRequest request = new FlushRequest(true);
+        try {
+            enqueue(request);
+            await(request);
+        } finally {
+            if (!request.isDone())
+                worker.interrupt(); // e.g. this thread was interrupted: worker sends what it has and stops
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            table.close();
+        }
+    }
+
+    private void enqueueUnlessClosed(Object item) throws InterruptedIOException {
+        lock.readLock().lock();
+        try {
+            if (closed)
+                throw new IllegalStateException("Writer is closed");
+            enqueue(item);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void await(FlushRequest request) throws IOException {
+        try {
+            while (!request.done.await(WORKER_CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (!worker.isAlive())
+                    throw new IOException("Background thread of writer has stopped unexpectedly");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for writes to be flushed");
+        }
+        if (request.failures > 0)
+            throw new IOException(String.format("%d record(s) couldn't be written to HBase table %s", request.failures, new String(table.getTableName())), request.firstFailure);
+    }
+
+    private void enqueue(Object item) throws InterruptedIOException {
+        try {
+            queue.put(item);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for room in write queue");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runWorker() {
+        List<PendingWrite<T>> batch = new ArrayList<PendingWrite<T>>(options.getFlushRecords());
+        long batchBytes = 0, batchStartedAt = 0;
+        try {
+            while (true) {
+                Object item;
+                if (batch.isEmpty()) {
+                    item = queue.take();
+                } else {
+                    long remainingMillis = batchStartedAt + options.getFlushIntervalMillis() - System.currentTimeMillis();
+                    item = remainingMillis > 0 ? queue.poll(remainingMillis, TimeUnit.MILLISECONDS) : null;
+                }
+                if (item == null) { // oldest record is due
+                    send(batch);
+                    batchBytes = 0;
+                } else if (item instanceof FlushRequest) {
+                    FlushRequest request = (FlushRequest) item;
+                    send(batch);
+                    batchBytes = 0;
+                    request.complete(unreportedFailures, firstUnreportedFailure);
+                    unreportedFailures = 0;
+                    firstUnreportedFailure = null;
+                    if (request.stop)
+                        break;
+                } else {
+                    PendingWrite<T> pendingWrite = (PendingWrite<T>) item;
+                    if (batch.isEmpty())
+                        batchStartedAt = System.currentTimeMillis();
+                    batch.add(pendingWrite);
+                    batchBytes += pendingWrite.put.heapSize();
+                    if (batch.size() >= options.getFlushRecords() || batchBytes >= options.getFlushBytes()) {
+                        send(batch);
+                        batchBytes = 0;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            send(batch);
+        }
+        rejectLateWrites();
+    }
+
+    /**
+     * Send a batch of records to HBase, reporting those that couldn't be written
+     */
+    private void send(List<PendingWrite<T>> batch) {
+        if (batch.isEmpty())
+            return;
+        List<Put> puts = new ArrayList<Put>(batch.size());
+        for (PendingWrite<T> pendingWrite : batch) {
+            puts.add(pendingWrite.put);
+        }
+        try {
+            table.put(puts);
+            table.flushCommits();
+        } catch (RetriesExhaustedWithDetailsException e) {
+            Map<Row, T> records = new IdentityHashMap<Row, T>(batch.size());
+            for (PendingWrite<T> pendingWrite : batch) {
+                records.put(pendingWrite.put, pendingWrite.record);
+            }
+            for (int i = 0; i < e.getNumExceptions(); i++) {
+                fail(records.get(e.getRow(i)), e.getCause(i));
+            }
+        } catch (IOException | RuntimeException e) {
+            table.getWriteBuffer().clear();
+            for (PendingWrite<T> pendingWrite : batch) {
+                fail(pendingWrite.record, e);
+            }
+        }
+        dao.invalidateCached(puts);
+        batch.clear();
+    }
+
+    /**
+     * Fail records that are still queued when the worker stops early (i.e. when it's interrupted)
+     */
+    @SuppressWarnings("unchecked")
+    private void rejectLateWrites() {
+        Object item;
+        while ((item = queue.poll()) != null) {
+            if (item instanceof PendingWrite)
+                fail(((PendingWrite<T>) item).record, new IllegalStateException("Writer is closed"));
+        }
+    }
+
+    private void fail(T record, Throwable cause) {
+        if (listener != null) {
+            try {
+                listener.onFailure(record, cause);
+                return;
+            } catch (RuntimeException e) {
+                cause = e; // listener itself failed: report it through flush() instead
+            }
+        }
+        if (unreportedFailures++ == 0)
+            firstUnreportedFailure = cause;
+    }
+
+    private static class PendingWrite<T> {
+        private final T record;
+        private final Put put;
+
+        PendingWrite(T record, Put put) {
+            this.record = record;
+            this.put = put;
+        }
+    }
+
+    private static class FlushRequest {
+        private final boolean stop;
+        private final CountDownLatch done = new CountDownLatch(1);
+        private int failures;
+        private Throwable firstFailure;
+
+        FlushRequest(boolean stop) {
+            this.stop = stop;
+        }
+
+        boolean isDone() {
+            return done.getCount() == 0;
+        }
+
+        void complete(int failures, Throwable firstFailure) {
+            this.failures = failures;
+            this.firstFailure = firstFailure;
+            done.countDown();
+        }
+    }
+}
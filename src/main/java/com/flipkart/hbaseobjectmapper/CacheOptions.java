@@ -0,0 +1,78 @@
+package com.flipkart.hbaseobjectmapper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Options for the read-through cache of a data access object (see {@link AbstractHBDAO#enableCache(CacheOptions)}). This is immutable: each of the setter-like methods returns a new instance.
+ * <br><br>
+ * The cache is bound either by number of entries or by their estimated size (in bytes of the cells they were decoded from), and evicts least recently used entries first. Example:
+ * <pre>
+ * citizenDao.enableCache(CacheOptions.DEFAULTS.maximumBytes(64 * 1024 * 1024).expireAfterWrite(30, TimeUnit.SECONDS));
+ * </pre>
+ */
+public final class CacheOptions {
+    /**
+     * Default options: up to 10,000 entries, each expiring a minute after it's cached
+     */
+    public static final CacheOptions DEFAULTS = new CacheOptions(10000, 0, TimeUnit.MINUTES.toMillis(1));
+
+    private final long maximumEntries;
+    private final long maximumBytes;
+    private final long expireAfterWriteMillis;
+
+    private CacheOptions(long maximumEntries, long maximumBytes, long expireAfterWriteMillis) {
+        this.maximumEntries = maximumEntries;
+        this.maximumBytes = maximumBytes;
+        this.expireAfterWriteMillis = expireAfterWriteMillis;
+    }
+
+    /**
+     * Bound the cache by number of entries (replaces a bound by size, if any)
+     */
+    public CacheOptions maximumEntries(long maximumEntries) {
+        if (maximumEntries <= 0)
+            throw new IllegalArgumentException("Maximum number of entries should be a positive number (got " + maximumEntries + ")");
+        return new CacheOptions(maximumEntries, 0, expireAfterWriteMillis);
+    }
+
+    /**
+     * Bound the cache by estimated size of entries, in bytes (replaces a bound by number of entries, if any)
+     */
+    public CacheOptions maximumBytes(long maximumBytes) {
+        if (maximumBytes <= 0)
+            throw new IllegalArgumentException("Maximum size should be a positive number (got " + maximumBytes + ")");
+        return new CacheOptions(0, maximumBytes, expireAfterWriteMillis);
+    }
+
+    /**
+     * Time after which a cached entry expires (irrespective of how often it's read)
+     */
+    public CacheOptions expireAfterWrite(long duration, TimeUnit unit) {
+        if (duration <= 0)
+            throw new IllegalArgumentException("Expiry should be a positive duration (got " + duration + " " + unit + ")");
+        return new CacheOptions(maximumEntries, maximumBytes, unit.toMillis(duration));
+    }
+
+    /**
+     * Maximum number of entries (<code>0</code> if cache is bound by size instead)
+     */
+    public long getMaximumEntries() {
+        return maximumEntries;
+    }
+
+    /**
+     * Maximum estimated size of entries, in bytes (<code>0</code> if cache is bound by number of entries instead)
+     */
+    public long getMaximumBytes() {
+        return maximumBytes;
+    }
+
+    public long getExpireAfterWriteMillis() {
+        return expireAfterWriteMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CacheOptions(maximumEntries=%d, maximumBytes=%d, expireAfterWriteMillis=%d)", maximumEntries, maximumBytes, expireAfterWriteMillis);
+    }
+}
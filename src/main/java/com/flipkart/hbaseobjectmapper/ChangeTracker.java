@@ -0,0 +1,103 @@
+package com.flipkart.hbaseobjectmapper;
+
+import com.google.common.collect.MapMaker;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Tracks columns of records read through a data access object, so that persisting a record writes only columns whose cells changed since it was read (or last persisted).
+ * <br><br>
+ * For every record, a snapshot of hashes of it's columns (one hash over the cells of each mapped column) is kept, keyed by identity of the record. Records are held weakly, so snapshots go away along with records that are no longer referenced.
+ */
+final class ChangeTracker {
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128(); // wide enough that a changed column is practically never taken for an unchanged one
+
+    private final FieldMapping[] columns;
+    private final ConcurrentMap<Object, Snapshot> snapshots = new MapMaker().weakKeys().makeMap(); // weak keys are compared by identity
+
+    ChangeTracker(ClassMapping<?> classMapping) {
+        this.columns = classMapping.getColumnsInCellOrder();
+    }
+
+    /**
+     * Take a snapshot of a record, as it was read
+     */
+    void track(Object record, Result result) {
+        if (record == null || result == null || result.isEmpty())
+            return;
+        HashCode[] hashes = new HashCode[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            hashes[i] = hash(columns[i], result.getColumn(columns[i].family(), columns[i].column()));
+        }
+        snapshots.put(record, new Snapshot(result.getRow(), hashes));
+    }
+
+    /**
+     * Strip a {@link Put} of columns that haven't changed since the record was read (or last written), and take a snapshot of the record as it's about to be written
+     *
+     * @param record Record being written
+     * @param put    Cells of all non-null fields of the record
+     * @return <code>put</code> itself, if record isn't tracked (or it's row key changed), <code>null</code> if nothing changed, and a {@link Put} of the changed columns otherwise
+     */
+    Put changes(Object record, Put put) {
+        HashCode[] hashes = new HashCode[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            hashes[i] = hash(columns[i], put.get(columns[i].family(), columns[i].column()));
+        }
+        Snapshot original = snapshots.put(record, new Snapshot(put.getRow(), hashes));
+        if (original == null || !Arrays.equals(original.row, put.getRow()))
+            return put;
+        Put changes = null;
+        for (int i = 0; i < columns.length; i++) {
+            if (hashes[i] == null || hashes[i].equals(original.hashes[i]))
+                continue; // fields set to null aren't written anyway
+            if (changes == null)
+                changes = new Put(put.getRow());
+            for (KeyValue cell : put.get(columns[i].family(), columns[i].column())) {
+                changes.add(cell.getFamily(), cell.getQualifier(), cell.getTimestamp(), cell.getValue());
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Drop snapshot of a record (e.g. when it couldn't be written, so that it's written in full next time)
+     */
+    void forget(Object record) {
+        snapshots.remove(record);
+    }
+
+    private static HashCode hash(FieldMapping column, List<KeyValue> cells) {
+        if (cells.isEmpty())
+            return null;
+        Hasher hasher = HASH_FUNCTION.newHasher();
+        for (KeyValue cell : cells) {
+            if (column.isMultiVersioned()) // for single-versioned fields, timestamps of cells read differ from those of cells to be written (which HBase assigns)
+                hasher.putLong(cell.getTimestamp());
+            hasher.putInt(cell.getValueLength()).putBytes(cell.getBuffer(), cell.getValueOffset(), cell.getValueLength());
+        }
+        return hasher.hash();
+    }
+
+    /**
+     * Row key of a record and hashes of it's columns (<code>null</code> for columns that are absent)
+     */
+    private static class Snapshot {
+        private final byte[] row;
+        private final HashCode[] hashes;
+
+        Snapshot(byte[] row, HashCode[] hashes) {
+            this.row = row;
+            this.hashes = hashes;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.flipkart.hbaseobjectmapper;
+
+import com.flipkart.hbaseobjectmapper.exceptions.BadHBaseLibStateException;
+import com.flipkart.hbaseobjectmapper.exceptions.ObjectNotInstantiatableException;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.*;
+
+/**
+ * Validated, immutable mapping of an entity class to HBase columns. Built once per class by {@link HBObjectMapper} and shared across threads
+ *
+ * @param <T> Entity type
+ */
+final class ClassMapping<T extends HBRecord> {
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(HBRecord.class);
+
+    private final Class<T> clazz;
+    private final MethodHandle constructor;
+    private final List<FieldAccessor> rowKeyFields;
+    private final List<FieldMapping> columns;
+    private final FieldMapping[] columnsInCellOrder;
+    private final Map<String, FieldMapping> columnsByFieldName;
+    private final FieldMapping versionColumn;
+    private final List<FieldMapping> counters;
+    private final Map<String, Field> fields;
+    private final Set<String> columnFamilies;
+    private final HBRecordCodec<T> generatedCodec;
+
+    ClassMapping(Class<T> clazz, List<Field> rowKeyFields, List<FieldMapping> columns, HBRecordCodec<T> generatedCodec) {
+        this.clazz = clazz;
+        this.generatedCodec = generatedCodec;
+        try {
+            Constructor<T> emptyConstructor = clazz.getDeclaredConstructor();
+            emptyConstructor.setAccessible(true);
+            this.constructor = MethodHandles.lookup().unreflectConstructor(emptyConstructor).asType(CONSTRUCTOR_TYPE);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new BadHBaseLibStateException(e);
+        }
+        List<FieldAccessor> rowKeyFieldAccessors = new ArrayList<FieldAccessor>(rowKeyFields.size());
+        for (Field rowKeyField : rowKeyFields) {
+            rowKeyFieldAccessors.add(new FieldAccessor(rowKeyField));
+        }
+        this.rowKeyFields = Collections.unmodifiableList(rowKeyFieldAccessors);
+        this.columns = Collections.unmodifiableList(new ArrayList<FieldMapping>(columns));
+        this.columnsInCellOrder = columns.toArray(new FieldMapping[columns.size()]);
+        Arrays.sort(this.columnsInCellOrder, new Comparator<FieldMapping>() {
+            @Override
+            public int compare(FieldMapping c1, FieldMapping c2) {
+                int familyComparison = Bytes.BYTES_COMPARATOR.compare(c1.family(), c2.family());
+                return familyComparison != 0 ? familyComparison : Bytes.BYTES_COMPARATOR.compare(c1.column(), c2.column());
+            }
+        });
+        Map<String, FieldMapping> columnsByFieldName = new HashMap<String, FieldMapping>(columns.size());
+        Map<String, Field> fields = new HashMap<String, Field>(columns.size());
+        Set<String> columnFamilies = new HashSet<String>();
+        FieldMapping versionColumn = null;
+        List<FieldMapping> counters = new ArrayList<FieldMapping>();
+        for (FieldMapping column : columns) {
+            if (column.hbColumn().isVersion())
+                versionColumn = column;
+            if (column.hbColumn().isCounter())
+                counters.add(column);
+            columnsByFieldName.put(column.name(), column);
+            fields.put(column.name(), column.field());
+            columnFamilies.add(column.hbColumn().family());
+        }
+        this.columnsByFieldName = Collections.unmodifiableMap(columnsByFieldName);
+        this.versionColumn = versionColumn;
+        this.counters = Collections.unmodifiableList(counters);
+        this.fields = Collections.unmodifiableMap(fields);
+        this.columnFamilies = Collections.unmodifiableSet(columnFamilies);
+    }
+
+    Class<T> getMappedClass() {
+        return clazz;
+    }
+
+    /**
+     * Creates an instance of the mapped class using it's empty constructor
+     */
+    @SuppressWarnings("unchecked")
+    T newInstance() {
+        try {
+            return (T) (HBRecord) constructor.invokeExact();
+        } catch (Throwable t) {
+            throw new ObjectNotInstantiatableException("Error while instantiating empty constructor of " + clazz.getName(), t);
+        }
+    }
+
+    /**
+     * Fields annotated with {@link HBRowKey}
+     */
+    List<FieldAccessor> getRowKeyFields() {
+        return rowKeyFields;
+    }
+
+    /**
+     * Fields mapped to HBase columns, in the order they're declared
+     */
+    List<FieldMapping> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Fields mapped to HBase columns, in the order HBase sorts cells of a row (i.e. by column family and then by column name). Callers must not modify the returned array
+     */
+    FieldMapping[] getColumnsInCellOrder() {
+        return columnsInCellOrder;
+    }
+
+    /**
+     * Get mapping for a field by it's name
+     *
+     * @return Mapping of the field, <code>null</code> if no such field is mapped to an HBase column
+     */
+    FieldMapping getColumn(String fieldName) {
+        return columnsByFieldName.get(fieldName);
+    }
+
+    /**
+     * Field annotated with {@link HBVersionColumn}
+     *
+     * @return Mapping of the field, <code>null</code> if class has no such field
+     */
+    FieldMapping getVersionColumn() {
+        return versionColumn;
+    }
+
+    /**
+     * Fields annotated with {@link HBCounter}
+     */
+    List<FieldMapping> getCounters() {
+        return counters;
+    }
+
+    /**
+     * Field name to field definition, for fields mapped to HBase columns
+     */
+    Map<String, Field> getFields() {
+        return fields;
+    }
+
+    Set<String> getColumnFamilies() {
+        return columnFamilies;
+    }
+
+    /**
+     * Codec generated at compile time for the mapped class
+     *
+     * @return Codec, <code>null</code> if none was generated (in which case, objects are converted using reflection)
+     */
+    HBRecordCodec<T> getGeneratedCodec() {
+        return generatedCodec;
+    }
+}
@@ -0,0 +1,27 @@
+package com.flipkart.hbaseobjectmapper;
+
+import java.io.Closeable;
+import java.util.Iterator;
+
+/**
+ * An iterator over resources that need to be released (e.g. an HBase scanner). Resources are released when the iterator is exhausted or closed, whichever happens first.
+ * <br><br>
+ * Use it in a <code>try</code>-with-resources block, so that resources are released even if you stop iterating early:
+ * <pre>
+ * try (CloseableIterator&lt;Citizen&gt; citizens = citizenDao.scan(startRowKey, endRowKey)) {
+ *     while (citizens.hasNext()) {
+ *         process(citizens.next());
+ *     }
+ * }
+ * </pre>
+ *
+ * @param <E> Type of elements
+ */
+public interface CloseableIterator<E> extends Iterator<E>, Closeable {
+
+    /**
+     * Release resources held by this iterator (calling this more than once has no effect)
+     */
+    @Override
+    void close();
+}
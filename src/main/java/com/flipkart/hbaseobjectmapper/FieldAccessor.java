@@ -0,0 +1,71 @@
+package com.flipkart.hbaseobjectmapper;
+
+import com.flipkart.hbaseobjectmapper.exceptions.BadHBaseLibStateException;
+import com.flipkart.hbaseobjectmapper.exceptions.ConversionFailedException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+/**
+ * Reads and writes a field through {@link MethodHandle}s resolved once, instead of reflective {@link Field#get(Object)}/{@link Field#set(Object, Object)} calls (and access checks) on every row
+ */
+final class FieldAccessor {
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final String fieldName;
+    private final boolean primitive;
+    private final MethodHandle getter, setter;
+
+    FieldAccessor(Field field) {
+        this.fieldName = field.getName();
+        this.primitive = field.getType().isPrimitive();
+        field.setAccessible(true);
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            this.getter = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+            this.setter = lookup.unreflectSetter(field).asType(SETTER_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new BadHBaseLibStateException(e);
+        }
+    }
+
+    String fieldName() {
+        return fieldName;
+    }
+
+    /**
+     * Whether field is of a primitive type (and so, is never <code>null</code>)
+     */
+    boolean isPrimitive() {
+        return primitive;
+    }
+
+    /**
+     * Get value of the field (boxed, if field is of a primitive type)
+     */
+    Object get(Object obj) {
+        try {
+            return (Object) getter.invokeExact(obj);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new ConversionFailedException("Field " + fieldName + " could not be accessed", t);
+        }
+    }
+
+    /**
+     * Set value of the field
+     */
+    void set(Object obj, Object value) {
+        try {
+            setter.invokeExact(obj, value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new ConversionFailedException("Could not set value on field \"" + fieldName + "\" on instance of class " + obj.getClass(), t);
+        }
+    }
+}
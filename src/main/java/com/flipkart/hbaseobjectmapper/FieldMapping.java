@@ -0,0 +1,120 @@
+package com.flipkart.hbaseobjectmapper;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.flipkart.hbaseobjectmapper.codec.HBCodec;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.lang.reflect.Field;
+
+/**
+ * Mapping of one entity field to it's HBase column, resolved once (see {@link ClassMapping}) and reused for every conversion
+ */
+final class FieldMapping {
+    private final Field field;
+    private final FieldAccessor accessor;
+    private final WrappedHBColumn hbColumn;
+    private final byte[] family, column;
+    private final Class<?> valueClass;
+    private final JavaType valueType;
+    private final HBCodec<Object> codec;
+    private final PrimitiveFieldCodec primitiveCodec;
+
+    /**
+     * @param field             Field (already validated)
+     * @param hbColumn          Column the field is mapped to
+     * @param valueClass        Type of field (or, for multi-versioned fields, type of values in the map)
+     * @param valueType         Jackson's type for <code>valueClass</code>, with generic parameters resolved
+     * @param codec             Codec to convert values of <code>valueClass</code> to byte arrays and back
+     * @param primitiveCodec    Codec to convert field between the object and byte arrays without boxing (<code>null</code> unless field is of a primitive type and there's no other codec for it)
+     */
+    FieldMapping(Field field, WrappedHBColumn hbColumn, Class<?> valueClass, JavaType valueType, HBCodec<Object> codec, PrimitiveFieldCodec primitiveCodec) {
+        this.field = field;
+        this.accessor = new FieldAccessor(field);
+        this.hbColumn = hbColumn;
+        this.family = Bytes.toBytes(hbColumn.family());
+        this.column = Bytes.toBytes(hbColumn.column());
+        this.valueClass = valueClass;
+        this.valueType = valueType;
+        this.codec = codec;
+        this.primitiveCodec = primitiveCodec;
+    }
+
+    Field field() {
+        return field;
+    }
+
+    String name() {
+        return field.getName();
+    }
+
+    /**
+     * Get value of this field from an object
+     */
+    Object get(Object obj) {
+        return accessor.get(obj);
+    }
+
+    /**
+     * Set value of this field on an object
+     */
+    void set(Object obj, Object value) {
+        accessor.set(obj, value);
+    }
+
+    WrappedHBColumn hbColumn() {
+        return hbColumn;
+    }
+
+    /**
+     * Column family name, encoded (callers must not modify the returned array)
+     */
+    byte[] family() {
+        return family;
+    }
+
+    /**
+     * Column name, encoded (callers must not modify the returned array)
+     */
+    byte[] column() {
+        return column;
+    }
+
+    /**
+     * Whether a cell belongs to the column this field is mapped to (compares bytes in-place, without copying them out of the cell)
+     */
+    boolean matches(KeyValue cell) {
+        return cell.matchingColumn(family, column);
+    }
+
+    boolean isMultiVersioned() {
+        return hbColumn.isMultiVersioned();
+    }
+
+    boolean serializeAsString() {
+        return hbColumn.serializeAsString();
+    }
+
+    Class<?> valueClass() {
+        return valueClass;
+    }
+
+    JavaType valueType() {
+        return valueType;
+    }
+
+    HBCodec<Object> codec() {
+        return codec;
+    }
+
+    /**
+     * Whether field is of a primitive type (and so, is never <code>null</code>)
+     */
+    boolean isPrimitive() {
+        return field.getType().isPrimitive();
+    }
+
+    PrimitiveFieldCodec primitiveCodec() {
+        return primitiveCodec;
+    }
+}
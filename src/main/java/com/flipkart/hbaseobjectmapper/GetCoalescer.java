@@ -0,0 +1,187 @@
+package com.flipkart.hbaseobjectmapper;
+
+import org.apache.hadoop.hbase.client.Result;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces concurrent point gets of a data access object:
+ * <ul>
+ * <li>Concurrent gets of the same row key share one fetch ("single-flight")</li>
+ * <li>Gets of distinct row keys that arrive within a short window are fetched together, as one multi-get ("micro-batching")</li>
+ * </ul>
+ * A batch is fetched on the thread of the caller that opened it (once the window elapses) or of the caller that filled it, whichever comes first. So no threads are needed beyond those of callers.
+ * <br><br>
+ * Gets that share a fetch share the row read, but each decodes it into an object of its own (so that callers can modify what they get, as they would without coalescing).
+ * A get doesn't join an in-flight fetch of it's row key if the row was written since that fetch began (as then, it may have been served before the write), but fetches afresh.
+ *
+ * @param <T> Entity type
+ */
+final class GetCoalescer<T extends HBRecord> {
+    private final AbstractHBDAO<T> dao;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final ConcurrentMap<RowKey, InFlight> inFlight = new ConcurrentHashMap<RowKey, InFlight>();
+    private final Object lock = new Object();
+    private Batch openBatch; // guarded by lock
+
+    GetCoalescer(AbstractHBDAO<T> dao, int maxBatchSize, long maxDelay, TimeUnit unit) {
+        if (maxBatchSize <= 0)
+            throw new IllegalArgumentException("Maximum batch size should be a positive number (got " + maxBatchSize + ")");
+        if (maxDelay < 0)
+            throw new IllegalArgumentException("Maximum delay can't be negative (got " + maxDelay + " " + unit + ")");
+        this.dao = dao;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = unit.toNanos(maxDelay);
+    }
+
+    /**
+     * Get latest version of a row, joining an in-flight fetch of the same row key or a batch of other row keys
+     */
+    T get(byte[] rowKey) throws IOException {
+        RowKey key = new RowKey(rowKey);
+        InFlight get;
+        while (true) {
+            get = new InFlight(dao.epoch(rowKey)); // before the batch is fetched
+            InFlight existing = inFlight.putIfAbsent(key, get);
+            if (existing == null)
+                break;
+            if (existing.epoch == dao.epoch(rowKey))
+                return dao.decodeRow(rowKey, await(existing.future));
+            // row was written since the in-flight fetch began: take it's place, so that gets arriving from now on join this one
+            if (inFlight.replace(key, existing, get))
+                break;
+        }
+        Batch batch, batchToFetch = null;
+        boolean opened = false;
+        synchronized (lock) {
+            if (openBatch == null) {
+                openBatch = new Batch(maxBatchSize);
+                opened = true;
+            }
+            batch = openBatch;
+            batch.add(key, get);
+            if (batch.size() >= maxBatchSize) {
+                batchToFetch = close(batch);
+                lock.notifyAll(); // caller that opened the batch needn't wait anymore
+            }
+        }
+        if (batchToFetch == null && opened)
+            batchToFetch = awaitWindow(batch);
+        if (batchToFetch != null)
+            fetch(batchToFetch);
+        Result result = await(get.future);
+        T record = dao.decodeRow(rowKey, result);
+        dao.cache(rowKey, get.epoch, record, result); // one get per fetch caches the row (others that joined it decode their own)
+        return record;
+    }
+
+    /**
+     * Wait for the batch to fill up or the window to elapse, whichever comes first
+     *
+     * @return The batch, if it's for this thread to fetch (<code>null</code> if another thread filled it up)
+     */
+    private Batch awaitWindow(Batch batch) throws InterruptedIOException {
+        long deadline = System.nanoTime() + maxDelayNanos;
+        synchronized (lock) {
+            long remaining;
+            while (!batch.closed && (remaining = deadline - System.nanoTime()) > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    // don't leave the batch orphaned: fetch it right away
+                    break;
+                }
+            }
+            return batch.closed ? null : close(batch);
+        }
+    }
+
+    private Batch close(Batch batch) {
+        batch.closed = true;
+        if (openBatch == batch)
+            openBatch = null;
+        return batch;
+    }
+
+    private void fetch(Batch batch) {
+        try {
+            Result[] results = dao.fetchRows(batch.rowKeys, 1);
+            for (int i = 0; i < results.length; i++) {
+                complete(batch, i).complete(results[i]);
+            }
+        } catch (Throwable e) {
+            for (int i = 0; i < batch.rowKeys.size(); i++) {
+                complete(batch, i).completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Take a get off the in-flight map (so that gets arriving from now on fetch afresh) and return it's future
+     */
+    private CompletableFuture<Result> complete(Batch batch, int i) {
+        InFlight get = batch.gets.get(i);
+        inFlight.remove(batch.rowKeys.get(i), get);
+        return get.future;
+    }
+
+    private static Result await(CompletableFuture<Result> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a coalesced get");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException)
+                throw (IOException) cause;
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * A fetch of a row key, along with count of writes to the row key when it began (see {@link AbstractHBDAO#epoch(byte[])})
+     */
+    private static class InFlight {
+        private final CompletableFuture<Result> future = new CompletableFuture<Result>();
+        private final long epoch;
+
+        InFlight(long epoch) {
+            this.epoch = epoch;
+        }
+    }
+
+    private static class Batch {
+        private final List<RowKey> rowKeys;
+        private final List<InFlight> gets;
+        private boolean closed; // guarded by lock of coalescer
+
+        Batch(int capacity) {
+            rowKeys = new ArrayList<RowKey>(capacity);
+            gets = new ArrayList<InFlight>(capacity);
+        }
+
+        void add(RowKey rowKey, InFlight get) {
+            rowKeys.add(rowKey);
+            gets.add(get);
+        }
+
+        int size() {
+            return rowKeys.size();
+        }
+    }
+}
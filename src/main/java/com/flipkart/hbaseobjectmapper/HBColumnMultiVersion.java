@@ -1,5 +1,8 @@
 package com.flipkart.hbaseobjectmapper;
 
+import com.flipkart.hbaseobjectmapper.codec.Format;
+import com.flipkart.hbaseobjectmapper.codec.HBCodec;
+
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
@@ -26,4 +29,14 @@ public @interface HBColumnMultiVersion {
      * (Applicable to numeric fields) Store field value in it's string representation (e.g. (int)560034 is stored as "560034")
      */
     boolean serializeAsString() default false;
+
+    /**
+     * Codec to convert values in the map to byte arrays and back, in place of the default conversion (must have a public empty constructor). When specified, {@link #serializeAsString()} is ignored
+     */
+    Class<? extends HBCodec<?>> codec() default HBCodec.None.class;
+
+    /**
+     * (Applicable to fields of types that HBase doesn't natively convert, e.g. maps or your own classes) Format in which values in the map is stored. For any other format, specify a {@link #codec()}
+     */
+    Format format() default Format.JSON;
 }
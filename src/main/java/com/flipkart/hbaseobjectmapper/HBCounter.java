@@ -0,0 +1,26 @@
+package com.flipkart.hbaseobjectmapper;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maps an entity field of type <code>Long</code> (or <code>long</code>) to an HBase column that's used as a counter, i.e. one that's updated through HBase's atomic increments (see {@link AbstractHBDAO#increment(byte[], String, long)}).
+ * <br><br>
+ * Value is stored as an 8-byte long, the way HBase's increments expect it (so, codecs registered for <code>Long</code> don't apply to such fields). Such a field is read like any other, but data access objects never write it when the object is persisted (so that persisting an object read earlier doesn't undo increments made since, and a primitive field's default doesn't reset the counter): counters are written through increments only. {@link HBObjectMapper#writeValueAsPut(HBRecord)} does write such a field, like any other.
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface HBCounter {
+
+    /**
+     * Name of HBase column family
+     */
+    String family();
+
+    /**
+     * Name of HBase column
+     */
+    String column();
+}
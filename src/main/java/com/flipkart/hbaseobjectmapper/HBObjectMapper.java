@@ -1,8 +1,9 @@
 package com.flipkart.hbaseobjectmapper;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flipkart.hbaseobjectmapper.codec.Codecs;
+import com.flipkart.hbaseobjectmapper.codec.HBCodec;
 import com.flipkart.hbaseobjectmapper.exceptions.*;
 import com.google.common.collect.BiMap;
 import com.google.common.collect.HashBiMap;
@@ -14,10 +15,10 @@ import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
 import org.apache.hadoop.hbase.util.Bytes;
 import org.apache.hadoop.hbase.util.Pair;
 
-import java.io.IOException;
 import java.lang.reflect.*;
-import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * An object mapper class that helps convert your bean-like objects to HBase's {@link Put} and {@link Result} objects (and vice-versa). For use in Map/Reduce jobs and their unit-tests
@@ -26,19 +27,6 @@ public class HBObjectMapper {
 
     private static final ObjectMapper jsonObjMapper = new ObjectMapper();
 
-    private static final Map<Class, String> fromBytesMethodNames = new HashMap<Class, String>() {
-        {
-            put(Boolean.class, "toBoolean");
-            put(Short.class, "toShort");
-            put(Integer.class, "toInt");
-            put(Long.class, "toLong");
-            put(Float.class, "toFloat");
-            put(Double.class, "toDouble");
-            put(String.class, "toString");
-            put(BigDecimal.class, "toBigDecimal");
-        }
-    };
-
     private static final BiMap<Class, Class> nativeCounterParts = HashBiMap.create(new HashMap<Class, Class>() {
         {
             put(Boolean.class, boolean.class);
@@ -50,115 +38,103 @@ public class HBObjectMapper {
         }
     });
 
-    private final Map<String, Method> fromBytesMethods, toBytesMethods;
-    private final Map<String, Constructor> constructors;
+    private final Map<Class<?>, HBCodec<?>> codecs;
+    private final ConcurrentMap<Class<?>, ClassMapping<?>> classMappings = new ConcurrentHashMap<Class<?>, ClassMapping<?>>();
 
     public HBObjectMapper() {
-        fromBytesMethods = new HashMap<String, Method>(fromBytesMethodNames.size());
-        toBytesMethods = new HashMap<String, Method>(fromBytesMethodNames.size());
-        constructors = new HashMap<String, Constructor>(fromBytesMethodNames.size());
-        for (Map.Entry<Class, String> e : fromBytesMethodNames.entrySet()) {
-            Class<?> clazz = e.getKey();
-            String toDataTypeMethodName = e.getValue();
-            Method fromBytesMethod, toBytesMethod;
-            Constructor<?> constructor;
-            try {
-                fromBytesMethod = Bytes.class.getDeclaredMethod(toDataTypeMethodName, byte[].class);
-                toBytesMethod = Bytes.class.getDeclaredMethod("toBytes", nativeCounterParts.containsKey(clazz) ? nativeCounterParts.get(clazz) : clazz);
-                constructor = clazz.getConstructor(String.class);
-            } catch (Exception ex) {
-                throw new BadHBaseLibStateException(ex);
-            }
-            fromBytesMethods.put(clazz.getName(), fromBytesMethod);
-            toBytesMethods.put(clazz.getName(), toBytesMethod);
-            constructors.put(clazz.getName(), constructor);
-        }
+        this(Collections.<Class<?>, HBCodec<?>>emptyMap());
     }
 
     /**
-     * @param rowKey
-     * @param map    Map of families to all versions of its qualifiers and values.
-     * @param clazz
-     * @param <T>
-     * @return
+     * Constructs an object mapper that converts values of specific types using specified codecs (in place of default conversion). A codec specified on a field (see {@link HBColumn#codec()}) takes precedence over these.
+     * <br><br>
+     * Note: Codecs generated at compile time (see {@link HBRecordCodec}) aren't used for classes that have fields of these types
+     *
+     * @param codecs Map of type to codec that converts values of that type
      */
-    private <T extends HBRecord> T mapToObj(RowKey rowKey, NavigableMap<byte[], NavigableMap<byte[], NavigableMap<Long, byte[]>>> map, Class<T> clazz) {
+    public HBObjectMapper(Map<Class<?>, HBCodec<?>> codecs) {
+        this.codecs = Collections.unmodifiableMap(new HashMap<Class<?>, HBCodec<?>>(codecs));
+    }
+
+    /**
+     * Converts cells of a row to a bean-like object, in a single pass over the cells.
+     * <br><br>
+     * Cells are matched against columns sorted the way HBase sorts cells, starting from the last matched column. So, for cells in HBase's order (as in {@link Result#raw()}), matching is linear.
+     * For a field annotated with {@link HBColumn}, only it's latest cell is decoded. For a field annotated with {@link HBColumnMultiVersion}, all cells are decoded.
+     *
+     * @param rowKey Row key
+     * @param cells  Cells of the row (in any order)
+     * @param clazz  {@link Class} to which you want to convert to
+     */
+    private <T extends HBRecord> T cellsToObj(RowKey rowKey, KeyValue[] cells, Class<T> clazz) {
         T obj;
-        validateHBClass(clazz);
-        try {
-            obj = clazz.newInstance();
-        } catch (Exception ex) {
-            throw new ObjectNotInstantiatableException("Error while instantiating empty constructor of " + clazz.getName(), ex);
-        }
+        ClassMapping<T> classMapping = getClassMapping(clazz);
+        obj = classMapping.newInstance();
         try {
             obj.parseRowKey(rowKey.bytes());
         } catch (Exception ex) {
             throw new RowKeyCouldNotBeParsedException(String.format("Supplied row key \"%s\" could not be parsed", rowKey.bytes()), ex);
         }
-        for (Field field : clazz.getDeclaredFields()) {
-            WrappedHBColumn hbColumn = new WrappedHBColumn(field);
-            if (hbColumn.isSingleVersioned()) {
-                NavigableMap<byte[], NavigableMap<Long, byte[]>> familyMap = map.get(Bytes.toBytes(hbColumn.family()));
-                if (familyMap == null || familyMap.isEmpty())
-                    continue;
-                NavigableMap<Long, byte[]> columnVersionsMap = familyMap.get(Bytes.toBytes(hbColumn.column()));
-                if (columnVersionsMap == null || columnVersionsMap.isEmpty())
-                    continue;
-                Map.Entry<Long, byte[]> lastEntry = columnVersionsMap.lastEntry();
-                objectSetFieldValue(obj, field, lastEntry.getValue(), hbColumn.serializeAsString());
-            } else if (hbColumn.isMultiVersioned()) {
-                NavigableMap<byte[], NavigableMap<Long, byte[]>> familyMap = map.get(Bytes.toBytes(hbColumn.family()));
-                if (familyMap == null || familyMap.isEmpty())
-                    continue;
-                NavigableMap<Long, byte[]> columnVersionsMap = familyMap.get(Bytes.toBytes(hbColumn.column()));
-                objectSetFieldValue(obj, field, columnVersionsMap, hbColumn.serializeAsString());
+        FieldMapping[] columns = classMapping.getColumnsInCellOrder();
+        KeyValue[] latestCells = new KeyValue[columns.length];
+        @SuppressWarnings("unchecked")
+        NavigableMap<Long, Object>[] versions = (NavigableMap<Long, Object>[]) new NavigableMap<?, ?>[columns.length];
+        int hint = 0;
+        for (KeyValue cell : cells) {
+            int i = findColumn(columns, cell, hint);
+            if (i < 0)
+                continue;
+            hint = i;
+            FieldMapping column = columns[i];
+            if (column.isMultiVersioned()) {
+                if (versions[i] == null)
+                    versions[i] = new TreeMap<Long, Object>();
+                versions[i].put(cell.getTimestamp(), decodeFieldValue(obj, column, cell));
+            } else if (latestCells[i] == null || cell.getTimestamp() >= latestCells[i].getTimestamp()) {
+                latestCells[i] = cell;
+            }
+        }
+        for (int i = 0; i < columns.length; i++) {
+            if (versions[i] != null) {
+                objectSetFieldValue(obj, columns[i], versions[i]);
+            } else if (latestCells[i] != null && latestCells[i].getValueLength() > 0) {
+                PrimitiveFieldCodec primitiveCodec = columns[i].primitiveCodec();
+                if (primitiveCodec != null) {
+                    decodePrimitiveFieldValue(obj, columns[i], latestCells[i]);
+                } else {
+                    Object value = decodeFieldValue(obj, columns[i], latestCells[i]);
+                    if (value != null || !columns[i].isPrimitive()) // absent value leaves a primitive field untouched
+                        objectSetFieldValue(obj, columns[i], value);
+                }
             }
         }
         return obj;
     }
 
-    private boolean isFieldNull(Field field, HBRecord obj) {
-        try {
-            field.setAccessible(true);
-            return field.get(obj) == null;
-        } catch (IllegalAccessException e) {
-            throw new ConversionFailedException("Field " + field.getName() + " could not be accessed", e);
+    /**
+     * @return Index of the column a cell belongs to, -1 if cell doesn't belong to any mapped column
+     */
+    static int findColumn(FieldMapping[] columns, KeyValue cell, int hint) {
+        for (int j = 0; j < columns.length; j++) {
+            int i = (hint + j) % columns.length;
+            if (columns[i].matches(cell))
+                return i;
         }
+        return -1;
     }
 
-    private byte[] valueToByteArray(Class<?> clazz, Object value, boolean serializeAsString) {
-        try {
-            if (value == null)
-                return null;
-            if (toBytesMethods.containsKey(clazz.getName())) {
-                Method toBytesMethod = toBytesMethods.get(clazz.getName());
-                return serializeAsString ? Bytes.toBytes(String.valueOf(value)) : (byte[]) toBytesMethod.invoke(null, value);
-            } else {
-                try {
-                    if (serializeAsString)
-                        return Bytes.toBytes(jsonObjMapper.writeValueAsString(value));
-                    else
-                        return jsonObjMapper.writeValueAsBytes(value);
-
-                } catch (JsonProcessingException jpx) {
-                    throw new ConversionFailedException(String.format("Don't know how to convert field of type %s to byte array", clazz.getName()));
-                }
-            }
-        } catch (IllegalAccessException e) {
-            throw new BadHBaseLibStateException(e);
-        } catch (InvocationTargetException e) {
-            throw new BadHBaseLibStateException(e);
-        } catch (IllegalArgumentException iax) {
-            throw new BadHBaseLibStateException(iax);
-        }
+    private byte[] valueToByteArray(FieldMapping column, Object value) {
+        if (value == null)
+            return null;
+        return column.codec().toBytes(value);
     }
 
-    private static <T extends HBRecord> void validateHBClass(Class<T> clazz) {
+    private <T extends HBRecord> void validateHBClass(Class<T> clazz) {
         Constructor constructor;
         try {
             Set<Pair<String, String>> columns = new HashSet<Pair<String, String>>();
             constructor = clazz.getDeclaredConstructor();
-            int numOfHBColumns = 0, numOfHBRowKeys = 0;
+            int numOfHBColumns = 0, numOfHBRowKeys = 0, numOfHBVersionColumns = 0;
             for (Field field : clazz.getDeclaredFields()) {
                 if (field.isAnnotationPresent(HBRowKey.class)) {
                     numOfHBRowKeys++;
@@ -167,6 +143,9 @@ public class HBObjectMapper {
                 if (hbColumn.isSingleVersioned()) {
                     validateHBColumnField(field);
                     numOfHBColumns++;
+                    if (hbColumn.isVersion() && ++numOfHBVersionColumns > 1) {
+                        throw new MultipleHBVersionColumnsException(clazz);
+                    }
                     if (!columns.add(new Pair<String, String>(hbColumn.family(), hbColumn.column()))) {
                         throw new FieldsMappedToSameColumnException(String.format("Class %s has two fields mapped to same column %s:%s", clazz.getName(), hbColumn.family(), hbColumn.column()));
                     }
@@ -193,7 +172,7 @@ public class HBObjectMapper {
         }
     }
 
-    private static void validateHBColumnMultiVersionField(Field field) {
+    private void validateHBColumnMultiVersionField(Field field) {
         validateHBColumnField(field);
         if (!(field.getGenericType() instanceof ParameterizedType)) {
             throw new IncompatibleFieldForHBColumnMultiVersionAnnotationException("Field " + field + " is not even a parameterized type");
@@ -208,7 +187,7 @@ public class HBObjectMapper {
         }
     }
 
-    private static <T extends HBRecord> void validateHBColumnField(Field field) {
+    private <T extends HBRecord> void validateHBColumnField(Field field) {
         @SuppressWarnings("unchecked")
         Class<T> clazz = (Class<T>) field.getDeclaringClass();
         WrappedHBColumn hbColumn = new WrappedHBColumn(field);
@@ -220,104 +199,75 @@ public class HBObjectMapper {
             throw new MappedColumnCantBeStaticException(field, hbColumn.getName());
         }
         Class<?> fieldClazz = field.getType();
-        if (fieldClazz.isPrimitive()) {
-            String suggestion = nativeCounterParts.containsValue(fieldClazz) ? String.format("- Use type %s instead", nativeCounterParts.inverse().get(fieldClazz).getName()) : "";
-            throw new MappedColumnCantBePrimitiveException(String.format("Field %s in class %s is a primitive of type %s (Primitive data types are not supported as they're not nullable) %s", field.getName(), clazz.getName(), fieldClazz.getName(), suggestion));
+        if (hbColumn.isCounter() && fieldClazz != Long.class && fieldClazz != long.class) {
+            throw new IncompatibleFieldForHBCounterAnnotationException(field);
         }
-        JavaType javaType = jsonObjMapper.constructType(field.getGenericType());
-        if (!jsonObjMapper.canDeserialize(javaType)) {
-            throw new UnsupportedFieldTypeException(String.format("Field %s in class %s is of unsupported type (%s)", field.getName(), clazz.getName(), fieldClazz.getName()));
+        if (hbColumn.isVersion() && fieldClazz != Long.class && fieldClazz != long.class) {
+            throw new IncompatibleFieldForHBVersionColumnAnnotationException(field);
         }
+        if (fieldClazz.isPrimitive() && !PrimitiveFieldCodec.isSupported(fieldClazz)) {
+            throw new MappedColumnCantBePrimitiveException(String.format("Field %s in class %s is a primitive of type %s (Only primitives of types boolean, short, int, long, float and double are supported)", field.getName(), clazz.getName(), fieldClazz.getName()));
+        }
+        validateDeserializable(field, hbColumn);
     }
 
-    private NavigableMap<byte[], NavigableMap<byte[], NavigableMap<Long, byte[]>>> objToMap(HBRecord obj) {
-        Class<? extends HBRecord> clazz = obj.getClass();
-        validateHBClass(clazz);
-        NavigableMap<byte[], NavigableMap<byte[], NavigableMap<Long, byte[]>>> map = new TreeMap<byte[], NavigableMap<byte[], NavigableMap<Long, byte[]>>>(Bytes.BYTES_COMPARATOR);
-        int numOfFieldsToWrite = 0;
-        for (Field field : clazz.getDeclaredFields()) {
-            WrappedHBColumn hbColumn = new WrappedHBColumn(field);
-            boolean isRowKey = field.isAnnotationPresent(HBRowKey.class);
+    /**
+     * Checks that values of a field can be converted by Jackson, unless a codec converts them (this needs the class itself, so it's not made at compile time)
+     */
+    private void validateDeserializable(Field field, WrappedHBColumn hbColumn) {
+        Class<?> fieldClazz = field.getType();
+        JavaType javaType = jsonObjMapper.constructType(fieldClazz.isPrimitive() ? nativeCounterParts.inverse().get(fieldClazz) : field.getGenericType());
+        if (!hasCodec(hbColumn, hbColumn.isMultiVersioned() ? javaType.getContentType() : javaType) && !jsonObjMapper.canDeserialize(javaType)) {
+            throw new UnsupportedFieldTypeException(String.format("Field %s in class %s is of unsupported type (%s)", field.getName(), field.getDeclaringClass().getName(), fieldClazz.getName()));
+        }
+    }
 
-            if (!hbColumn.isPresent() && !isRowKey)
-                continue;
+    /**
+     * Receives cells of a bean-like object, as {@link #writeCells(HBRecord, CellSink)} converts it's fields
+     */
+    private interface CellSink {
+        void add(byte[] family, byte[] column, long timestamp, byte[] value);
+    }
 
-            if (isRowKey && isFieldNull(field, obj)) {
-                boolean isANull = isFieldNull(field, obj);
-                System.out.println("isRowKey and field is null");
-                throw new HBRowKeyFieldCantBeNullException("Field " + field.getName() + " is null (fields part of row key cannot be null)");
+    /**
+     * Converts fields of a bean-like object to cells and streams them to a sink. Cells are emitted in the order HBase sorts them (i.e. by column family, column name and then latest version first)
+     */
+    private void writeCells(HBRecord obj, CellSink sink) {
+        ClassMapping<? extends HBRecord> classMapping = getClassMapping(obj.getClass());
+        for (FieldAccessor rowKeyField : classMapping.getRowKeyFields()) {
+            if (!rowKeyField.isPrimitive() && rowKeyField.get(obj) == null) {
+                throw new HBRowKeyFieldCantBeNullException("Field " + rowKeyField.fieldName() + " is null (fields part of row key cannot be null)");
             }
-            if (hbColumn.isSingleVersioned()) {
-                byte[] family = Bytes.toBytes(hbColumn.family()), columnName = Bytes.toBytes(hbColumn.column());
-                if (!map.containsKey(family)) {
-                    map.put(family, new TreeMap<byte[], NavigableMap<Long, byte[]>>(Bytes.BYTES_COMPARATOR));
-                }
-                Map<byte[], NavigableMap<Long, byte[]>> columns = map.get(family);
-                final byte[] fieldValueBytes = getFieldValueAsBytes(obj, field, hbColumn.serializeAsString());
-                if (fieldValueBytes == null || fieldValueBytes.length == 0) {
-                    continue;
-                }
-                numOfFieldsToWrite++;
-                columns.put(columnName, new TreeMap<Long, byte[]>() {
-                    {
-                        put(HConstants.LATEST_TIMESTAMP, fieldValueBytes);
-                    }
-                });
-            } else if (hbColumn.isMultiVersioned()) {
-                NavigableMap<Long, byte[]> fieldValueVersions = getFieldValuesVersioned(field, obj, hbColumn.serializeAsString());
+        }
+        int numOfFieldsWritten = 0;
+        for (FieldMapping column : classMapping.getColumnsInCellOrder()) {
+            if (column.isMultiVersioned()) {
+                @SuppressWarnings("unchecked")
+                NavigableMap<Long, Object> fieldValueVersions = (NavigableMap<Long, Object>) column.get(obj);
                 if (fieldValueVersions == null)
                     continue;
-                byte[] family = Bytes.toBytes(hbColumn.family()), columnName = Bytes.toBytes(hbColumn.column());
-                if (!map.containsKey(family)) {
-                    map.put(family, new TreeMap<byte[], NavigableMap<Long, byte[]>>(Bytes.BYTES_COMPARATOR));
+                if (fieldValueVersions.isEmpty()) {
+                    throw new FieldAnnotatedWithHBColumnMultiVersionCantBeEmpty();
                 }
-                Map<byte[], NavigableMap<Long, byte[]>> columns = map.get(family);
-                numOfFieldsToWrite++;
-                columns.put(columnName, fieldValueVersions);
+                numOfFieldsWritten++;
+                for (NavigableMap.Entry<Long, Object> e : fieldValueVersions.descendingMap().entrySet()) {
+                    Object fieldValue = e.getValue();
+                    if (fieldValue == null)
+                        continue;
+                    sink.add(column.family(), column.column(), e.getKey(), valueToByteArray(column, fieldValue));
+                }
+            } else {
+                PrimitiveFieldCodec primitiveCodec = column.primitiveCodec();
+                byte[] fieldValueBytes = primitiveCodec != null ? primitiveCodec.toBytes(obj) : valueToByteArray(column, column.get(obj));
+                if (fieldValueBytes == null || fieldValueBytes.length == 0)
+                    continue;
+                numOfFieldsWritten++;
+                sink.add(column.family(), column.column(), HConstants.LATEST_TIMESTAMP, fieldValueBytes);
             }
         }
-        if (numOfFieldsToWrite == 0) {
+        if (numOfFieldsWritten == 0) {
             throw new AllHBColumnFieldsNullException();
         }
-        return map;
-    }
-
-    private byte[] getFieldValueAsBytes(HBRecord obj, Field field, boolean serializeAsString) {
-        Object fieldValue;
-        try {
-            field.setAccessible(true);
-            fieldValue = field.get(obj);
-        } catch (IllegalAccessException e) {
-            throw new BadHBaseLibStateException(e);
-        }
-        return valueToByteArray(field.getType(), fieldValue, serializeAsString);
-    }
-
-    private NavigableMap<Long, byte[]> getFieldValuesVersioned(Field field, HBRecord obj, boolean serializeAsString) {
-        ParameterizedType fieldNavigableMapType = ((ParameterizedType) field.getGenericType());
-        Class<?> fieldType = jsonObjMapper.constructType(fieldNavigableMapType).getContentType().getRawClass();
-        try {
-            field.setAccessible(true);
-            @SuppressWarnings("unchecked")
-            NavigableMap<Long, Object> fieldValueVersions = (NavigableMap<Long, Object>) field.get(obj);
-            if (fieldValueVersions == null)
-                return null;
-            if (fieldValueVersions.size() == 0) {
-                throw new FieldAnnotatedWithHBColumnMultiVersionCantBeEmpty();
-            }
-            NavigableMap<Long, byte[]> output = new TreeMap<Long, byte[]>();
-            for (NavigableMap.Entry<Long, Object> e : fieldValueVersions.entrySet()) {
-                Long timestamp = e.getKey();
-                Object fieldValue = e.getValue();
-                if (fieldValue == null)
-                    continue;
-                byte[] fieldValueBytes = valueToByteArray(fieldType, fieldValue, serializeAsString);
-                output.put(timestamp, fieldValueBytes);
-            }
-            return output;
-        } catch (IllegalAccessException e) {
-            throw new BadHBaseLibStateException(e);
-        }
     }
 
     /**
@@ -327,19 +277,16 @@ public class HBObjectMapper {
      * @return HBase's {@link Put} object
      */
     public Put writeValueAsPut(HBRecord obj) {
-        Put put = new Put(composeRowKey(obj));
-        for (NavigableMap.Entry<byte[], NavigableMap<byte[], NavigableMap<Long, byte[]>>> fe : objToMap(obj).entrySet()) {
-            byte[] family = fe.getKey();
-            for (Map.Entry<byte[], NavigableMap<Long, byte[]>> e : fe.getValue().entrySet()) {
-                byte[] columnName = e.getKey();
-                NavigableMap<Long, byte[]> columnValuesVersioned = e.getValue();
-                if (columnValuesVersioned == null)
-                    continue;
-                for (Map.Entry<Long, byte[]> versionAndValue : columnValuesVersioned.entrySet()) {
-                    put.add(family, columnName, versionAndValue.getKey(), versionAndValue.getValue());
-                }
+        HBRecordCodec<HBRecord> codec = getGeneratedCodec(obj);
+        if (codec != null)
+            return codec.toPut(obj);
+        final Put put = new Put(composeRowKey(obj));
+        writeCells(obj, new CellSink() {
+            @Override
+            public void add(byte[] family, byte[] column, long timestamp, byte[] value) {
+                put.add(family, column, timestamp, value);
             }
-        }
+        });
         return put;
     }
 
@@ -365,20 +312,17 @@ public class HBObjectMapper {
      * @return HBase's {@link Result} object
      */
     public Result writeValueAsResult(HBRecord obj) throws HBRowKeyFieldCantBeNullException {
-        byte[] row = composeRowKey(obj);
-        List<KeyValue> keyValueList = new ArrayList<KeyValue>();
-        for (NavigableMap.Entry<byte[], NavigableMap<byte[], NavigableMap<Long, byte[]>>> fe : objToMap(obj).entrySet()) {
-            byte[] family = fe.getKey();
-            for (Map.Entry<byte[], NavigableMap<Long, byte[]>> e : fe.getValue().entrySet()) {
-                byte[] columnName = e.getKey();
-                NavigableMap<Long, byte[]> valuesVersioned = e.getValue();
-                if (valuesVersioned == null)
-                    continue;
-                for (Map.Entry<Long, byte[]> columnVersion : valuesVersioned.entrySet()) {
-                    keyValueList.add(new KeyValue(row, family, columnName, columnVersion.getKey(), columnVersion.getValue()));
-                }
+        HBRecordCodec<HBRecord> codec = getGeneratedCodec(obj);
+        if (codec != null)
+            return codec.toResult(obj);
+        final byte[] row = composeRowKey(obj);
+        final List<KeyValue> keyValueList = new ArrayList<KeyValue>(getClassMapping(obj.getClass()).getColumns().size());
+        writeCells(obj, new CellSink() {
+            @Override
+            public void add(byte[] family, byte[] column, long timestamp, byte[] value) {
+                keyValueList.add(new KeyValue(row, family, column, timestamp, value));
             }
-        }
+        });
         return new Result(keyValueList);
     }
 
@@ -438,44 +382,83 @@ public class HBObjectMapper {
             return readValueFromRowAndResult(Bytes.toBytes(rowKey), result, clazz);
     }
 
+    /**
+     * Wraps HBase's {@link Result} object, such that fields are decoded only when they're accessed (see {@link LazyRecord}). For use in mapper jobs that need only a few fields of wide rows
+     *
+     * @param rowKey Row key of the record that corresponds to {@link Result}. If this is <code>null</code>, an attempt will be made to resolve it from {@link Result}
+     * @param result HBase's {@link Result} object
+     * @param clazz  {@link Class} to which you want to convert to (must extend {@link HBRecord} class)
+     * @return Lazily decoded record, <code>null</code> if {@link Result} is empty
+     */
+    public <T extends HBRecord> LazyRecord<T> readValueLazily(ImmutableBytesWritable rowKey, Result result, Class<T> clazz) {
+        if (isResultEmpty(result)) return null;
+        return new LazyRecord<T>(this, getClassMapping(clazz), rowKey == null ? result.getRow() : rowKey.get(), result.raw());
+    }
+
+    /**
+     * Wraps HBase's {@link Result} object, such that fields are decoded only when they're accessed (see {@link LazyRecord})
+     *
+     * @param result HBase's {@link Result} object
+     * @param clazz  {@link Class} to which you want to convert to (must extend {@link HBRecord} class)
+     * @return Lazily decoded record, <code>null</code> if {@link Result} is empty
+     */
+    public <T extends HBRecord> LazyRecord<T> readValueLazily(Result result, Class<T> clazz) {
+        return readValueLazily(null, result, clazz);
+    }
+
     private boolean isResultEmpty(Result result) {
         return result == null || result.isEmpty() || result.getRow() == null || result.getRow().length == 0;
     }
 
     private <T extends HBRecord> T readValueFromResult(Result result, Class<T> clazz) {
         if (isResultEmpty(result)) return null;
-        return mapToObj(new RowKey(result.getRow()), result.getMap(), clazz);
+        return resultToObj(result.getRow(), result, clazz);
     }
 
     private <T extends HBRecord> T readValueFromRowAndResult(byte[] rowKey, Result result, Class<T> clazz) {
         if (isResultEmpty(result)) return null;
-        return mapToObj(new RowKey(rowKey), result.getMap(), clazz);
+        return resultToObj(rowKey, result, clazz);
+    }
+
+    private <T extends HBRecord> T resultToObj(byte[] rowKey, Result result, Class<T> clazz) {
+        HBRecordCodec<T> codec = getClassMapping(clazz).getGeneratedCodec();
+        if (codec != null)
+            return codec.fromResult(rowKey, result);
+        return cellsToObj(new RowKey(rowKey), result.raw(), clazz);
     }
 
-    private void objectSetFieldValue(Object obj, Field field, NavigableMap<Long, byte[]> columnValuesVersioned, boolean serializeAsString) {
-        if (columnValuesVersioned == null)
-            return;
+    private Object decodeFieldValue(Object obj, FieldMapping column, KeyValue cell) {
+        return decodeCell(obj.getClass(), column, cell);
+    }
+
+    /**
+     * Decode value of a cell (reading straight from the cell's backing array)
+     *
+     * @param clazz Class of the object the value is meant for (for error messages)
+     */
+    Object decodeCell(Class<?> clazz, FieldMapping column, KeyValue cell) {
         try {
-            field.setAccessible(true);
-            NavigableMap<Long, Object> columnValuesVersionedBoxed = new TreeMap<Long, Object>();
-            Class<?> fieldType = jsonObjMapper.constructType(field.getGenericType()).getContentType().getRawClass();
-            for (NavigableMap.Entry<Long, byte[]> versionAndValue : columnValuesVersioned.entrySet()) {
-                columnValuesVersionedBoxed.put(versionAndValue.getKey(), byteArrayToValue(versionAndValue.getValue(), fieldType, serializeAsString));
-            }
-            field.set(obj, columnValuesVersionedBoxed);
+            return byteArrayToValue(cell.getBuffer(), cell.getValueOffset(), cell.getValueLength(), column);
+        } catch (Exception ex) {
+            throw new ConversionFailedException("Could not set value on field \"" + column.name() + "\" on instance of class " + clazz, ex);
+        }
+    }
+
+    private void decodePrimitiveFieldValue(Object obj, FieldMapping column, KeyValue cell) {
+        try {
+            column.primitiveCodec().setFromBytes(obj, cell.getBuffer(), cell.getValueOffset(), cell.getValueLength());
+        } catch (ConversionFailedException ex) {
+            throw ex;
         } catch (Exception ex) {
-            throw new ConversionFailedException("Could not set value on field \"" + field.getName() + "\" on instance of class " + obj.getClass(), ex);
+            throw new ConversionFailedException("Could not set value on field \"" + column.name() + "\" on instance of class " + obj.getClass(), ex);
         }
     }
 
-    private void objectSetFieldValue(Object obj, Field field, byte[] value, boolean serializeAsString) {
-        if (value == null || value.length == 0)
-            return;
+    private void objectSetFieldValue(Object obj, FieldMapping column, Object value) {
         try {
-            field.setAccessible(true);
-            field.set(obj, byteArrayToValue(value, field.getType(), serializeAsString));
+            column.set(obj, value);
         } catch (Exception ex) {
-            throw new ConversionFailedException("Could not set value on field \"" + field.getName() + "\" on instance of class " + obj.getClass(), ex);
+            throw new ConversionFailedException("Could not set value on field \"" + column.name() + "\" on instance of class " + obj.getClass(), ex);
         }
     }
 
@@ -483,40 +466,19 @@ public class HBObjectMapper {
     /**
      * Convert a byte array representing HBase column data to appropriate data type (boxed as object)
      */
-    Object byteArrayToValue(byte[] value, Class<?> fieldClazz, boolean serializeAsString) {
-        if (value == null || value.length == 0)
+    Object byteArrayToValue(byte[] value, FieldMapping column) {
+        if (value == null)
             return null;
-        Object fieldValue;
-        try {
-            if (fromBytesMethods.containsKey(fieldClazz.getName())) {
-                if (serializeAsString) {
-                    Constructor constructor = constructors.get(fieldClazz.getName());
-                    try {
-                        fieldValue = constructor.newInstance(Bytes.toString(value));
-                    } catch (Exception ex) {
-                        fieldValue = null;
-                    }
-                } else {
-                    Method method = fromBytesMethods.get(fieldClazz.getName());
-                    fieldValue = method.invoke(null, new Object[]{value});
-                }
-            } else {
-                try {
-                    JavaType fieldType = jsonObjMapper.constructType(fieldClazz);
-                    if (serializeAsString)
-                        return jsonObjMapper.readValue(Bytes.toString(value), fieldType);
-                    else
-                        return jsonObjMapper.readValue(value, fieldType);
-                } catch (IOException e) {
-                    throw new CouldNotDeserializeException(e);
-                }
-            }
-            return fieldValue;
-        } catch (IllegalAccessException e) {
-            throw new BadHBaseLibStateException(e);
-        } catch (InvocationTargetException e) {
-            throw new BadHBaseLibStateException(e);
-        }
+        return byteArrayToValue(value, 0, value.length, column);
+    }
+
+    /**
+     * Convert a range of byte array representing HBase column data (e.g. value of a cell, in the cell's backing array) to appropriate data type (boxed as object)
+     */
+    private Object byteArrayToValue(byte[] bytes, int offset, int length, FieldMapping column) {
+        if (length == 0)
+            return null;
+        return column.codec().fromBytes(bytes, offset, length);
     }
 
     /**
@@ -551,23 +513,17 @@ public class HBObjectMapper {
     }
 
     private <T extends HBRecord> T readValueFromRowAndPut(RowKey rowKey, Put put, Class<T> clazz) {
-        Map<byte[], List<KeyValue>> rawMap = put.getFamilyMap();
-        NavigableMap<byte[], NavigableMap<byte[], NavigableMap<Long, byte[]>>> map = new TreeMap<byte[], NavigableMap<byte[], NavigableMap<Long, byte[]>>>(Bytes.BYTES_COMPARATOR);
-        for (Map.Entry<byte[], List<KeyValue>> familyNameAndColumnValues : rawMap.entrySet()) {
-            byte[] family = familyNameAndColumnValues.getKey();
-            if (!map.containsKey(family)) {
-                map.put(family, new TreeMap<byte[], NavigableMap<Long, byte[]>>(Bytes.BYTES_COMPARATOR));
-            }
-            List<KeyValue> kvList = familyNameAndColumnValues.getValue();
-            for (KeyValue kv : kvList) {
-                byte[] column = kv.getQualifier();
-                if (!map.get(family).containsKey(column)) {
-                    map.get(family).put(column, new TreeMap<Long, byte[]>());
-                }
-                map.get(family).get(column).put(kv.getTimestamp(), kv.getValue());
+        KeyValue[] cells = new KeyValue[put.size()];
+        int numOfCells = 0;
+        for (List<KeyValue> familyCells : put.getFamilyMap().values()) {
+            for (KeyValue cell : familyCells) {
+                cells[numOfCells++] = cell;
             }
         }
-        return mapToObj(rowKey, map, clazz);
+        HBRecordCodec<T> codec = getClassMapping(clazz).getGeneratedCodec();
+        if (codec != null)
+            return codec.fromResult(rowKey.bytes(), AbstractHBRecordCodec.toResult(new ArrayList<KeyValue>(Arrays.asList(cells))));
+        return cellsToObj(rowKey, cells, clazz);
     }
 
     private <T extends HBRecord> T readValueFromPut(Put put, Class<T> clazz) {
@@ -606,7 +562,7 @@ public class HBObjectMapper {
         return new ImmutableBytesWritable(composeRowKey(obj));
     }
 
-    private static byte[] composeRowKey(HBRecord obj) throws RowKeyCantBeComposedException, RowKeyCantBeEmptyException, HBRowKeyFieldCantBeNullException {
+    static byte[] composeRowKey(HBRecord obj) throws RowKeyCantBeComposedException, RowKeyCantBeEmptyException, HBRowKeyFieldCantBeNullException {
         byte[] rowKey;
 
         try{
@@ -635,14 +591,7 @@ public class HBObjectMapper {
      * @return Return set of column families used in input class
      */
     public <T extends HBRecord> Set<String> getColumnFamilies(Class<T> clazz) {
-        validateHBClass(clazz);
-        Set<String> columnFamilySet = new HashSet<String>();
-        for (Field field : clazz.getDeclaredFields()) {
-            WrappedHBColumn hbColumn = new WrappedHBColumn(field);
-            if (hbColumn.isPresent())
-                columnFamilySet.add(hbColumn.family());
-        }
-        return columnFamilySet;
+        return getClassMapping(clazz).getColumnFamilies();
     }
 
     /**
@@ -674,7 +623,7 @@ public class HBObjectMapper {
      */
     public <T extends HBRecord> boolean isValid(Class<T> clazz) {
         try {
-            validateHBClass(clazz);
+            getClassMapping(clazz);
             return true;
         } catch (Exception ex) {
             return false;
@@ -687,12 +636,131 @@ public class HBObjectMapper {
      * @param clazz Bean-like {@link Class} (must extend {@link HBRecord} class) whose fields you intend to read
      */
     public <T extends HBRecord> Map<String, Field> getHBFields(Class<T> clazz) {
-        validateHBClass(clazz);
-        Map<String, Field> mappings = new HashMap<String, Field>();
+        return getClassMapping(clazz).getFields();
+    }
+
+    /**
+     * Get (validated) mapping of your bean-like class to HBase columns. Mapping is built on first use and cached for subsequent calls
+     *
+     * @param clazz Bean-like {@link Class} (must extend {@link HBRecord} class)
+     */
+    @SuppressWarnings("unchecked")
+    <T extends HBRecord> ClassMapping<T> getClassMapping(Class<T> clazz) {
+        ClassMapping<T> classMapping = (ClassMapping<T>) classMappings.get(clazz);
+        if (classMapping == null) {
+            classMapping = buildClassMapping(clazz);
+            ClassMapping<T> existingClassMapping = (ClassMapping<T>) classMappings.putIfAbsent(clazz, classMapping);
+            if (existingClassMapping != null)
+                classMapping = existingClassMapping;
+        }
+        return classMapping;
+    }
+
+    @SuppressWarnings("unchecked")
+    private HBRecordCodec<HBRecord> getGeneratedCodec(HBRecord obj) {
+        return (HBRecordCodec<HBRecord>) getClassMapping(obj.getClass()).getGeneratedCodec();
+    }
+
+    private <T extends HBRecord> ClassMapping<T> buildClassMapping(Class<T> clazz) {
+        HBRecordCodec<T> generatedCodec = findGeneratedCodec(clazz);
+        if (generatedCodec != null && hasFieldsOfRegisteredTypes(clazz)) // generated code doesn't know of codecs registered with this object
+            generatedCodec = null;
+        if (generatedCodec != null && !generatedCodec.getMappingFingerprint().equals(MappingFingerprint.of(clazz))) // class changed since codec was generated
+            generatedCodec = null;
+        if (generatedCodec == null)
+            validateHBClass(clazz); // else, class was validated when it's codec was generated
+        List<Field> rowKeyFields = new ArrayList<Field>();
+        List<FieldMapping> columns = new ArrayList<FieldMapping>();
         for (Field field : clazz.getDeclaredFields()) {
-            if (new WrappedHBColumn(field).isPresent())
-                mappings.put(field.getName(), field);
+            if (field.isAnnotationPresent(HBRowKey.class)) {
+                rowKeyFields.add(field);
+            }
+            WrappedHBColumn hbColumn = new WrappedHBColumn(field);
+            if (!hbColumn.isPresent())
+                continue;
+            if (generatedCodec != null)
+                validateDeserializable(field, hbColumn);
+            JavaType valueType = valueTypeOf(field, hbColumn);
+            PrimitiveFieldCodec primitiveCodec = field.getType().isPrimitive() && !hasCodec(hbColumn, valueType) ? PrimitiveFieldCodec.forField(field, hbColumn.serializeAsString()) : null;
+            columns.add(new FieldMapping(field, hbColumn, valueType.getRawClass(), valueType, resolveCodec(field, hbColumn, valueType), primitiveCodec));
+        }
+        return new ClassMapping<T>(clazz, rowKeyFields, columns, generatedCodec);
+    }
+
+    /**
+     * Resolves codec for values of a field: 8-byte longs for counters and versions, else codec specified on the field, else codec registered for the type, else a codec for types HBase natively converts, else one for the format specified on the field
+     */
+    @SuppressWarnings("unchecked")
+    private HBCodec<Object> resolveCodec(Field field, WrappedHBColumn hbColumn, JavaType valueType) {
+        if (hbColumn.isStoredAsLong()) // stored the way HBase's increments expect
+            return (HBCodec<Object>) (HBCodec<?>) Codecs.LONG;
+        Class<? extends HBCodec<?>> codecClass = hbColumn.codec();
+        if (codecClass != null) {
+            try {
+                return (HBCodec<Object>) codecClass.getConstructor().newInstance();
+            } catch (Exception ex) {
+                throw new InvalidCodecException(String.format("Codec %s specified on field %s could not be instantiated (codecs need a public empty constructor)", codecClass.getName(), field), ex);
+            }
+        }
+        Class<?> valueClass = valueType.getRawClass();
+        HBCodec<?> codec = codecs.get(valueClass);
+        if (codec == null)
+            codec = Codecs.forNativeType(valueClass, hbColumn.serializeAsString());
+        if (codec == null)
+            codec = new JacksonCodec(hbColumn.format(), valueType);
+        return (HBCodec<Object>) codec;
+    }
+
+    private boolean hasCodec(WrappedHBColumn hbColumn, JavaType valueType) {
+        if (hbColumn.isStoredAsLong())
+            return false;
+        return hbColumn.codec() != null || (valueType != null && codecs.containsKey(valueType.getRawClass()));
+    }
+
+    private boolean hasFieldsOfRegisteredTypes(Class<?> clazz) {
+        if (codecs.isEmpty())
+            return false;
+        for (Field field : clazz.getDeclaredFields()) {
+            WrappedHBColumn hbColumn = new WrappedHBColumn(field);
+            if (!hbColumn.isPresent() || hbColumn.isStoredAsLong())
+                continue;
+            if (codecs.containsKey(valueTypeOf(field, hbColumn).getRawClass()))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return Type of field (or, for multi-versioned fields, type of values in the map), with primitives boxed
+     */
+    private static JavaType valueTypeOf(Field field, WrappedHBColumn hbColumn) {
+        if (field.getType().isPrimitive())
+            return jsonObjMapper.constructType(nativeCounterParts.inverse().get(field.getType()));
+        JavaType valueType = jsonObjMapper.constructType(field.getGenericType());
+        return hbColumn.isMultiVersioned() ? valueType.getContentType() : valueType;
+    }
+
+    /**
+     * Finds codec generated (at compile time) for your bean-like class
+     *
+     * @return Instance of the codec, <code>null</code> if no codec was generated
+     */
+    @SuppressWarnings("unchecked")
+    private static <T extends HBRecord> HBRecordCodec<T> findGeneratedCodec(Class<T> clazz) {
+        if (clazz.getEnclosingClass() != null || clazz.getClassLoader() == null)
+            return null;
+        Class<?> codecClass;
+        try {
+            codecClass = Class.forName(clazz.getName() + HBRecordCodec.CLASS_NAME_SUFFIX, true, clazz.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+        if (!HBRecordCodec.class.isAssignableFrom(codecClass))
+            return null;
+        try {
+            return (HBRecordCodec<T>) codecClass.getConstructor().newInstance();
+        } catch (Exception ex) {
+            throw new ObjectNotInstantiatableException("Error while instantiating codec " + codecClass.getName(), ex);
         }
-        return mappings;
     }
 }
\ No newline at end of file
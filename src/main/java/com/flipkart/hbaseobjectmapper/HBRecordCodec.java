@@ -0,0 +1,43 @@
+package com.flipkart.hbaseobjectmapper;
+
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+
+/**
+ * Converts objects of one entity class to HBase's {@link Put} and {@link Result} objects (and vice-versa) without reflection.
+ * <br><br>
+ * Implementations are generated at compile time by <code>hbase-object-mapper-processor</code>, as a class named <code>&lt;EntityClassName&gt;HBCodec</code> in the entity's package.
+ * {@link HBObjectMapper} uses such a class, when one exists, in place of it's reflection-based conversions
+ *
+ * @param <T> Entity type
+ */
+public interface HBRecordCodec<T extends HBRecord> {
+
+    /**
+     * Suffix to entity class name, that forms name of it's codec
+     */
+    String CLASS_NAME_SUFFIX = "HBCodec";
+
+    /**
+     * Fingerprint of mapping of the entity class, as it was when this codec was generated. {@link HBObjectMapper} uses this codec only if the class still has the same fingerprint (i.e. the codec isn't stale), and then skips validations that were made when the codec was generated
+     */
+    String getMappingFingerprint();
+
+    /**
+     * Converts a bean-like object to HBase's {@link Put} object
+     */
+    Put toPut(T record);
+
+    /**
+     * Converts a bean-like object to HBase's {@link Result} object
+     */
+    Result toResult(T record);
+
+    /**
+     * Converts HBase's {@link Result} object to a bean-like object
+     *
+     * @param rowKey Row key of the record
+     * @param result HBase's {@link Result} object (must not be empty)
+     */
+    T fromResult(byte[] rowKey, Result result);
+}
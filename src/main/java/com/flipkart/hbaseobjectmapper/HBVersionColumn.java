@@ -0,0 +1,26 @@
+package com.flipkart.hbaseobjectmapper;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Maps an entity field of type <code>Long</code> (or <code>long</code>) to an HBase column that holds the version of the row, for optimistic concurrency: {@link AbstractHBDAO#persistIfUnchanged(HBRecord)} writes an object only if the row's version is still the one the object was read with, and bumps it in the same atomic operation.
+ * <br><br>
+ * Value is stored as an 8-byte long (so, codecs registered for <code>Long</code> don't apply to such fields). A class can have at most one such field.
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface HBVersionColumn {
+
+    /**
+     * Name of HBase column family
+     */
+    String family();
+
+    /**
+     * Name of HBase column
+     */
+    String column();
+}
@@ -0,0 +1,219 @@
+package com.flipkart.hbaseobjectmapper;
+
+import org.apache.hadoop.hbase.client.HTableInterface;
+import org.apache.hadoop.hbase.client.Increment;
+import org.apache.hadoop.hbase.client.Result;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Increments counters (fields annotated with {@link HBCounter}) in the background, combining increments of the same counter: deltas are summed in memory and sent to HBase periodically, as one batch of {@link Increment}s (one per row). So, a counter that's incremented a thousand times in an interval costs one increment on the region server, instead of a thousand.
+ * <br><br>
+ * Increments that fail are retried with the next flush. Note that HBase's increments aren't idempotent: an increment whose outcome is unknown (e.g. it timed out) may end up being applied twice.
+ * <br><br>
+ * Obtain instances from {@link AbstractHBDAO#newIncrementCombiner(long, TimeUnit)}. Instances are thread-safe, and must be closed when no longer needed.
+ *
+ * @param <T> Entity type
+ */
+public final class IncrementCombiner<T extends HBRecord> implements Closeable {
+    private final AbstractHBDAO<T> dao;
+    private final ScheduledExecutorService flusher;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock(); // increments share it, while flush swaps pending deltas under it exclusively
+    private ConcurrentMap<Counter, LongAdder> deltas = new ConcurrentHashMap<Counter, LongAdder>(); // guarded by lock
+    private boolean closed; // guarded by lock
+
+    IncrementCombiner(AbstractHBDAO<T> dao, long flushInterval, TimeUnit unit) {
+        if (flushInterval <= 0)
+            throw new IllegalArgumentException("Flush interval should be a positive duration (got " + flushInterval + " " + unit + ")");
+        this.dao = dao;
+        final String threadName = "IncrementCombiner-" + dao.getTableName();
+        this.flusher = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, threadName);
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        this.flusher.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    flush();
+                } catch (IOException | RuntimeException ignored) {
+                    // failed increments are retried with next flush
+                }
+            }
+        }, flushInterval, flushInterval, unit);
+    }
+
+    /**
+     * Add to a counter (the delta is sent to HBase with the next flush, summed with other deltas of the same counter)
+     *
+     * @param rowKey    Row key
+     * @param fieldName Name of the field, annotated with {@link HBCounter}
+     * @param delta     Amount to add (may be negative)
+     * @throws IllegalStateException When this combiner is closed
+     */
+    public void increment(byte[] rowKey, String fieldName, long delta) {
+        Counter counter = new Counter(new RowKey(rowKey), dao.getCounter(fieldName));
+        lock.readLock().lock();
+        try {
+            if (closed)
+                throw new IllegalStateException("Increment combiner is closed");
+            add(deltas, counter, delta);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void add(ConcurrentMap<Counter, LongAdder> deltas, Counter counter, long delta) {
+        LongAdder sum = deltas.get(counter);
+        if (sum == null) {
+            LongAdder newSum = new LongAdder();
+            sum = deltas.putIfAbsent(counter, newSum);
+            if (sum == null)
+                sum = newSum;
+        }
+        sum.add(delta);
+    }
+
+    /**
+     * Send deltas added so far to HBase, and wait for them to be applied
+     *
+     * @throws IOException When some of the increments fail (they're retried with the next flush)
+     */
+    public synchronized void flush() throws IOException {
+        ConcurrentMap<Counter, LongAdder> deltas;
+        lock.writeLock().lock();
+        try {
+            deltas = this.deltas;
+            if (deltas.isEmpty())
+                return;
+            this.deltas = new ConcurrentHashMap<Counter, LongAdder>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Map<RowKey, Increment> incrementsByRow = new LinkedHashMap<RowKey, Increment>();
+        for (Map.Entry<Counter, LongAdder> delta : deltas.entrySet()) {
+            long sum = delta.getValue().sum();
+            if (sum == 0)
+                continue;
+            Counter counter = delta.getKey();
+            Increment increment = incrementsByRow.get(counter.rowKey);
+            if (increment == null)
+                incrementsByRow.put(counter.rowKey, increment = new Increment(counter.rowKey.bytes()));
+            increment.addColumn(counter.column.family(), counter.column.column(), sum);
+        }
+        if (incrementsByRow.isEmpty())
+            return;
+        List<Increment> increments = new ArrayList<Increment>(incrementsByRow.values());
+        Object[] results = new Object[increments.size()];
+        Throwable failure = null;
+        HTableInterface table = dao.checkoutTable();
+        try {
+            table.batch(increments, results);
+        } catch (IOException e) {
+            failure = e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure = e;
+        } finally {
+            table.close();
+            dao.invalidateCached(increments);
+        }
+        Set<RowKey> failedRows = new HashSet<RowKey>();
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] instanceof Result)
+                continue;
+            if (failure == null && results[i] instanceof Throwable)
+                failure = (Throwable) results[i];
+            failedRows.add(new RowKey(increments.get(i).getRow()));
+        }
+        if (failedRows.isEmpty())
+            return;
+        retry(deltas, failedRows);
+        throw new IOException(String.format("%d of %d increment(s) on HBase table %s failed (they'll be retried with next flush)", failedRows.size(), increments.size(), dao.getTableName()), failure);
+    }
+
+    /**
+     * Put deltas of rows whose increments failed back, to be sent with the next flush
+     */
+    private void retry(Map<Counter, LongAdder> flushedDeltas, Set<RowKey> failedRows) {
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<Counter, LongAdder> delta : flushedDeltas.entrySet()) {
+                if (failedRows.contains(delta.getKey().rowKey))
+                    add(deltas, delta.getKey(), delta.getValue().sum());
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Stop flushing in the background and flush deltas added so far (see {@link #flush()}). Calling this more than once has no effect
+     *
+     * @throws IOException When some of the increments fail (these are lost, since there's no next flush)
+     */
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (closed)
+                return;
+            closed = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    /**
+     * A counter: a column of a row
+     */
+    private static class Counter {
+        private final RowKey rowKey;
+        private final FieldMapping column;
+
+        Counter(RowKey rowKey, FieldMapping column) {
+            this.rowKey = rowKey;
+            this.column = column;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Counter))
+                return false;
+            Counter that = (Counter) o;
+            return column == that.column && rowKey.equals(that.rowKey);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * rowKey.hashCode() + column.hashCode();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.flipkart.hbaseobjectmapper;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.flipkart.hbaseobjectmapper.codec.Format;
+import com.flipkart.hbaseobjectmapper.codec.HBCodec;
+import com.flipkart.hbaseobjectmapper.exceptions.ConversionFailedException;
+import com.flipkart.hbaseobjectmapper.exceptions.CouldNotDeserializeException;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Codec for types that HBase doesn't natively convert: values are stored in a Jackson-supported format (see {@link Format}), using a reader and writer resolved once for the type
+ */
+final class JacksonCodec implements HBCodec<Object> {
+    private static final Map<Format, ObjectMapper> objMappers = new EnumMap<Format, ObjectMapper>(Format.class) {
+        {
+            put(Format.JSON, new ObjectMapper());
+            put(Format.SMILE, new ObjectMapper(new SmileFactory()));
+            put(Format.CBOR, new ObjectMapper(new CBORFactory()));
+        }
+    };
+
+    private final JavaType valueType;
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+
+    JacksonCodec(Format format, JavaType valueType) {
+        ObjectMapper objMapper = objMappers.get(format);
+        this.valueType = valueType;
+        this.reader = objMapper.reader(valueType);
+        this.writer = objMapper.writerWithType(valueType);
+    }
+
+    @Override
+    public byte[] toBytes(Object value) {
+        try {
+            return writer.writeValueAsBytes(value);
+        } catch (JsonProcessingException jpx) {
+            throw new ConversionFailedException(String.format("Don't know how to convert field of type %s to byte array", valueType.getRawClass().getName()), jpx);
+        }
+    }
+
+    @Override
+    public Object fromBytes(byte[] bytes, int offset, int length) {
+        try {
+            return reader.readValue(bytes, offset, length);
+        } catch (IOException e) {
+            throw new CouldNotDeserializeException(e);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.flipkart.hbaseobjectmapper;
+
+import org.apache.hadoop.hbase.KeyValue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * A row read from HBase, whose fields are decoded only when they're first accessed. Until then, this holds references to the row's cells (their bytes aren't copied).
+ * <br><br>
+ * This is useful when you read wide rows, but need only a few of their fields (e.g. to filter rows in a scan). Obtain instances from {@link HBObjectMapper#readValueLazily(org.apache.hadoop.hbase.client.Result, Class)} or from <code>getLazily</code> methods of {@link AbstractHBDAO}.
+ * <br><br>
+ * <b>Note</b>: Instances are not thread-safe
+ *
+ * @param <T> Entity type
+ */
+public final class LazyRecord<T extends HBRecord> {
+    private final HBObjectMapper hbObjectMapper;
+    private final ClassMapping<T> classMapping;
+    private final byte[] rowKey;
+    private final KeyValue[] cells;
+    private final FieldMapping[] columns;
+    private KeyValue[] latestCells;
+    private List<List<KeyValue>> versionCells; // cells of each multi-versioned column (null for other columns and those without cells)
+    private final Object[] values;
+    private final boolean[] decoded;
+    private T record;
+
+    LazyRecord(HBObjectMapper hbObjectMapper, ClassMapping<T> classMapping, byte[] rowKey, KeyValue[] cells) {
+        this.hbObjectMapper = hbObjectMapper;
+        this.classMapping = classMapping;
+        this.rowKey = rowKey;
+        this.cells = cells;
+        this.columns = classMapping.getColumnsInCellOrder();
+        this.values = new Object[columns.length];
+        this.decoded = new boolean[columns.length];
+    }
+
+    /**
+     * Get row key
+     */
+    public byte[] getRowKey() {
+        return rowKey;
+    }
+
+    /**
+     * Get value of a field, decoding it if it hasn't been accessed yet (other fields are not decoded)
+     *
+     * @param fieldName Name of the private variable of your bean-like object (of a class that implements {@link HBRecord})
+     * @return Value of the field (boxed, for primitive fields), <code>null</code> if it's column is absent in the row. For a field annotated with {@link HBColumnMultiVersion}, this is a {@link NavigableMap} of timestamp to value
+     */
+    public Object get(String fieldName) {
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i].name().equals(fieldName))
+                return get(i);
+        }
+        throw new IllegalArgumentException(String.format("Unrecognized field: '%s'. Choose one of %s", fieldName, classMapping.getFields().keySet()));
+    }
+
+    /**
+     * Get the row as your bean-like object, decoding fields that haven't been accessed yet. The object is built once and returned on subsequent calls
+     */
+    public T getRecord() {
+        if (record == null) {
+            T obj = classMapping.newInstance();
+            AbstractHBRecordCodec.parseRowKey(obj, rowKey);
+            for (int i = 0; i < columns.length; i++) {
+                Object value = get(i);
+                if (value != null) // absent value leaves field untouched (relevant for primitive fields)
+                    columns[i].set(obj, value);
+            }
+            record = obj;
+        }
+        return record;
+    }
+
+    private Object get(int i) {
+        if (!decoded[i]) {
+            values[i] = decode(i);
+            decoded[i] = true;
+        }
+        return values[i];
+    }
+
+    private Object decode(int i) {
+        if (latestCells == null)
+            groupCells();
+        FieldMapping column = columns[i];
+        if (column.isMultiVersioned()) {
+            if (versionCells.get(i) == null)
+                return null;
+            NavigableMap<Long, Object> versions = new TreeMap<Long, Object>();
+            for (KeyValue cell : versionCells.get(i)) {
+                versions.put(cell.getTimestamp(), hbObjectMapper.decodeCell(classMapping.getMappedClass(), column, cell));
+            }
+            return versions;
+        }
+        if (latestCells[i] == null || latestCells[i].getValueLength() == 0)
+            return null;
+        return hbObjectMapper.decodeCell(classMapping.getMappedClass(), column, latestCells[i]);
+    }
+
+    /**
+     * Finds cells of each column, in a single pass over the cells (without decoding them)
+     */
+    private void groupCells() {
+        KeyValue[] latestCells = new KeyValue[columns.length];
+        List<List<KeyValue>> versionCells = new ArrayList<List<KeyValue>>(Collections.<List<KeyValue>>nCopies(columns.length, null));
+        int hint = 0;
+        for (KeyValue cell : cells) {
+            int i = HBObjectMapper.findColumn(columns, cell, hint);
+            if (i < 0)
+                continue;
+            hint = i;
+            if (columns[i].isMultiVersioned()) {
+                if (versionCells.get(i) == null)
+                    versionCells.set(i, new ArrayList<KeyValue>());
+                versionCells.get(i).add(cell);
+            } else if (latestCells[i] == null || cell.getTimestamp() >= latestCells[i].getTimestamp()) {
+                latestCells[i] = cell;
+            }
+        }
+        this.versionCells = versionCells;
+        this.latestCells = latestCells;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("LazyRecord(%s, %d cells)", classMapping.getMappedClass().getSimpleName(), cells.length);
+    }
+}
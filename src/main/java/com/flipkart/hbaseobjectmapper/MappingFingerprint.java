@@ -0,0 +1,138 @@
+package com.flipkart.hbaseobjectmapper;
+
+import com.flipkart.hbaseobjectmapper.codec.HBCodec;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.*;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Computes fingerprint of mapping of a bean-like class (see {@link HBRecordCodec#getMappingFingerprint()}): a hash over the empty constructor of the class and it's annotated fields (their names, modifiers, types and annotations).
+ * <br><br>
+ * <b>Note</b>: <code>hbase-object-mapper-processor</code> computes the same fingerprint from source of the class, at compile time. Any change here must be made there too.
+ */
+final class MappingFingerprint {
+    private static final List<Class<? extends Annotation>> ANNOTATIONS = Arrays.asList(HBRowKey.class, HBColumn.class, HBColumnMultiVersion.class, HBCounter.class, HBVersionColumn.class);
+
+    private MappingFingerprint() {
+    }
+
+    static String of(Class<?> clazz) {
+        StringBuilder description = new StringBuilder("class ").append(clazz.getCanonicalName()).append('\n');
+        description.append("constructor ").append(emptyConstructorAccess(clazz)).append('\n');
+        Field[] fields = clazz.getDeclaredFields();
+        Arrays.sort(fields, new Comparator<Field>() {
+            @Override
+            public int compare(Field f1, Field f2) {
+                return f1.getName().compareTo(f2.getName());
+            }
+        });
+        for (Field field : fields) {
+            List<String> annotations = new ArrayList<String>();
+            for (Class<? extends Annotation> annotationClass : ANNOTATIONS) {
+                Annotation annotation = field.getAnnotation(annotationClass);
+                if (annotation != null)
+                    annotations.add(describe(annotation));
+            }
+            if (annotations.isEmpty())
+                continue;
+            description.append("field ").append(field.getName());
+            if (Modifier.isStatic(field.getModifiers()))
+                description.append(" static");
+            if (Modifier.isTransient(field.getModifiers()))
+                description.append(" transient");
+            description.append(' ').append(describe(field.getGenericType()));
+            for (String annotation : annotations) {
+                description.append(' ').append(annotation);
+            }
+            description.append('\n');
+        }
+        return hash(description.toString());
+    }
+
+    private static String emptyConstructorAccess(Class<?> clazz) {
+        try {
+            return Modifier.isPublic(clazz.getDeclaredConstructor().getModifiers()) ? "public" : "inaccessible";
+        } catch (NoSuchMethodException e) {
+            return "none";
+        }
+    }
+
+    private static String describe(Annotation annotation) {
+        if (annotation instanceof HBColumn) {
+            HBColumn hbColumn = (HBColumn) annotation;
+            return describeAnnotation(HBColumn.class, hbColumn.family(), hbColumn.column(), hbColumn.serializeAsString(), hbColumn.codec(), hbColumn.format().name());
+        } else if (annotation instanceof HBColumnMultiVersion) {
+            HBColumnMultiVersion hbColumnMultiVersion = (HBColumnMultiVersion) annotation;
+            return describeAnnotation(HBColumnMultiVersion.class, hbColumnMultiVersion.family(), hbColumnMultiVersion.column(), hbColumnMultiVersion.serializeAsString(), hbColumnMultiVersion.codec(), hbColumnMultiVersion.format().name());
+        } else if (annotation instanceof HBCounter) {
+            HBCounter hbCounter = (HBCounter) annotation;
+            return describeAnnotation(HBCounter.class, hbCounter.family(), hbCounter.column());
+        } else if (annotation instanceof HBVersionColumn) {
+            HBVersionColumn hbVersionColumn = (HBVersionColumn) annotation;
+            return describeAnnotation(HBVersionColumn.class, hbVersionColumn.family(), hbVersionColumn.column());
+        }
+        return describeAnnotation(annotation.annotationType());
+    }
+
+    private static String describeAnnotation(Class<? extends Annotation> annotationClass, Object... values) {
+        StringBuilder description = new StringBuilder("@").append(annotationClass.getSimpleName()).append('(');
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0)
+                description.append(',');
+            Object value = values[i];
+            if (value instanceof Class)
+                description.append(value == HBCodec.None.class ? "" : ((Class<?>) value).getCanonicalName());
+            else
+                description.append(value);
+        }
+        return description.append(')').toString();
+    }
+
+    /**
+     * Describes a type the way it's written in source (with fully qualified names)
+     */
+    private static String describe(Type type) {
+        if (type instanceof Class) {
+            Class<?> clazz = (Class<?>) type;
+            return clazz.isArray() ? describe(clazz.getComponentType()) + "[]" : clazz.getCanonicalName();
+        } else if (type instanceof ParameterizedType) {
+            ParameterizedType parameterizedType = (ParameterizedType) type;
+            StringBuilder description = new StringBuilder(describe(parameterizedType.getRawType())).append('<');
+            Type[] typeArguments = parameterizedType.getActualTypeArguments();
+            for (int i = 0; i < typeArguments.length; i++) {
+                if (i > 0)
+                    description.append(',');
+                description.append(describe(typeArguments[i]));
+            }
+            return description.append('>').toString();
+        } else if (type instanceof GenericArrayType) {
+            return describe(((GenericArrayType) type).getGenericComponentType()) + "[]";
+        } else if (type instanceof WildcardType) {
+            WildcardType wildcardType = (WildcardType) type;
+            if (wildcardType.getLowerBounds().length > 0)
+                return "? super " + describe(wildcardType.getLowerBounds()[0]);
+            Type upperBound = wildcardType.getUpperBounds()[0];
+            return upperBound == Object.class ? "?" : "? extends " + describe(upperBound);
+        }
+        return type.toString(); // type variable
+    }
+
+    private static String hash(String description) {
+        try {
+            StringBuilder hash = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(description.getBytes(StandardCharsets.UTF_8))) {
+                hash.append(String.format("%02x", b));
+            }
+            return hash.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e); // every JVM supports SHA-256
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.flipkart.hbaseobjectmapper;
+
+import com.flipkart.hbaseobjectmapper.codec.Codecs;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.util.function.DoubleConsumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Decodes cells of numeric fields straight into primitives, for aggregations. Cells encoded by default binary codecs are read in-place (without copying or boxing), and all others through field's codec
+ */
+final class NumericCells {
+
+    private NumericCells() {
+    }
+
+    /**
+     * Whether values of field are numbers
+     */
+    static boolean isNumeric(FieldMapping column) {
+        return Number.class.isAssignableFrom(column.valueClass());
+    }
+
+    /**
+     * Whether values of field are whole numbers (that fit in a <code>long</code>)
+     */
+    static boolean isIntegral(FieldMapping column) {
+        Class<?> valueClass = column.valueClass();
+        return valueClass == Short.class || valueClass == Integer.class || valueClass == Long.class;
+    }
+
+    /**
+     * Decode a cell of an integral field and pass it's value on (cells whose value can't be decoded are skipped)
+     */
+    static void decodeLong(FieldMapping column, KeyValue cell, LongConsumer consumer) {
+        Object codec = column.codec();
+        byte[] buffer = cell.getBuffer();
+        int offset = cell.getValueOffset(), length = cell.getValueLength();
+        if (codec == Codecs.LONG && length == Bytes.SIZEOF_LONG) {
+            consumer.accept(Bytes.toLong(buffer, offset));
+        } else if (codec == Codecs.INTEGER && length == Bytes.SIZEOF_INT) {
+            consumer.accept(Bytes.toInt(buffer, offset));
+        } else if (codec == Codecs.SHORT && length == Bytes.SIZEOF_SHORT) {
+            consumer.accept(Bytes.toShort(buffer, offset));
+        } else {
+            Number value = decode(column, cell);
+            if (value != null)
+                consumer.accept(value.longValue());
+        }
+    }
+
+    /**
+     * Decode a cell of a numeric field and pass it's value on (cells whose value can't be decoded are skipped)
+     */
+    static void decodeDouble(FieldMapping column, KeyValue cell, final DoubleConsumer consumer) {
+        Object codec = column.codec();
+        byte[] buffer = cell.getBuffer();
+        int offset = cell.getValueOffset(), length = cell.getValueLength();
+        if (codec == Codecs.DOUBLE && length == Bytes.SIZEOF_DOUBLE) {
+            consumer.accept(Bytes.toDouble(buffer, offset));
+        } else if (codec == Codecs.FLOAT && length == Bytes.SIZEOF_FLOAT) {
+            consumer.accept(Bytes.toFloat(buffer, offset));
+        } else if (isIntegral(column)) {
+            decodeLong(column, cell, new LongConsumer() {
+                @Override
+                public void accept(long value) {
+                    consumer.accept(value);
+                }
+            });
+        } else {
+            Number value = decode(column, cell);
+            if (value != null)
+                consumer.accept(value.doubleValue());
+        }
+    }
+
+    private static Number decode(FieldMapping column, KeyValue cell) {
+        try {
+            return (Number) column.codec().fromBytes(cell.getBuffer(), cell.getValueOffset(), cell.getValueLength());
+        } catch (IllegalArgumentException e) { // e.g. cell of unexpected length
+            return null;
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.flipkart.hbaseobjectmapper;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Iterates over rows of a range of row keys that's split into sub-ranges (one per region), which are scanned concurrently on an executor. Rows are converted on the threads that scan them.
+ * <br><br>
+ * Since sub-ranges don't overlap, rows are returned in row key order simply by draining sub-ranges one after another (scans of later sub-ranges run ahead, buffering rows, meanwhile). Otherwise, rows are returned as soon as they're read, from whichever sub-range.
+ * <br><br>
+ * At most <code>parallelism</code> sub-ranges are scanned at a time: scan of a sub-range is submitted only when that of an earlier one is done (in unordered mode) or fully consumed (in ordered mode). Hence, scans never wait on each other, as long as executor has that many threads to spare.
+ *
+ * @param <E> Type rows are converted to
+ */
+abstract class ParallelScanIterator<E> implements CloseableIterator<E> {
+    /**
+     * Number of rows buffered per sub-range being scanned
+     */
+    static final int BUFFERED_ROWS_PER_SCAN = 1000;
+    private static final Object END_OF_RANGE = new Object();
+
+    private final List<byte[][]> ranges;
+    private final ExecutorService executor;
+    private final boolean ordered;
+    private final List<BlockingQueue<Object>> queues;
+    private final List<Future<?>> futures = new ArrayList<Future<?>>();
+    private int submitted, pending, current; // pending: sub-ranges submitted but not yet done (unordered mode)
+    private volatile boolean closed;
+    private Object nextItem;
+
+    /**
+     * @param ranges      Sub-ranges to scan, in row key order (each an array of start row key and stop row key)
+     * @param executor    Executor to scan sub-ranges on
+     * @param parallelism Maximum number of sub-ranges to be scanned at a time
+     * @param ordered     Whether rows are to be returned in row key order
+     */
+    ParallelScanIterator(List<byte[][]> ranges, ExecutorService executor, int parallelism, boolean ordered) {
+        if (parallelism <= 0)
+            throw new IllegalArgumentException("Parallelism should be a positive number (got " + parallelism + ")");
+        this.ranges = ranges;
+        this.executor = executor;
+        this.ordered = ordered;
+        if (ordered) {
+            queues = new ArrayList<BlockingQueue<Object>>(ranges.size());
+            for (int i = 0; i < ranges.size(); i++) {
+                queues.add(new ArrayBlockingQueue<Object>(BUFFERED_ROWS_PER_SCAN + 1));
+            }
+        } else {
+            BlockingQueue<Object> queue = new ArrayBlockingQueue<Object>(BUFFERED_ROWS_PER_SCAN * Math.min(parallelism, Math.max(1, ranges.size())) + 1);
+            queues = new ArrayList<BlockingQueue<Object>>(ranges.size());
+            for (int i = 0; i < ranges.size(); i++) {
+                queues.add(queue);
+            }
+        }
+        try {
+            while (submitted < Math.min(parallelism, ranges.size())) {
+                submitNext();
+            }
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Scan a sub-range (called on a thread of the executor)
+     */
+    abstract CloseableIterator<E> scan(byte[] startRowKey, byte[] stopRowKey) throws IOException;
+
+    private void submitNext() {
+        final int index = submitted++;
+        pending++;
+        futures.add(executor.submit(new Runnable() {
+            @Override
+            public void run() {
+                produce(index);
+            }
+        }));
+    }
+
+    private void produce(int index) {
+        BlockingQueue<Object> queue = queues.get(index);
+        Object end = END_OF_RANGE;
+        try {
+            CloseableIterator<E> rows = scan(ranges.get(index)[0], ranges.get(index)[1]);
+            try {
+                while (!closed && rows.hasNext()) {
+                    queue.put(rows.next());
+                }
+            } finally {
+                rows.close();
+            }
+        } catch (InterruptedException e) {
+            return; // only happens on close
+        } catch (Throwable e) {
+            end = new Failure(e);
+        }
+        if (closed)
+            return;
+        try {
+            queue.put(end);
+        } catch (InterruptedException ignored) {
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextItem != null)
+            return true;
+        while (!closed) {
+            if (ordered ? current >= ranges.size() : pending == 0) {
+                close();
+                return false;
+            }
+            Object item;
+            try {
+                item = queues.get(ordered ? current : 0).take();
+            } catch (InterruptedException e) {
+                close();
+                Thread.currentThread().interrupt();
+                throw new UncheckedIOException(new InterruptedIOException("Interrupted while waiting for rows of a parallel scan"));
+            }
+            if (item instanceof Failure) {
+                close();
+                Throwable cause = ((Failure) item).cause;
+                if (cause instanceof RuntimeException)
+                    throw (RuntimeException) cause;
+                if (cause instanceof Error)
+                    throw (Error) cause;
+                throw new UncheckedIOException(cause instanceof IOException ? (IOException) cause : new IOException(cause));
+            }
+            if (item != END_OF_RANGE) {
+                nextItem = item;
+                return true;
+            }
+            if (ordered) {
+                queues.set(current++, null); // let the buffer go
+            } else {
+                pending--;
+            }
+            if (submitted < ranges.size())
+                submitNext();
+        }
+        return false;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+        E row = (E) nextItem;
+        nextItem = null;
+        return row;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("Rows can't be removed through an iterator");
+    }
+
+    /**
+     * Stop scans that are still running (they release their scanners) and discard buffered rows. Calling this more than once has no effect
+     */
+    @Override
+    public void close() {
+        if (closed)
+            return;
+        closed = true;
+        nextItem = null;
+        for (Future<?> future : futures) {
+            future.cancel(true);
+        }
+    }
+
+    private static class Failure {
+        private final Throwable cause;
+
+        Failure(Throwable cause) {
+            this.cause = cause;
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.flipkart.hbaseobjectmapper;
+
+import com.flipkart.hbaseobjectmapper.exceptions.BadHBaseLibStateException;
+import com.flipkart.hbaseobjectmapper.exceptions.ConversionFailedException;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+/**
+ * Converts a field of a primitive type straight between the object and cell values, through {@link MethodHandle}s typed exactly to the primitive (so values are never boxed)
+ * <br><br>
+ * Since primitives can't be <code>null</code>, such fields are always written. When the column is absent (or it's value can't be parsed back), the field is left untouched - i.e. it retains the value assigned by the class's empty constructor.
+ */
+abstract class PrimitiveFieldCodec {
+    private final String fieldName;
+    final MethodHandle getter, setter;
+    final boolean serializeAsString;
+
+    private PrimitiveFieldCodec(Field field, boolean serializeAsString) {
+        this.fieldName = field.getName();
+        this.serializeAsString = serializeAsString;
+        Class<?> type = field.getType();
+        field.setAccessible(true);
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            this.getter = lookup.unreflectGetter(field).asType(MethodType.methodType(type, Object.class));
+            this.setter = lookup.unreflectSetter(field).asType(MethodType.methodType(void.class, Object.class, type));
+        } catch (IllegalAccessException e) {
+            throw new BadHBaseLibStateException(e);
+        }
+    }
+
+    /**
+     * @param field             Field of a primitive type
+     * @param serializeAsString Whether value is stored in it's string representation
+     * @return Codec for the field, <code>null</code> if it's type isn't supported
+     */
+    static PrimitiveFieldCodec forField(Field field, boolean serializeAsString) {
+        Class<?> type = field.getType();
+        if (type == boolean.class)
+            return new BooleanFieldCodec(field, serializeAsString);
+        if (type == short.class)
+            return new ShortFieldCodec(field, serializeAsString);
+        if (type == int.class)
+            return new IntFieldCodec(field, serializeAsString);
+        if (type == long.class)
+            return new LongFieldCodec(field, serializeAsString);
+        if (type == float.class)
+            return new FloatFieldCodec(field, serializeAsString);
+        if (type == double.class)
+            return new DoubleFieldCodec(field, serializeAsString);
+        return null;
+    }
+
+    static boolean isSupported(Class<?> type) {
+        return type == boolean.class || type == short.class || type == int.class || type == long.class || type == float.class || type == double.class;
+    }
+
+    /**
+     * Read field from an object and convert it to a cell value
+     */
+    byte[] toBytes(Object obj) {
+        try {
+            return encode(obj);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new ConversionFailedException("Field " + fieldName + " could not be accessed", t);
+        }
+    }
+
+    /**
+     * Convert a cell value (a range of byte array) and set it on the field of an object
+     */
+    void setFromBytes(Object obj, byte[] bytes, int offset, int length) {
+        try {
+            if (serializeAsString)
+                decodeString(obj, Bytes.toString(bytes, offset, length));
+            else
+                decode(obj, bytes, offset, length);
+        } catch (NumberFormatException e) {
+            // value not parsable: leave field untouched, as for an absent column
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new ConversionFailedException("Could not set value on field \"" + fieldName + "\" on instance of class " + obj.getClass(), t);
+        }
+    }
+
+    abstract byte[] encode(Object obj) throws Throwable;
+
+    abstract void decode(Object obj, byte[] bytes, int offset, int length) throws Throwable;
+
+    abstract void decodeString(Object obj, String s) throws Throwable;
+
+    private static int requireLength(int length, int size) {
+        if (length < size) {
+            throw new IllegalArgumentException(String.format("Expected at least %d bytes, but got %d", size, length));
+        }
+        return size;
+    }
+
+    private static final class BooleanFieldCodec extends PrimitiveFieldCodec {
+        BooleanFieldCodec(Field field, boolean serializeAsString) {
+            super(field, serializeAsString);
+        }
+
+        @Override
+        byte[] encode(Object obj) throws Throwable {
+            boolean value = (boolean) getter.invokeExact(obj);
+            return serializeAsString ? Bytes.toBytes(String.valueOf(value)) : Bytes.toBytes(value);
+        }
+
+        @Override
+        void decode(Object obj, byte[] bytes, int offset, int length) throws Throwable {
+            if (length != 1) {
+                throw new IllegalArgumentException("Array has wrong size: " + length);
+            }
+            setter.invokeExact(obj, bytes[offset] != (byte) 0);
+        }
+
+        @Override
+        void decodeString(Object obj, String s) throws Throwable {
+            setter.invokeExact(obj, Boolean.parseBoolean(s));
+        }
+    }
+
+    private static final class ShortFieldCodec extends PrimitiveFieldCodec {
+        ShortFieldCodec(Field field, boolean serializeAsString) {
+            super(field, serializeAsString);
+        }
+
+        @Override
+        byte[] encode(Object obj) throws Throwable {
+            short value = (short) getter.invokeExact(obj);
+            return serializeAsString ? Bytes.toBytes(String.valueOf(value)) : Bytes.toBytes(value);
+        }
+
+        @Override
+        void decode(Object obj, byte[] bytes, int offset, int length) throws Throwable {
+            setter.invokeExact(obj, Bytes.toShort(bytes, offset, requireLength(length, Bytes.SIZEOF_SHORT)));
+        }
+
+        @Override
+        void decodeString(Object obj, String s) throws Throwable {
+            setter.invokeExact(obj, Short.parseShort(s));
+        }
+    }
+
+    private static final class IntFieldCodec extends PrimitiveFieldCodec {
+        IntFieldCodec(Field field, boolean serializeAsString) {
+            super(field, serializeAsString);
+        }
+
+        @Override
+        byte[] encode(Object obj) throws Throwable {
+            int value = (int) getter.invokeExact(obj);
+            return serializeAsString ? Bytes.toBytes(String.valueOf(value)) : Bytes.toBytes(value);
+        }
+
+        @Override
+        void decode(Object obj, byte[] bytes, int offset, int length) throws Throwable {
+            setter.invokeExact(obj, Bytes.toInt(bytes, offset, requireLength(length, Bytes.SIZEOF_INT)));
+        }
+
+        @Override
+        void decodeString(Object obj, String s) throws Throwable {
+            setter.invokeExact(obj, Integer.parseInt(s));
+        }
+    }
+
+    private static final class LongFieldCodec extends PrimitiveFieldCodec {
+        LongFieldCodec(Field field, boolean serializeAsString) {
+            super(field, serializeAsString);
+        }
+
+        @Override
+        byte[] encode(Object obj) throws Throwable {
+            long value = (long) getter.invokeExact(obj);
+            return serializeAsString ? Bytes.toBytes(String.valueOf(value)) : Bytes.toBytes(value);
+        }
+
+        @Override
+        void decode(Object obj, byte[] bytes, int offset, int length) throws Throwable {
+            setter.invokeExact(obj, Bytes.toLong(bytes, offset, requireLength(length, Bytes.SIZEOF_LONG)));
+        }
+
+        @Override
+        void decodeString(Object obj, String s) throws Throwable {
+            setter.invokeExact(obj, Long.parseLong(s));
+        }
+    }
+
+    private static final class FloatFieldCodec extends PrimitiveFieldCodec {
+        FloatFieldCodec(Field field, boolean serializeAsString) {
+            super(field, serializeAsString);
+        }
+
+        @Override
+        byte[] encode(Object obj) throws Throwable {
+            float value = (float) getter.invokeExact(obj);
+            return serializeAsString ? Bytes.toBytes(String.valueOf(value)) : Bytes.toBytes(value);
+        }
+
+        @Override
+        void decode(Object obj, byte[] bytes, int offset, int length) throws Throwable {
+            setter.invokeExact(obj, Float.intBitsToFloat(Bytes.toInt(bytes, offset, requireLength(length, Bytes.SIZEOF_FLOAT))));
+        }
+
+        @Override
+        void decodeString(Object obj, String s) throws Throwable {
+            setter.invokeExact(obj, Float.parseFloat(s));
+        }
+    }
+
+    private static final class DoubleFieldCodec extends PrimitiveFieldCodec {
+        DoubleFieldCodec(Field field, boolean serializeAsString) {
+            super(field, serializeAsString);
+        }
+
+        @Override
+        byte[] encode(Object obj) throws Throwable {
+            double value = (double) getter.invokeExact(obj);
+            return serializeAsString ? Bytes.toBytes(String.valueOf(value)) : Bytes.toBytes(value);
+        }
+
+        @Override
+        void decode(Object obj, byte[] bytes, int offset, int length) throws Throwable {
+            setter.invokeExact(obj, Double.longBitsToDouble(Bytes.toLong(bytes, offset, requireLength(length, Bytes.SIZEOF_DOUBLE))));
+        }
+
+        @Override
+        void decodeString(Object obj, String s) throws Throwable {
+            setter.invokeExact(obj, Double.parseDouble(s));
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.flipkart.hbaseobjectmapper;
+
+import com.flipkart.hbaseobjectmapper.codec.Codecs;
+import com.flipkart.hbaseobjectmapper.codec.HBCodec;
+import com.google.common.primitives.Primitives;
+import org.apache.hadoop.hbase.HConstants;
+import org.apache.hadoop.hbase.filter.BinaryComparator;
+import org.apache.hadoop.hbase.filter.BinaryPrefixComparator;
+import org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
+import org.apache.hadoop.hbase.filter.Filter;
+import org.apache.hadoop.hbase.filter.FilterList;
+import org.apache.hadoop.hbase.filter.SingleColumnValueFilter;
+import org.apache.hadoop.hbase.filter.WritableByteArrayComparable;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A query on field values of your bean-like objects, evaluated by HBase itself (i.e. on region servers, so that rows that don't match aren't sent over the network). Start one with {@link AbstractHBDAO#where(String)}, for example:
+ * <pre>
+ * List&lt;Citizen&gt; citizens = citizenDao.where("age").gt((short) 30).and("name").prefix("A").get();
+ * </pre>
+ * Values are encoded the same way as fields are, when they're persisted (i.e. using field's codec and the <code>serializeAsString</code> flag of it's mapping). Note that:
+ * <ul>
+ * <li><code>and</code> binds tighter than <code>or</code> (e.g. <code>where("a").eq(1).or("b").eq(2).and("c").eq(3)</code> reads as <code>a = 1 OR (b = 2 AND c = 3)</code>)</li>
+ * <li>Rows in which a field is absent (i.e. <code>null</code>) don't match any condition on that field</li>
+ * <li>For multi-versioned fields, conditions apply to latest version</li>
+ * <li>Range conditions (<code>gt</code>, <code>ge</code>, <code>lt</code> and <code>le</code>) are supported only on fields whose encoding preserves order: strings (compared lexicographically), and <code>short</code>/<code>int</code>/<code>long</code> fields stored in binary (i.e. not as strings) with default codecs</li>
+ * </ul>
+ * This is immutable: each condition returns a new query, so a query can be extended in more than one way.
+ *
+ * @param <T> Entity type
+ */
+public final class Query<T extends HBRecord> {
+    private static final byte[] SIGN_BIT = {(byte) 0x80}; // binary encodings of negative numbers are >= this, and of others, < this
+
+    private final AbstractHBDAO<T> dao;
+    private final List<List<Filter>> disjuncts; // OR of ANDs
+
+    private Query(AbstractHBDAO<T> dao, List<List<Filter>> disjuncts) {
+        this.dao = dao;
+        this.disjuncts = disjuncts;
+    }
+
+    static <T extends HBRecord> Condition<T> where(AbstractHBDAO<T> dao, String fieldName) {
+        return new Condition<T>(new Query<T>(dao, Collections.<List<Filter>>emptyList()), dao.getField(fieldName), false);
+    }
+
+    /**
+     * Add a condition that rows must meet in addition to the preceding ones (of the same <code>or</code> group)
+     */
+    public Condition<T> and(String fieldName) {
+        return new Condition<T>(this, dao.getField(fieldName), false);
+    }
+
+    /**
+     * Add a condition that rows may meet instead of preceding ones
+     */
+    public Condition<T> or(String fieldName) {
+        return new Condition<T>(this, dao.getField(fieldName), true);
+    }
+
+    /**
+     * Get HBase filter this query translates to (e.g. to combine it with other filters)
+     */
+    public Filter toFilter() {
+        List<Filter> conjunctions = new ArrayList<Filter>(disjuncts.size());
+        for (List<Filter> filters : disjuncts) {
+            conjunctions.add(filters.size() == 1 ? filters.get(0) : new FilterList(FilterList.Operator.MUST_PASS_ALL, filters));
+        }
+        return conjunctions.size() == 1 ? conjunctions.get(0) : new FilterList(FilterList.Operator.MUST_PASS_ONE, conjunctions);
+    }
+
+    /**
+     * Scan rows that match this query, for a range of row keys (see {@link AbstractHBDAO#scan(byte[], byte[], int, ScanOptions)})
+     */
+    public CloseableIterator<T> scan(byte[] startRowKey, byte[] endRowKey, int versions, ScanOptions scanOptions) throws IOException {
+        return dao.scan(startRowKey, endRowKey, versions, scanOptions, toFilter());
+    }
+
+    /**
+     * Scan rows that match this query, for a range of row keys (see {@link AbstractHBDAO#scan(byte[], byte[])})
+     */
+    public CloseableIterator<T> scan(byte[] startRowKey, byte[] endRowKey) throws IOException {
+        return scan(startRowKey, endRowKey, AbstractHBDAO.DEFAULT_NUM_VERSIONS, ScanOptions.CLIENT_DEFAULTS);
+    }
+
+    /**
+     * Scan all rows of HBase table that match this query
+     */
+    public CloseableIterator<T> scan() throws IOException {
+        return scan(HConstants.EMPTY_START_ROW, HConstants.EMPTY_END_ROW);
+    }
+
+    /**
+     * Get rows that match this query, for a range of row keys
+     */
+    public List<T> get(byte[] startRowKey, byte[] endRowKey) throws IOException {
+        return AbstractHBDAO.toList(scan(startRowKey, endRowKey));
+    }
+
+    /**
+     * Get all rows of HBase table that match this query
+     */
+    public List<T> get() throws IOException {
+        return AbstractHBDAO.toList(scan());
+    }
+
+    private Query<T> with(Filter filter, boolean or) {
+        List<List<Filter>> disjuncts = new ArrayList<List<Filter>>(this.disjuncts);
+        if (or || disjuncts.isEmpty()) {
+            disjuncts.add(Collections.singletonList(filter));
+        } else {
+            List<Filter> filters = new ArrayList<Filter>(disjuncts.get(disjuncts.size() - 1));
+            filters.add(filter);
+            disjuncts.set(disjuncts.size() - 1, filters);
+        }
+        return new Query<T>(dao, disjuncts);
+    }
+
+    /**
+     * A condition on a field, yet to be completed with an operator and a value
+     *
+     * @param <T> Entity type
+     */
+    public static final class Condition<T extends HBRecord> {
+        private final Query<T> query;
+        private final FieldMapping column;
+        private final boolean or;
+
+        private Condition(Query<T> query, FieldMapping column, boolean or) {
+            this.query = query;
+            this.column = column;
+            this.or = or;
+        }
+
+        /**
+         * Field value equals given value
+         */
+        public Query<T> eq(Object value) {
+            return query.with(filter(CompareOp.EQUAL, new BinaryComparator(encode(value))), or);
+        }
+
+        /**
+         * Field value is present and doesn't equal given value
+         */
+        public Query<T> ne(Object value) {
+            return query.with(filter(CompareOp.NOT_EQUAL, new BinaryComparator(encode(value))), or);
+        }
+
+        /**
+         * Field value equals one of given values
+         */
+        public Query<T> in(Object... values) {
+            if (values.length == 0)
+                throw new IllegalArgumentException("At least one value is needed");
+            List<Filter> filters = new ArrayList<Filter>(values.length);
+            for (Object value : values) {
+                filters.add(filter(CompareOp.EQUAL, new BinaryComparator(encode(value))));
+            }
+            return query.with(filters.size() == 1 ? filters.get(0) : new FilterList(FilterList.Operator.MUST_PASS_ONE, filters), or);
+        }
+
+        /**
+         * Field value is greater than given value
+         */
+        public Query<T> gt(Object value) {
+            return query.with(range(CompareOp.GREATER, value, true), or);
+        }
+
+        /**
+         * Field value is greater than or equal to given value
+         */
+        public Query<T> ge(Object value) {
+            return query.with(range(CompareOp.GREATER_OR_EQUAL, value, true), or);
+        }
+
+        /**
+         * Field value is less than given value
+         */
+        public Query<T> lt(Object value) {
+            return query.with(range(CompareOp.LESS, value, false), or);
+        }
+
+        /**
+         * Field value is less than or equal to given value
+         */
+        public Query<T> le(Object value) {
+            return query.with(range(CompareOp.LESS_OR_EQUAL, value, false), or);
+        }
+
+        /**
+         * Field value starts with given prefix (only for string fields)
+         */
+        public Query<T> prefix(String prefix) {
+            if (!isEncodedWith(Codecs.STRING))
+                throw new IllegalArgumentException(String.format("Field '%s' isn't a string field with default codec, so it can't be matched by prefix", column.name()));
+            return query.with(filter(CompareOp.EQUAL, new BinaryPrefixComparator(Bytes.toBytes(prefix))), or);
+        }
+
+        /**
+         * Build a range condition. Byte order of binary encoded numbers differs from their numeric order only in that negative numbers come after others, so such a condition is split in two where that matters
+         *
+         * @param lowerBound Whether value is a lower bound (i.e. operator is <code>GREATER</code> or <code>GREATER_OR_EQUAL</code>)
+         */
+        private Filter range(CompareOp op, Object value, boolean lowerBound) {
+            byte[] bytes = encode(value);
+            if (isEncodedWith(Codecs.STRING))
+                return filter(op, new BinaryComparator(bytes));
+            if (!isEncodedWith(Codecs.SHORT) && !isEncodedWith(Codecs.INTEGER) && !isEncodedWith(Codecs.LONG))
+                throw new IllegalArgumentException(String.format("Field '%s' is encoded such that it's byte order differs from it's value order, so it can't be compared by range (only equality)", column.name()));
+            boolean negative = ((Number) value).longValue() < 0;
+            Filter bound = filter(op, new BinaryComparator(bytes));
+            if (lowerBound) { // values that are greater: numbers in between, plus all non-negative numbers
+                Filter nonNegative = filter(CompareOp.LESS, new BinaryComparator(SIGN_BIT));
+                return new FilterList(negative ? FilterList.Operator.MUST_PASS_ONE : FilterList.Operator.MUST_PASS_ALL, bound, nonNegative);
+            } else { // values that are lesser: numbers in between, plus all negative numbers
+                Filter isNegative = filter(CompareOp.GREATER_OR_EQUAL, new BinaryComparator(SIGN_BIT));
+                return new FilterList(negative ? FilterList.Operator.MUST_PASS_ALL : FilterList.Operator.MUST_PASS_ONE, bound, isNegative);
+            }
+        }
+
+        private boolean isEncodedWith(HBCodec<?> codec) {
+            return (Object) column.codec() == codec;
+        }
+
+        private byte[] encode(Object value) {
+            if (value == null)
+                throw new IllegalArgumentException(String.format("Value to compare field '%s' with can't be null", column.name()));
+            if (!Primitives.wrap(column.valueClass()).isInstance(value))
+                throw new IllegalArgumentException(String.format("Field '%s' is of type %s, but value to compare it with (%s) is of type %s", column.name(), column.valueClass().getName(), value, value.getClass().getName()));
+            return column.codec().toBytes(value);
+        }
+
+        private Filter filter(CompareOp op, WritableByteArrayComparable comparator) {
+            SingleColumnValueFilter filter = new SingleColumnValueFilter(column.family(), column.column(), op, comparator);
+            filter.setFilterIfMissing(true);
+            return filter;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.flipkart.hbaseobjectmapper;
+
+import org.apache.hadoop.hbase.client.Scan;
+
+/**
+ * Tuning options for scans issued by {@link AbstractHBDAO} (immutable: each of the setter-like methods returns a new instance).
+ * <br><br>
+ * Options can be set per DAO (see {@link AbstractHBDAO#setScanOptions(ScanOptions)}) and per call (e.g. {@link AbstractHBDAO#scan(byte[], byte[], int, ScanOptions)}). Options not set in a call fall back to those of the DAO, and options not set in either are left to HBase client defaults (e.g. <code>hbase.client.scanner.caching</code>)
+ * <br><br>
+ * Example:
+ * <pre>
+ * citizenDao.scan(startRowKey, endRowKey, 1, ScanOptions.CLIENT_DEFAULTS.caching(500).cacheBlocks(false));
+ * </pre>
+ */
+public final class ScanOptions {
+    /**
+     * No options set (everything is left to HBase client defaults)
+     */
+    public static final ScanOptions CLIENT_DEFAULTS = new ScanOptions(0, 0, null, 0);
+
+    private final int caching;
+    private final int batch;
+    private final Boolean cacheBlocks;
+    private final long maxResultSize;
+
+    private ScanOptions(int caching, int batch, Boolean cacheBlocks, long maxResultSize) {
+        this.caching = caching;
+        this.batch = batch;
+        this.cacheBlocks = cacheBlocks;
+        this.maxResultSize = maxResultSize;
+    }
+
+    /**
+     * Number of rows to be fetched per RPC (see {@link Scan#setCaching(int)})
+     */
+    public ScanOptions caching(int caching) {
+        if (caching <= 0)
+            throw new IllegalArgumentException("Scanner caching should be a positive number (got " + caching + ")");
+        return new ScanOptions(caching, batch, cacheBlocks, maxResultSize);
+    }
+
+    /**
+     * Maximum number of cells to be fetched per RPC for a row (see {@link Scan#setBatch(int)}). Wide rows that get split this way are stitched back together before conversion, so this bounds size of RPCs, not memory held per row
+     */
+    public ScanOptions batch(int batch) {
+        if (batch <= 0)
+            throw new IllegalArgumentException("Scan batch should be a positive number (got " + batch + ")");
+        return new ScanOptions(caching, batch, cacheBlocks, maxResultSize);
+    }
+
+    /**
+     * Whether blocks read by the scan should be cached on region servers (see {@link Scan#setCacheBlocks(boolean)}). Turn this off for scans that read most of a table, so that they don't evict hot blocks
+     */
+    public ScanOptions cacheBlocks(boolean cacheBlocks) {
+        return new ScanOptions(caching, batch, cacheBlocks, maxResultSize);
+    }
+
+    /**
+     * Maximum size (in bytes) of data to be fetched per RPC (overrides <code>hbase.client.scanner.max.result.size</code> for the scan)
+     */
+    public ScanOptions maxResultSize(long maxResultSize) {
+        if (maxResultSize <= 0)
+            throw new IllegalArgumentException("Max result size should be a positive number (got " + maxResultSize + ")");
+        return new ScanOptions(caching, batch, cacheBlocks, maxResultSize);
+    }
+
+    /**
+     * Number of rows to be fetched per RPC (<code>0</code> if not set)
+     */
+    public int getCaching() {
+        return caching;
+    }
+
+    /**
+     * Maximum number of cells to be fetched per RPC for a row (<code>0</code> if not set)
+     */
+    public int getBatch() {
+        return batch;
+    }
+
+    /**
+     * Whether blocks read by the scan should be cached on region servers (<code>null</code> if not set)
+     */
+    public Boolean getCacheBlocks() {
+        return cacheBlocks;
+    }
+
+    /**
+     * Maximum size (in bytes) of data to be fetched per RPC (<code>0</code> if not set)
+     */
+    public long getMaxResultSize() {
+        return maxResultSize;
+    }
+
+    /**
+     * Options of this instance, with those not set taken from <code>fallback</code>
+     */
+    ScanOptions orElse(ScanOptions fallback) {
+        return new ScanOptions(
+                caching > 0 ? caching : fallback.caching,
+                batch > 0 ? batch : fallback.batch,
+                cacheBlocks != null ? cacheBlocks : fallback.cacheBlocks,
+                maxResultSize > 0 ? maxResultSize : fallback.maxResultSize);
+    }
+
+    /**
+     * Set options on a scan (except {@link #getMaxResultSize() max result size}, which HBase 0.94 reads from configuration of the scanner)
+     */
+    void applyTo(Scan scan) {
+        if (caching > 0)
+            scan.setCaching(caching);
+        if (batch > 0)
+            scan.setBatch(batch);
+        if (cacheBlocks != null)
+            scan.setCacheBlocks(cacheBlocks);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+        if (!(o instanceof ScanOptions))
+            return false;
+        ScanOptions that = (ScanOptions) o;
+        return caching == that.caching && batch == that.batch && maxResultSize == that.maxResultSize
+                && (cacheBlocks == null ? that.cacheBlocks == null : cacheBlocks.equals(that.cacheBlocks));
+    }
+
+    @Override
+    public int hashCode() {
+        int result = caching;
+        result = 31 * result + batch;
+        result = 31 * result + (cacheBlocks == null ? 0 : cacheBlocks.hashCode());
+        result = 31 * result + (int) (maxResultSize ^ (maxResultSize >>> 32));
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ScanOptions(caching=%d, batch=%d, cacheBlocks=%s, maxResultSize=%d)", caching, batch, cacheBlocks, maxResultSize);
+    }
+}
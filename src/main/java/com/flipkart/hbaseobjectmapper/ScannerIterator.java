@@ -0,0 +1,99 @@
+package com.flipkart.hbaseobjectmapper;
+
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates over rows of an HBase scanner, converting one row at a time. Scanner is closed as soon as it's exhausted (or when this is closed)
+ *
+ * @param <E> Type rows are converted to
+ */
+abstract class ScannerIterator<E> implements CloseableIterator<E> {
+    private final ResultScanner scanner;
+    private final boolean stitchRows;
+    private Result nextResult;
+    private Result pendingResult;
+    private boolean closed;
+
+    /**
+     * @param scanner    Scanner to read rows from
+     * @param stitchRows Whether consecutive results of the same row are to be stitched back together (needed when scan has a batch size set, since a row may then span more than one result)
+     */
+    ScannerIterator(ResultScanner scanner, boolean stitchRows) {
+        this.scanner = scanner;
+        this.stitchRows = stitchRows;
+    }
+
+    /**
+     * Convert a row read from scanner
+     */
+    abstract E convert(Result result);
+
+    @Override
+    public boolean hasNext() {
+        if (nextResult != null)
+            return true;
+        if (closed)
+            return false;
+        try {
+            nextResult = stitchRows ? readStitched() : scanner.next();
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException(e);
+        }
+        if (nextResult == null) {
+            close();
+            return false;
+        }
+        return true;
+    }
+
+    private Result readStitched() throws IOException {
+        Result first = pendingResult != null ? pendingResult : scanner.next();
+        pendingResult = null;
+        if (first == null)
+            return null;
+        List<KeyValue> cells = null;
+        Result result;
+        while ((result = scanner.next()) != null && Bytes.equals(first.getRow(), result.getRow())) {
+            if (cells == null)
+                cells = new ArrayList<KeyValue>(Arrays.asList(first.raw()));
+            cells.addAll(Arrays.asList(result.raw()));
+        }
+        pendingResult = result;
+        return cells == null ? first : new Result(cells);
+    }
+
+    @Override
+    public E next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+        Result result = nextResult;
+        nextResult = null;
+        return convert(result);
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException("Rows can't be removed through an iterator");
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            nextResult = null;
+            pendingResult = null;
+            scanner.close();
+        }
+    }
+}
@@ -1,36 +1,68 @@
 package com.flipkart.hbaseobjectmapper;
 
 
+import com.flipkart.hbaseobjectmapper.codec.Format;
+import com.flipkart.hbaseobjectmapper.codec.HBCodec;
 import com.flipkart.hbaseobjectmapper.exceptions.BothHBColumnAnnotationsPresentException;
 
+import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 
 /**
- * A wrapper class for {@link HBColumn} and {@link HBColumnMultiVersion} annotations
+ * A wrapper class for {@link HBColumn}, {@link HBColumnMultiVersion}, {@link HBCounter} and {@link HBVersionColumn} annotations
  */
 class WrappedHBColumn {
     private String family, column;
-    private boolean serializeAsString = false, multiVersioned = false, singleVersioned = false;
-    private Class annotationClass;
+    private boolean serializeAsString = false, multiVersioned = false, singleVersioned = false, counter = false, version = false;
+    private Class<? extends Annotation> annotationClass;
+    private Class<? extends HBCodec<?>> codec;
+    private Format format;
 
     public WrappedHBColumn(Field field) {
         HBColumn hbColumn = field.getAnnotation(HBColumn.class);
         HBColumnMultiVersion hbColumnMultiVersion = field.getAnnotation(HBColumnMultiVersion.class);
+        HBCounter hbCounter = field.getAnnotation(HBCounter.class);
+        HBVersionColumn hbVersionColumn = field.getAnnotation(HBVersionColumn.class);
         if (hbColumn != null && hbColumnMultiVersion != null) {
             throw new BothHBColumnAnnotationsPresentException(field);
         }
+        Class<? extends Annotation> columnAnnotation = hbColumn != null ? HBColumn.class : hbColumnMultiVersion != null ? HBColumnMultiVersion.class : null;
+        if (hbCounter != null && columnAnnotation != null) {
+            throw new BothHBColumnAnnotationsPresentException(field, HBCounter.class, columnAnnotation);
+        }
+        if (hbVersionColumn != null && (columnAnnotation != null || hbCounter != null)) {
+            throw new BothHBColumnAnnotationsPresentException(field, HBVersionColumn.class, columnAnnotation != null ? columnAnnotation : HBCounter.class);
+        }
         if (hbColumn != null) {
             family = hbColumn.family();
             column = hbColumn.column();
             serializeAsString = hbColumn.serializeAsString();
+            codec = hbColumn.codec();
+            format = hbColumn.format();
             singleVersioned = true;
             annotationClass = HBColumn.class;
         } else if (hbColumnMultiVersion != null) {
             family = hbColumnMultiVersion.family();
             column = hbColumnMultiVersion.column();
             serializeAsString = hbColumnMultiVersion.serializeAsString();
+            codec = hbColumnMultiVersion.codec();
+            format = hbColumnMultiVersion.format();
             multiVersioned = true;
             annotationClass = HBColumnMultiVersion.class;
+        } else if (hbCounter != null) {
+            family = hbCounter.family();
+            column = hbCounter.column();
+            format = Format.JSON;
+            singleVersioned = true;
+            counter = true;
+            annotationClass = HBCounter.class;
+        } else if (hbVersionColumn != null) {
+            family = hbVersionColumn.family();
+            column = hbVersionColumn.column();
+            format = Format.JSON;
+            singleVersioned = true;
+            version = true;
+            annotationClass = HBVersionColumn.class;
         }
     }
 
@@ -46,6 +78,17 @@ class WrappedHBColumn {
         return serializeAsString;
     }
 
+    /**
+     * @return Codec specified on the field, <code>null</code> if none was specified
+     */
+    public Class<? extends HBCodec<?>> codec() {
+        return codec == HBCodec.None.class ? null : codec;
+    }
+
+    public Format format() {
+        return format;
+    }
+
     public boolean isPresent() {
         return singleVersioned || multiVersioned;
     }
@@ -58,6 +101,27 @@ class WrappedHBColumn {
         return singleVersioned;
     }
 
+    /**
+     * Whether field is a counter (see {@link HBCounter})
+     */
+    public boolean isCounter() {
+        return counter;
+    }
+
+    /**
+     * Whether field holds version of the row (see {@link HBVersionColumn})
+     */
+    public boolean isVersion() {
+        return version;
+    }
+
+    /**
+     * Whether values of field are always stored as 8-byte longs, irrespective of codecs (i.e. field is a counter or version of the row)
+     */
+    public boolean isStoredAsLong() {
+        return counter || version;
+    }
+
     public String getName() {
         return annotationClass.getName();
     }
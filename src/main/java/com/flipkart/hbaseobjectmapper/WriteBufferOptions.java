@@ -0,0 +1,87 @@
+package com.flipkart.hbaseobjectmapper;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Options for a {@link BufferedHBWriter} (immutable: each of the setter-like methods returns a new instance).
+ * <br><br>
+ * Buffered records are flushed as soon as any of these limits is reached: number of records, their size or age of the oldest of them. Example:
+ * <pre>
+ * citizenDao.newBufferedWriter(WriteBufferOptions.DEFAULTS.flushRecords(500).flushInterval(100, TimeUnit.MILLISECONDS), listener);
+ * </pre>
+ */
+public final class WriteBufferOptions {
+    /**
+     * Default options: a queue of 10,000 records, flushed every 1,000 records, 2 MB or 1 second (whichever is reached first)
+     */
+    public static final WriteBufferOptions DEFAULTS = new WriteBufferOptions(10000, 1000, 2 * 1024 * 1024, 1000);
+
+    private final int queueCapacity;
+    private final int flushRecords;
+    private final long flushBytes;
+    private final long flushIntervalMillis;
+
+    private WriteBufferOptions(int queueCapacity, int flushRecords, long flushBytes, long flushIntervalMillis) {
+        this.queueCapacity = queueCapacity;
+        this.flushRecords = flushRecords;
+        this.flushBytes = flushBytes;
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    /**
+     * Maximum number of records waiting to be flushed, beyond which writes block (backpressure)
+     */
+    public WriteBufferOptions queueCapacity(int queueCapacity) {
+        if (queueCapacity <= 0)
+            throw new IllegalArgumentException("Queue capacity should be a positive number (got " + queueCapacity + ")");
+        return new WriteBufferOptions(queueCapacity, flushRecords, flushBytes, flushIntervalMillis);
+    }
+
+    /**
+     * Number of buffered records that triggers a flush
+     */
+    public WriteBufferOptions flushRecords(int flushRecords) {
+        if (flushRecords <= 0)
+            throw new IllegalArgumentException("Number of records to flush at should be a positive number (got " + flushRecords + ")");
+        return new WriteBufferOptions(queueCapacity, flushRecords, flushBytes, flushIntervalMillis);
+    }
+
+    /**
+     * Size (in bytes, as estimated by HBase) of buffered records that triggers a flush. This is also the size of the HBase client's write buffer
+     */
+    public WriteBufferOptions flushBytes(long flushBytes) {
+        if (flushBytes <= 0)
+            throw new IllegalArgumentException("Number of bytes to flush at should be a positive number (got " + flushBytes + ")");
+        return new WriteBufferOptions(queueCapacity, flushRecords, flushBytes, flushIntervalMillis);
+    }
+
+    /**
+     * Maximum time a record stays buffered before it's flushed
+     */
+    public WriteBufferOptions flushInterval(long duration, TimeUnit unit) {
+        if (duration <= 0)
+            throw new IllegalArgumentException("Flush interval should be a positive duration (got " + duration + " " + unit + ")");
+        return new WriteBufferOptions(queueCapacity, flushRecords, flushBytes, unit.toMillis(duration));
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public int getFlushRecords() {
+        return flushRecords;
+    }
+
+    public long getFlushBytes() {
+        return flushBytes;
+    }
+
+    public long getFlushIntervalMillis() {
+        return flushIntervalMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("WriteBufferOptions(queueCapacity=%d, flushRecords=%d, flushBytes=%d, flushIntervalMillis=%d)", queueCapacity, flushRecords, flushBytes, flushIntervalMillis);
+    }
+}
@@ -0,0 +1,17 @@
+package com.flipkart.hbaseobjectmapper;
+
+/**
+ * Gets notified of records that a {@link BufferedHBWriter} couldn't write to HBase. This is called on the writer's background thread, so implementations should return quickly (e.g. hand the record over to a retry queue)
+ *
+ * @param <T> Entity type
+ */
+public interface WriteFailureListener<T extends HBRecord> {
+
+    /**
+     * Called once for each record that couldn't be written
+     *
+     * @param record Record that couldn't be written
+     * @param cause  Reason of failure
+     */
+    void onFailure(T record, Throwable cause);
+}
@@ -0,0 +1,217 @@
+package com.flipkart.hbaseobjectmapper.codec;
+
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Codecs for types that HBase's {@link Bytes} class natively converts. These are used by default for fields of such types
+ */
+public final class Codecs {
+
+    public static final HBCodec<Boolean> BOOLEAN = new HBCodec<Boolean>() {
+        @Override
+        public byte[] toBytes(Boolean value) {
+            return Bytes.toBytes(value.booleanValue());
+        }
+
+        @Override
+        public Boolean fromBytes(byte[] bytes, int offset, int length) {
+            if (length != 1) {
+                throw new IllegalArgumentException("Array has wrong size: " + length);
+            }
+            return bytes[offset] != (byte) 0;
+        }
+    };
+
+    public static final HBCodec<Short> SHORT = new HBCodec<Short>() {
+        @Override
+        public byte[] toBytes(Short value) {
+            return Bytes.toBytes(value.shortValue());
+        }
+
+        @Override
+        public Short fromBytes(byte[] bytes, int offset, int length) {
+            return Bytes.toShort(bytes, offset, requireLength(length, Bytes.SIZEOF_SHORT));
+        }
+    };
+
+    public static final HBCodec<Integer> INTEGER = new HBCodec<Integer>() {
+        @Override
+        public byte[] toBytes(Integer value) {
+            return Bytes.toBytes(value.intValue());
+        }
+
+        @Override
+        public Integer fromBytes(byte[] bytes, int offset, int length) {
+            return Bytes.toInt(bytes, offset, requireLength(length, Bytes.SIZEOF_INT));
+        }
+    };
+
+    public static final HBCodec<Long> LONG = new HBCodec<Long>() {
+        @Override
+        public byte[] toBytes(Long value) {
+            return Bytes.toBytes(value.longValue());
+        }
+
+        @Override
+        public Long fromBytes(byte[] bytes, int offset, int length) {
+            return Bytes.toLong(bytes, offset, requireLength(length, Bytes.SIZEOF_LONG));
+        }
+    };
+
+    public static final HBCodec<Float> FLOAT = new HBCodec<Float>() {
+        @Override
+        public byte[] toBytes(Float value) {
+            return Bytes.toBytes(value.floatValue());
+        }
+
+        @Override
+        public Float fromBytes(byte[] bytes, int offset, int length) {
+            return Float.intBitsToFloat(Bytes.toInt(bytes, offset, requireLength(length, Bytes.SIZEOF_FLOAT)));
+        }
+    };
+
+    public static final HBCodec<Double> DOUBLE = new HBCodec<Double>() {
+        @Override
+        public byte[] toBytes(Double value) {
+            return Bytes.toBytes(value.doubleValue());
+        }
+
+        @Override
+        public Double fromBytes(byte[] bytes, int offset, int length) {
+            return Double.longBitsToDouble(Bytes.toLong(bytes, offset, requireLength(length, Bytes.SIZEOF_DOUBLE)));
+        }
+    };
+
+    public static final HBCodec<String> STRING = new HBCodec<String>() {
+        @Override
+        public byte[] toBytes(String value) {
+            return Bytes.toBytes(value);
+        }
+
+        @Override
+        public String fromBytes(byte[] bytes, int offset, int length) {
+            return Bytes.toString(bytes, offset, length);
+        }
+    };
+
+    public static final HBCodec<BigDecimal> BIG_DECIMAL = new HBCodec<BigDecimal>() {
+        @Override
+        public byte[] toBytes(BigDecimal value) {
+            return Bytes.toBytes(value);
+        }
+
+        @Override
+        public BigDecimal fromBytes(byte[] bytes, int offset, int length) {
+            return Bytes.toBigDecimal(bytes, offset, length);
+        }
+    };
+
+    private static final Map<Class<?>, HBCodec<?>> nativeCodecs = Collections.unmodifiableMap(new HashMap<Class<?>, HBCodec<?>>() {
+        {
+            put(Boolean.class, BOOLEAN);
+            put(Short.class, SHORT);
+            put(Integer.class, INTEGER);
+            put(Long.class, LONG);
+            put(Float.class, FLOAT);
+            put(Double.class, DOUBLE);
+            put(String.class, STRING);
+            put(BigDecimal.class, BIG_DECIMAL);
+        }
+    });
+
+    private static final Map<Class<?>, HBCodec<?>> nativeStringCodecs = Collections.unmodifiableMap(new HashMap<Class<?>, HBCodec<?>>() {
+        {
+            put(Boolean.class, new StringRepresentationCodec<Boolean>() {
+                @Override
+                Boolean parse(String s) {
+                    return Boolean.valueOf(s);
+                }
+            });
+            put(Short.class, new StringRepresentationCodec<Short>() {
+                @Override
+                Short parse(String s) {
+                    return Short.valueOf(s);
+                }
+            });
+            put(Integer.class, new StringRepresentationCodec<Integer>() {
+                @Override
+                Integer parse(String s) {
+                    return Integer.valueOf(s);
+                }
+            });
+            put(Long.class, new StringRepresentationCodec<Long>() {
+                @Override
+                Long parse(String s) {
+                    return Long.valueOf(s);
+                }
+            });
+            put(Float.class, new StringRepresentationCodec<Float>() {
+                @Override
+                Float parse(String s) {
+                    return Float.valueOf(s);
+                }
+            });
+            put(Double.class, new StringRepresentationCodec<Double>() {
+                @Override
+                Double parse(String s) {
+                    return Double.valueOf(s);
+                }
+            });
+            put(String.class, STRING);
+            put(BigDecimal.class, new StringRepresentationCodec<BigDecimal>() {
+                @Override
+                BigDecimal parse(String s) {
+                    return new BigDecimal(s);
+                }
+            });
+        }
+    });
+
+    private Codecs() {
+    }
+
+    /**
+     * Get codec for a type that HBase natively converts
+     *
+     * @param clazz             Type
+     * @param serializeAsString Whether values are stored in their string representation (e.g. (int)560034 as "560034")
+     * @return Codec, <code>null</code> if type isn't natively converted
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> HBCodec<T> forNativeType(Class<T> clazz, boolean serializeAsString) {
+        return (HBCodec<T>) (serializeAsString ? nativeStringCodecs : nativeCodecs).get(clazz);
+    }
+
+    private static int requireLength(int length, int size) {
+        if (length < size) {
+            throw new IllegalArgumentException(String.format("Expected at least %d bytes, but got %d", size, length));
+        }
+        return size;
+    }
+
+    /**
+     * Stores values in their string representation. Values that can't be parsed back are read as <code>null</code>
+     */
+    private static abstract class StringRepresentationCodec<T> implements HBCodec<T> {
+        @Override
+        public byte[] toBytes(T value) {
+            return Bytes.toBytes(String.valueOf(value));
+        }
+
+        @Override
+        public T fromBytes(byte[] bytes, int offset, int length) {
+            try {
+                return parse(Bytes.toString(bytes, offset, length));
+            } catch (RuntimeException ex) {
+                return null;
+            }
+        }
+
+        abstract T parse(String s);
+    }
+}
@@ -0,0 +1,21 @@
+package com.flipkart.hbaseobjectmapper.codec;
+
+/**
+ * Format in which values of types that HBase doesn't natively convert (e.g. <code>Map&lt;String, Integer&gt;</code> or your own classes) are stored
+ */
+public enum Format {
+    /**
+     * JSON text (human-readable, but the largest and costliest to parse)
+     */
+    JSON,
+
+    /**
+     * <a href="https://github.com/FasterXML/smile-format-specification">Smile</a>, a binary equivalent of JSON
+     */
+    SMILE,
+
+    /**
+     * <a href="https://tools.ietf.org/html/rfc7049">CBOR</a>, a binary equivalent of JSON
+     */
+    CBOR
+}
@@ -0,0 +1,47 @@
+package com.flipkart.hbaseobjectmapper.codec;
+
+/**
+ * Converts values of one type to byte arrays (stored in HBase cells) and back.
+ * <br><br>
+ * A codec can be registered for a type (see {@link com.flipkart.hbaseobjectmapper.HBObjectMapper#HBObjectMapper(java.util.Map) HBObjectMapper(Map)}) or for a single field (see {@link com.flipkart.hbaseobjectmapper.HBColumn#codec() HBColumn.codec()}). Implementations must be thread-safe.
+ *
+ * @param <T> Type of value
+ */
+public interface HBCodec<T> {
+
+    /**
+     * Converts a value to a byte array
+     *
+     * @param value Value (never <code>null</code>)
+     * @return Byte array (a <code>null</code> or empty array means field is not written)
+     */
+    byte[] toBytes(T value);
+
+    /**
+     * Converts a range of a byte array to a value (the range is never empty). Implementations must not read outside of the range or retain reference to the array
+     *
+     * @param bytes  Array containing the value (e.g. backing array of an HBase cell)
+     * @param offset Offset at which value starts
+     * @param length Length of value
+     * @return Value
+     */
+    T fromBytes(byte[] bytes, int offset, int length);
+
+    /**
+     * Placeholder for "no codec", the default of {@link com.flipkart.hbaseobjectmapper.HBColumn#codec() HBColumn.codec()} (not meant to be used otherwise)
+     */
+    final class None implements HBCodec<Void> {
+        private None() {
+        }
+
+        @Override
+        public byte[] toBytes(Void value) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Void fromBytes(byte[] bytes, int offset, int length) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
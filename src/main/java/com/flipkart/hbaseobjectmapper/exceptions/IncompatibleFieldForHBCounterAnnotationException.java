@@ -0,0 +1,11 @@
+package com.flipkart.hbaseobjectmapper.exceptions;
+
+import com.flipkart.hbaseobjectmapper.HBCounter;
+
+import java.lang.reflect.Field;
+
+public class IncompatibleFieldForHBCounterAnnotationException extends IllegalArgumentException {
+    public IncompatibleFieldForHBCounterAnnotationException(Field field) {
+        super(String.format("A field annotated with @%s should be of type %s or long (field %s in class %s is of type %s)", HBCounter.class.getName(), Long.class.getName(), field.getName(), field.getDeclaringClass().getName(), field.getType().getName()));
+    }
+}
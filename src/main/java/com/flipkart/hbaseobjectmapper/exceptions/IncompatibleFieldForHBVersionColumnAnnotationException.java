@@ -0,0 +1,11 @@
+package com.flipkart.hbaseobjectmapper.exceptions;
+
+import com.flipkart.hbaseobjectmapper.HBVersionColumn;
+
+import java.lang.reflect.Field;
+
+public class IncompatibleFieldForHBVersionColumnAnnotationException extends IllegalArgumentException {
+    public IncompatibleFieldForHBVersionColumnAnnotationException(Field field) {
+        super(String.format("A field annotated with @%s should be of type %s or long (field %s in class %s is of type %s)", HBVersionColumn.class.getName(), Long.class.getName(), field.getName(), field.getDeclaringClass().getName(), field.getType().getName()));
+    }
+}
@@ -0,0 +1,10 @@
+package com.flipkart.hbaseobjectmapper.exceptions;
+
+/**
+ * Exception raised when a codec specified on a field can't be used
+ */
+public class InvalidCodecException extends IllegalArgumentException {
+    public InvalidCodecException(String s, Throwable throwable) {
+        super(s, throwable);
+    }
+}
@@ -2,9 +2,11 @@ package com.flipkart.hbaseobjectmapper.exceptions;
 
 import com.flipkart.hbaseobjectmapper.HBColumn;
 import com.flipkart.hbaseobjectmapper.HBColumnMultiVersion;
+import com.flipkart.hbaseobjectmapper.HBCounter;
+import com.flipkart.hbaseobjectmapper.HBVersionColumn;
 
 public class MissingHBColumnFieldsException extends IllegalArgumentException {
     public MissingHBColumnFieldsException(Class clazz) {
-        super(String.format("Class %s doesn't even have a single field annotated with %s or %s", clazz.getName(), HBColumn.class.getName(), HBColumnMultiVersion.class.getName()));
+        super(String.format("Class %s doesn't even have a single field annotated with %s, %s, %s or %s", clazz.getName(), HBColumn.class.getName(), HBColumnMultiVersion.class.getName(), HBCounter.class.getName(), HBVersionColumn.class.getName()));
     }
 }
@@ -0,0 +1,9 @@
+package com.flipkart.hbaseobjectmapper.exceptions;
+
+import com.flipkart.hbaseobjectmapper.HBVersionColumn;
+
+public class MultipleHBVersionColumnsException extends IllegalArgumentException {
+    public MultipleHBVersionColumnsException(Class clazz) {
+        super(String.format("Class %s has more than one field annotated with @%s (a row can have only one version)", clazz.getName(), HBVersionColumn.class.getName()));
+    }
+}
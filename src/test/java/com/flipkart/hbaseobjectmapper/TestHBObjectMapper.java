@@ -1,10 +1,14 @@
 package com.flipkart.hbaseobjectmapper;
 
+import com.flipkart.hbaseobjectmapper.codec.HBCodec;
+import com.flipkart.hbaseobjectmapper.codecs.UUIDCodec;
 import com.flipkart.hbaseobjectmapper.entities.*;
 import com.flipkart.hbaseobjectmapper.exceptions.*;
+import org.apache.hadoop.hbase.KeyValue;
 import org.apache.hadoop.hbase.client.Put;
 import org.apache.hadoop.hbase.client.Result;
 import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+import org.apache.hadoop.hbase.util.Bytes;
 import org.javatuples.Triplet;
 import org.junit.Rule;
 import org.junit.Test;
@@ -19,15 +23,20 @@ public class TestHBObjectMapper {
     List<Triplet<HBRecord, String, Class<? extends IllegalArgumentException>>> invalidRecordsAndErrorMessages = Arrays.asList(
             triplet(Singleton.getInstance(), "A singleton class", EmptyConstructorInaccessibleException.class),
             triplet(new ClassWithNoEmptyConstructor(1), "Class with no empty constructor", NoEmptyConstructorException.class),
-            triplet(new ClassWithPrimitives(1f), "A class with primitives", MappedColumnCantBePrimitiveException.class),
+            triplet(new ClassWithUnsupportedPrimitive('c'), "A class with a primitive of unsupported type", MappedColumnCantBePrimitiveException.class),
             triplet(new ClassWithTwoFieldsMappedToSameColumn(), "Class with two fields mapped to same column", FieldsMappedToSameColumnException.class),
+            triplet(new ClassWithStaleCodec(), "Class with two fields mapped to same column, and a codec generated before that", FieldsMappedToSameColumnException.class),
             triplet(new ClassWithBadAnnotationStatic(), "Class with a static field mapped to HBase column", MappedColumnCantBeStaticException.class),
             triplet(new ClassWithBadAnnotationTransient("James", "Gosling"), "Class with a transient field mapped to HBase column", MappedColumnCantBeTransientException.class),
             triplet(new ClassWithNoHBColumns(), "Class with no fields mapped with HBColumn", MissingHBColumnFieldsException.class),
             triplet(new ClassWithNoHBRowKeys(), "Class with no fields mapped with HBRowKey", MissingHBRowKeyFieldsException.class),
             triplet(new ClassesWithFieldIncomptibleWithHBColumnMultiVersion.NotMap(), "Class with an incompatible field (not Map) annotated with " + HBColumnMultiVersion.class.getName(), IncompatibleFieldForHBColumnMultiVersionAnnotationException.class),
             triplet(new ClassesWithFieldIncomptibleWithHBColumnMultiVersion.NotNavigableMap(), "Class with an incompatible field (not NavigableMap) annotated with " + HBColumnMultiVersion.class.getName(), IncompatibleFieldForHBColumnMultiVersionAnnotationException.class),
-            triplet(new ClassesWithFieldIncomptibleWithHBColumnMultiVersion.EntryKeyNotLong(), "Class with an incompatible field (NavigableMap's entry key not Long) annotated with " + HBColumnMultiVersion.class.getName(), IncompatibleFieldForHBColumnMultiVersionAnnotationException.class)
+            triplet(new ClassesWithFieldIncomptibleWithHBColumnMultiVersion.EntryKeyNotLong(), "Class with an incompatible field (NavigableMap's entry key not Long) annotated with " + HBColumnMultiVersion.class.getName(), IncompatibleFieldForHBColumnMultiVersionAnnotationException.class),
+            triplet(new ClassWithInaccessibleCodec(), "Class with a field whose codec can't be instantiated", InvalidCodecException.class),
+            triplet(new ClassWithIncompatibleCounter(), "Class with an incompatible field (not Long) annotated with " + HBCounter.class.getName(), IncompatibleFieldForHBCounterAnnotationException.class),
+            triplet(new ClassWithIncompatibleVersionColumn(), "Class with an incompatible field (not Long) annotated with " + HBVersionColumn.class.getName(), IncompatibleFieldForHBVersionColumnAnnotationException.class),
+            triplet(new ClassWithTwoVersionColumns(), "Class with two fields annotated with " + HBVersionColumn.class.getName(), MultipleHBVersionColumnsException.class)
     );
 
     HBObjectMapper hbMapper = new HBObjectMapper();
@@ -111,6 +120,14 @@ public class TestHBObjectMapper {
         assertTrue(hbMapper.isValid(CitizenSummary.class));
     }
 
+    @Test
+    public void testClassMappingCached() {
+        ClassMapping<Citizen> classMapping = hbMapper.getClassMapping(Citizen.class);
+        assertSame("Mapping of a class should be built only once", classMapping, hbMapper.getClassMapping(Citizen.class));
+        assertEquals("Mapped fields differ from fields in mapping", hbMapper.getHBFields(Citizen.class).keySet(), classMapping.getFields().keySet());
+        assertEquals(Arrays.asList("main", "optional"), new ArrayList<String>(new TreeSet<String>(hbMapper.getColumnFamilies(Citizen.class))));
+    }
+
     @Test
     public void testInvalidClasses() {
         Set<String> exceptionMessages = new HashSet<String>();
@@ -283,6 +300,120 @@ public class TestHBObjectMapper {
         }
     }
 
+    @Test
+    public void testReadFromCells() {
+        byte[] row = validObjs.get(0).composeRowKey(), main = Bytes.toBytes("main"), optional = Bytes.toBytes("optional");
+        List<KeyValue> cells = Arrays.asList(
+                new KeyValue(row, optional, Bytes.toBytes("phone_number"), 2L, Bytes.toBytes(200)),
+                new KeyValue(row, main, Bytes.toBytes("name"), 1L, Bytes.toBytes("Old Name")),
+                new KeyValue(row, optional, Bytes.toBytes("unmapped"), 5L, Bytes.toBytes("ignored")),
+                new KeyValue(row, main, Bytes.toBytes("name"), 3L, Bytes.toBytes("New Name")),
+                new KeyValue(row, optional, Bytes.toBytes("phone_number"), 1L, Bytes.toBytes(100)),
+                new KeyValue(row, main, Bytes.toBytes("name"), 2L, Bytes.toBytes("Older Name"))
+        );
+        List<Result> results = Arrays.asList(new Result(cells), new Result(sortedCopy(cells)));
+        for (Result result : results) {
+            Citizen citizen = hbMapper.readValue(result, Citizen.class);
+            assertEquals("Latest version of a single-versioned column should be read", "New Name", citizen.getName());
+            NavigableMap<Long, Integer> expectedPhoneNumberHistory = new TreeMap<Long, Integer>();
+            expectedPhoneNumberHistory.put(1L, 100);
+            expectedPhoneNumberHistory.put(2L, 200);
+            assertEquals("All versions of a multi-versioned column should be read", expectedPhoneNumberHistory, citizen.getPhoneNumberHistory());
+            assertNull("Unmapped field should remain unset", citizen.getAge());
+        }
+    }
+
+    @Test
+    public void testWrittenCellsSorted() {
+        for (Citizen obj : validObjs) {
+            List<KeyValue> cells = hbMapper.writeValueAsResult(obj).list();
+            assertEquals("Cells of Result should be in HBase's order", sortedCopy(cells), cells);
+        }
+        List<KeyValue> cells = hbMapper.writeValueAsResult(new Crawl("key").addF1(1L, 1.0).addF1(2L, 2.0).addF1(3L, 3.0)).list();
+        assertEquals("Versions of a cell should be in HBase's order", sortedCopy(cells), cells);
+    }
+
+    private static List<KeyValue> sortedCopy(List<KeyValue> cells) {
+        List<KeyValue> sortedCells = new ArrayList<KeyValue>(cells);
+        Collections.sort(sortedCells, KeyValue.COMPARATOR);
+        return sortedCells;
+    }
+
+    @Test
+    public void testPrimitives() {
+        ClassWithPrimitives obj = new ClassWithPrimitives(true, (short) 7, 560034, 1L << 40, 1.5f, 2.25);
+        Result result = hbMapper.writeValueAsResult(obj);
+        assertEquals("Primitive fields should be stored the way their boxed counterparts are", 560034, Bytes.toInt(result.getValue(Bytes.toBytes("a"), Bytes.toBytes("i"))));
+        assertEquals("Primitive field with serializeAsString should be stored as string", "2.25", Bytes.toString(result.getValue(Bytes.toBytes("a"), Bytes.toBytes("d"))));
+        assertEquals("Data mismatch after deserialization from Result", obj, hbMapper.readValue(result, ClassWithPrimitives.class));
+        assertEquals("Data mismatch after deserialization from Put", obj, hbMapper.readValue(hbMapper.writeValueAsPut(obj), ClassWithPrimitives.class));
+        assertEquals("Zero values should be written too", 6, hbMapper.writeValueAsResult(new ClassWithPrimitives(false, (short) 0, 0, 0, 0, 0)).size());
+        List<KeyValue> cellsWithoutL = new ArrayList<KeyValue>();
+        for (KeyValue kv : result.raw()) {
+            if (!Bytes.toString(kv.getQualifier()).equals("l"))
+                cellsWithoutL.add(kv);
+        }
+        assertEquals("Field of absent column should retain value assigned by empty constructor", new ClassWithPrimitives(true, (short) 7, 560034, -1, 1.5f, 2.25), hbMapper.readValue(new Result(cellsWithoutL), ClassWithPrimitives.class));
+    }
+
+    @Test
+    public void testFormats() {
+        Map<String, Integer> flags = new HashMap<String, Integer>();
+        flags.put("showAds", 1);
+        flags.put("showTitle", 0);
+        NavigableMap<Long, Dependents> dependents = new TreeMap<Long, Dependents>();
+        dependents.put(1L, new Dependents(121, Arrays.asList(122, 123)));
+        dependents.put(2L, new Dependents(131, null));
+        ClassWithFormats obj = new ClassWithFormats("key", flags, dependents);
+        Result result = hbMapper.writeValueAsResult(obj);
+        byte[] a = Bytes.toBytes("a");
+        byte[] json = result.getValue(a, Bytes.toBytes("json")), smile = result.getValue(a, Bytes.toBytes("smile")), cbor = result.getValue(a, Bytes.toBytes("cbor"));
+        assertEquals("Field with default format should be stored as JSON", '{', json[0]);
+        assertEquals("Field with Smile format should be stored with Smile header", ":)\n", Bytes.toString(smile, 0, 3));
+        assertTrue("Field with CBOR format should be smaller than JSON", cbor.length < json.length);
+        assertEquals("Data mismatch after deserialization from Result", obj, hbMapper.readValue(result, ClassWithFormats.class));
+        assertEquals("Data mismatch after deserialization from Put", obj, hbMapper.readValue(hbMapper.writeValueAsPut(obj), ClassWithFormats.class));
+    }
+
+    @Test
+    public void testLazyRecord() {
+        Citizen citizen = validObjs.get(0);
+        Result result = hbMapper.writeValueAsResult(citizen);
+        LazyRecord<Citizen> lazyRecord = hbMapper.readValueLazily(result, Citizen.class);
+        assertArrayEquals("Row key mismatch", citizen.composeRowKey(), lazyRecord.getRowKey());
+        assertEquals("Field value mismatch", Bytes.toString(result.getValue(Bytes.toBytes("main"), Bytes.toBytes("name"))), lazyRecord.get("name"));
+        assertEquals("Data mismatch after lazy deserialization", citizen, lazyRecord.getRecord());
+        assertSame("Record should be built only once", lazyRecord.getRecord(), lazyRecord.getRecord());
+        assertNull("Empty result should be read as null", hbMapper.readValueLazily(new Result(), Citizen.class));
+
+        List<KeyValue> cellsWithCorruptValue = new ArrayList<KeyValue>();
+        for (KeyValue kv : result.raw()) {
+            boolean corrupt = Bytes.toString(kv.getQualifier()).equals("dependents");
+            cellsWithCorruptValue.add(corrupt ? new KeyValue(kv.getRow(), kv.getFamily(), kv.getQualifier(), kv.getTimestamp(), Bytes.toBytes("{corrupt")) : kv);
+        }
+        lazyRecord = hbMapper.readValueLazily(new Result(cellsWithCorruptValue), Citizen.class);
+        assertEquals("Fields other than the accessed one shouldn't be decoded", Bytes.toString(result.getValue(Bytes.toBytes("main"), Bytes.toBytes("name"))), lazyRecord.get("name"));
+        thrown.expect(ConversionFailedException.class);
+        lazyRecord.get("dependents");
+    }
+
+    @Test
+    public void testCodecs() {
+        HBObjectMapper hbMapperWithCodecs = new HBObjectMapper(Collections.<Class<?>, HBCodec<?>>singletonMap(UUID.class, new UUIDCodec()));
+        NavigableMap<Long, Long> history = new TreeMap<Long, Long>();
+        history.put(1L, 35L);
+        history.put(2L, 36L);
+        ClassWithCodecs obj = new ClassWithCodecs("key", UUID.randomUUID(), 1295L, history);
+        Result result = hbMapperWithCodecs.writeValueAsResult(obj);
+        byte[] a = Bytes.toBytes("a");
+        assertEquals("Codec registered for type wasn't used", 16, result.getValue(a, Bytes.toBytes("id")).length);
+        assertEquals("Codec specified on field wasn't used", "zz", Bytes.toString(result.getValue(a, Bytes.toBytes("count"))));
+        assertEquals("Codec specified on multi-versioned field wasn't used", "10", Bytes.toString(result.getColumnLatest(a, Bytes.toBytes("history")).getValue()));
+        assertEquals("Data mismatch after deserialization from Result", obj, hbMapperWithCodecs.readValue(result, ClassWithCodecs.class));
+        assertEquals("Data mismatch after deserialization from Put", obj, hbMapperWithCodecs.readValue(hbMapperWithCodecs.writeValueAsPut(obj), ClassWithCodecs.class));
+        assertNotEquals("Without a registered codec, UUID should be stored as JSON", 16, hbMapper.writeValueAsResult(obj).getValue(a, Bytes.toBytes("id")).length);
+    }
+
     @Test
     public void testHBColumnMultiVersion() {
         Double[] testNumbers = new Double[]{3.14159, 2.71828, 0.0};
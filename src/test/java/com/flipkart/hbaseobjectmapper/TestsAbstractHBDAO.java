@@ -5,21 +5,33 @@ import com.flipkart.hbaseobjectmapper.daos.CitizenSummaryDAO;
 import com.flipkart.hbaseobjectmapper.daos.CrawlDAO;
 import com.flipkart.hbaseobjectmapper.daos.CrawlNoVersionDAO;
 import com.flipkart.hbaseobjectmapper.entities.Citizen;
+import com.flipkart.hbaseobjectmapper.entities.CitizenSummary;
 import com.flipkart.hbaseobjectmapper.entities.Crawl;
 import com.flipkart.hbaseobjectmapper.entities.CrawlNoVersion;
+import com.google.common.base.Predicate;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.MoreExecutors;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.hbase.*;
 import org.apache.hadoop.hbase.client.HBaseAdmin;
+import org.apache.hadoop.hbase.client.HTableInterface;
+import org.apache.hadoop.hbase.client.HTablePool;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.RowLock;
 import org.apache.hadoop.hbase.util.Bytes;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.lang.reflect.Field;
+import java.math.BigDecimal;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 
@@ -154,6 +166,7 @@ public class TestsAbstractHBDAO {
                 rowKeys.add(rowKey);
                 Citizen pe = citizenDao.get(rowKey.bytes());
                 assertEquals("Entry got corrupted upon persisting and fetching back", e, pe);
+                assertEquals("Entry got corrupted upon persisting and fetching back lazily", e, citizenDao.getLazily(rowKey.bytes()).getRecord());
                 for (String f : citizenDao.getFields()) {
                     try {
                         Field field = Citizen.class.getDeclaredField(f);
@@ -200,6 +213,32 @@ public class TestsAbstractHBDAO {
         for (int i = 0; i < citizens.size(); i++) {
             assertEquals("When retrieved in bulk (range scan), we have unexpected entry", citizens.get(i), testObjs.get(i));
         }
+        try (CloseableIterator<Citizen> scanned = citizenDao.scan(rowKeys.get(0).bytes(), rowKeys.get(rowKeys.size() - 1).bytes())) {
+            for (Citizen citizen : citizens) {
+                assertTrue("Streaming scan returned fewer rows than range get", scanned.hasNext());
+                assertEquals("Data mismatch between streaming scan and range get", citizen, scanned.next());
+            }
+            assertFalse("Streaming scan returned more rows than range get", scanned.hasNext());
+            scanned.close(); // closing an exhausted iterator again is harmless
+        }
+        try (CloseableIterator<Citizen> scanned = citizenDao.scan(rowKeys.get(0).bytes(), rowKeys.get(rowKeys.size() - 1).bytes())) {
+            assertEquals("Data mismatch between streaming scan and range get", citizens.get(0), scanned.next());
+            scanned.close();
+            assertFalse("Streaming scan returned rows after being closed", scanned.hasNext());
+        }
+        try (CloseableIterator<Citizen> scanned = citizenDao.scan(rowKeys.get(0).bytes(), rowKeys.get(rowKeys.size() - 1).bytes())) {
+            assertTrue("Streaming scan returned no rows", scanned.hasNext()); // reads a row ahead
+            scanned.close();
+            assertFalse("Streaming scan returned the row it read ahead after being closed", scanned.hasNext());
+        }
+        assertTrue("Scanner caching wasn't derived from entity", citizenDao.getScanOptions().getCaching() > 1);
+        ScanOptions tinyScanOptions = ScanOptions.CLIENT_DEFAULTS.caching(1).batch(2).maxResultSize(1).cacheBlocks(false);
+        assertEquals("Data mismatch between tuned and untuned range get (rows split by batch size should be stitched back)",
+                citizens, citizenDao.get(rowKeys.get(0).bytes(), rowKeys.get(rowKeys.size() - 1).bytes(), 1, tinyScanOptions));
+        ScanOptions daoScanOptions = citizenDao.getScanOptions();
+        citizenDao.setScanOptions(tinyScanOptions);
+        assertEquals("Data mismatch between range get with tuned DAO and untuned range get", citizens, citizenDao.get(rowKeys.get(0).bytes(), rowKeys.get(rowKeys.size() - 1).bytes()));
+        citizenDao.setScanOptions(daoScanOptions);
         for (String f : citizenDao.getFields()) {
             // rowKey ---> fieldValue
             Map<RowKey, Object> actualFieldValues = citizenDao.fetchFieldValues(rowKeys, f);
@@ -221,6 +260,16 @@ public class TestsAbstractHBDAO {
         assertEquals(expectedSumOfSalaries, actualSumOfSalaries);
         assertArrayEquals("Data mismatch between single and bulk 'get' calls", testObjs.toArray(), citizenDao.get(rowKeys).toArray());
         assertEquals("Data mismatch between List and array bulk variants of 'get' calls", testObjs, citizenDao.get(rowKeys));
+        ExecutorService multiGetExecutor = Executors.newFixedThreadPool(2);
+        try {
+            List<RowKey> rowKeysWithMissing = new ArrayList<>(rowKeys);
+            rowKeysWithMissing.add(1, new RowKey("missing#row".getBytes()));
+            List<Citizen> expectedWithMissing = new ArrayList<>(testObjs);
+            expectedWithMissing.add(1, null);
+            assertEquals("Data mismatch between serial and parallel bulk 'get' calls", expectedWithMissing, citizenDao.get(rowKeysWithMissing, 1, multiGetExecutor));
+        } finally {
+            multiGetExecutor.shutdown();
+        }
         Citizen citizenToBeDeleted = testObjs.get(0);
         citizenDao.delete(citizenToBeDeleted);
         assertNull("Record was not deleted: " + citizenToBeDeleted, citizenDao.get(citizenToBeDeleted.composeRowKey()));
@@ -286,6 +335,642 @@ public class TestsAbstractHBDAO {
         assertNull("Row with key '" + deleteKey4 + "' exists, when written through versioned DAO and deleted through unversioned DAO!", crawlNoVersionDAO.get(deleteKey4.getBytes()));
     }
 
+    public void testBufferedWriter() throws Exception {
+        final List<CrawlNoVersion> failedRecords = new CopyOnWriteArrayList<>();
+        BufferedHBWriter<CrawlNoVersion> writer = crawlNoVersionDAO.newBufferedWriter(WriteBufferOptions.DEFAULTS.queueCapacity(10).flushRecords(7).flushInterval(50, TimeUnit.MILLISECONDS),
+                new WriteFailureListener<CrawlNoVersion>() {
+                    @Override
+                    public void onFailure(CrawlNoVersion record, Throwable cause) {
+                        failedRecords.add(record);
+                    }
+                });
+        List<RowKey> rowKeys = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            CrawlNoVersion record = new CrawlNoVersion("buffered" + i).setF1((double) i);
+            writer.write(record);
+            rowKeys.add(new RowKey(record.composeRowKey()));
+        }
+        writer.flush();
+        assertTrue("Records failed to be written through buffered writer: " + failedRecords, failedRecords.isEmpty());
+        List<CrawlNoVersion> written = crawlNoVersionDAO.get(rowKeys);
+        for (int i = 0; i < written.size(); i++) {
+            assertEquals("Record written through buffered writer wasn't found (or was corrupted) after flush", (double) i, written.get(i).getF1(), 1e-9);
+        }
+        writer.write(new CrawlNoVersion("buffered_last").setF1(-1.0));
+        writer.close();
+        writer.close(); // closing again is harmless
+        assertEquals("Record written through buffered writer wasn't flushed on close", -1.0, crawlNoVersionDAO.get("buffered_last".getBytes()).getF1(), 1e-9);
+        try {
+            writer.write(new CrawlNoVersion("buffered_after_close").setF1(0.0));
+            fail("Buffered writer accepted a record after it was closed");
+        } catch (IllegalStateException ignored) {
+        }
+        // writes racing with concurrent closes: every write that's accepted is written, and closes don't fail
+        final BufferedHBWriter<CrawlNoVersion> racingWriter = crawlNoVersionDAO.newBufferedWriter(WriteBufferOptions.DEFAULTS.queueCapacity(5).flushRecords(3), null);
+        final List<RowKey> acceptedRowKeys = new CopyOnWriteArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 2; t++) {
+            final int thread = t;
+            futures.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws IOException {
+                    for (int i = 0; i < 200; i++) {
+                        CrawlNoVersion record = new CrawlNoVersion("racing" + thread + "_" + i).setF1((double) i);
+                        try {
+                            racingWriter.write(record);
+                        } catch (IllegalStateException e) { // writer was closed
+                            break;
+                        }
+                        acceptedRowKeys.add(new RowKey(record.composeRowKey()));
+                    }
+                    return null;
+                }
+            }));
+            futures.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    Thread.sleep(5);
+                    racingWriter.close();
+                    return null;
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        for (CrawlNoVersion record : crawlNoVersionDAO.get(acceptedRowKeys)) {
+            assertNotNull("Record accepted by a writer that was being closed wasn't written", record);
+        }
+    }
+
+    public void testSharedDAO() throws Exception {
+        final int NUM_THREADS = 8, NUM_RECORDS_PER_THREAD = 25;
+        HTablePool tablePool = new HTablePool(configuration, NUM_THREADS);
+        final CrawlNoVersionDAO sharedDao = new CrawlNoVersionDAO(configuration, tablePool);
+        ExecutorService executorService = Executors.newFixedThreadPool(NUM_THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < NUM_THREADS; t++) {
+                final int thread = t;
+                futures.add(executorService.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        for (int i = 0; i < NUM_RECORDS_PER_THREAD; i++) {
+                            String key = "shared" + thread + "_" + i;
+                            sharedDao.persist(new CrawlNoVersion(key).setF1((double) i));
+                            assertEquals("Record written by one of many threads sharing a DAO wasn't read back", (double) i, sharedDao.get(key.getBytes()).getF1(), 1e-9);
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdown();
+            sharedDao.close();
+            sharedDao.close(); // closing again must be harmless
+            tablePool.close();
+        }
+    }
+
+    @SuppressWarnings("deprecation") // row locks
+    public void testAsyncDAO() throws Exception {
+        try (AsyncHBDAO<CrawlNoVersion> asyncDao = new AsyncHBDAO<>(crawlNoVersionDAO, 4, 100, 30, TimeUnit.SECONDS)) {
+            CrawlNoVersion record = new CrawlNoVersion("async").setF1(3.14);
+            byte[] rowKey = asyncDao.persist(record).get();
+            assertEquals("Record persisted asynchronously wasn't read back asynchronously", record.getF1(), asyncDao.get(rowKey).get().getF1());
+            List<CrawlNoVersion> records = asyncDao.get(Arrays.asList(new RowKey(rowKey), new RowKey("asyncMissing".getBytes()))).get();
+            assertEquals("Records fetched asynchronously in bulk don't match", record.getF1(), records.get(0).getF1());
+            assertNull("Asynchronous bulk get of a missing row returned a record", records.get(1));
+            assertEquals("Field value fetched asynchronously doesn't match", record.getF1(), asyncDao.fetchFieldValue(rowKey, "f1").get());
+            asyncDao.delete(rowKey).get();
+            assertNull("Record deleted asynchronously still exists", asyncDao.get(rowKey).get());
+        }
+        ExecutorService busyExecutor = Executors.newSingleThreadExecutor();
+        final CountDownLatch release = new CountDownLatch(1);
+        try (AsyncHBDAO<CrawlNoVersion> asyncDao = new AsyncHBDAO<>(crawlNoVersionDAO, busyExecutor, ForkJoinPool.commonPool(), 100, TimeUnit.MILLISECONDS)) {
+            busyExecutor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    release.await();
+                    return null;
+                }
+            });
+            try {
+                asyncDao.get("async".getBytes()).get();
+                fail("Asynchronous call didn't time out while I/O executor was busy");
+            } catch (ExecutionException e) {
+                assertTrue("Asynchronous call failed with unexpected exception: " + e.getCause(), e.getCause() instanceof TimeoutException);
+            }
+        } finally {
+            release.countDown();
+            busyExecutor.shutdown();
+        }
+        // a delete of a locked row stalls on the region server, and HBase client doesn't give up such a call when it's thread is interrupted
+        byte[] freeRowKey = crawlNoVersionDAO.persist(new CrawlNoVersion("asyncFree").setF1(1.0));
+        byte[] lockedRowKey = crawlNoVersionDAO.persist(new CrawlNoVersion("asyncLocked").setF1(2.0));
+        HTableInterface table = crawlNoVersionDAO.checkoutTable();
+        RowLock rowLock = table.lockRow(lockedRowKey);
+        try (AsyncHBDAO<CrawlNoVersion> asyncDao = new AsyncHBDAO<>(crawlNoVersionDAO, 1, 10, 1, TimeUnit.SECONDS)) {
+            try {
+                asyncDao.delete(lockedRowKey).get();
+                fail("Asynchronous delete of a locked row didn't time out");
+            } catch (ExecutionException e) {
+                assertTrue("Asynchronous call failed with unexpected exception: " + e.getCause(), e.getCause() instanceof TimeoutException);
+            }
+            try (AsyncHBDAO<CrawlNoVersion> patientAsyncDao = asyncDao.withTimeout(5, TimeUnit.SECONDS)) {
+                assertEquals(1.0, patientAsyncDao.get(freeRowKey).get().getF1(), 1e-9);
+            } catch (ExecutionException e) {
+                fail("Asynchronous call that timed out still held the only I/O thread: " + e.getCause());
+            }
+        } finally {
+            table.unlockRow(rowLock);
+            table.close();
+        }
+    }
+
+    public void testCache() throws Exception {
+        crawlNoVersionDAO.enableCache(CacheOptions.DEFAULTS.maximumEntries(2));
+        try {
+            byte[] rowKey = crawlNoVersionDAO.persist(new CrawlNoVersion("cached").setF1(1.0));
+            assertEquals(1.0, crawlNoVersionDAO.get(rowKey).getF1(), 1e-9);
+            assertSame("Repeat read wasn't served from cache", crawlNoVersionDAO.get(rowKey), crawlNoVersionDAO.get(rowKey));
+            assertEquals(2, crawlNoVersionDAO.getCacheStats().hitCount());
+            assertSame("Parallel read wasn't served from cache", crawlNoVersionDAO.get(rowKey), crawlNoVersionDAO.get(Collections.singletonList(new RowKey(rowKey)), 1, MoreExecutors.sameThreadExecutor()).get(0));
+            try (AsyncHBDAO<CrawlNoVersion> asyncDao = new AsyncHBDAO<>(crawlNoVersionDAO, 1, 10, 30, TimeUnit.SECONDS)) {
+                assertSame("Asynchronous bulk read wasn't served from cache", crawlNoVersionDAO.get(rowKey), asyncDao.get(Collections.singletonList(new RowKey(rowKey))).get().get(0));
+            }
+            crawlNoVersionDAO.persist(new CrawlNoVersion("cached").setF1(2.0));
+            assertEquals("Cached row wasn't invalidated upon persisting", 2.0, crawlNoVersionDAO.get(rowKey).getF1(), 1e-9);
+            crawlNoVersionDAO.delete(rowKey);
+            assertNull("Cached row wasn't invalidated upon deleting", crawlNoVersionDAO.get(rowKey));
+            List<RowKey> rowKeys = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                rowKeys.add(new RowKey(crawlNoVersionDAO.persist(new CrawlNoVersion("cached" + i).setF1((double) i))));
+            }
+            crawlNoVersionDAO.get(rowKeys);
+            List<CrawlNoVersion> records = crawlNoVersionDAO.get(rowKeys);
+            for (int i = 0; i < records.size(); i++) {
+                assertEquals("Bulk read through cache returned unexpected rows", (double) i, records.get(i).getF1(), 1e-9);
+            }
+            assertTrue("Cache wasn't bound by number of entries", crawlNoVersionDAO.getCacheStats().evictionCount() > 0);
+        } finally {
+            crawlNoVersionDAO.disableCache();
+        }
+        assertNull(crawlNoVersionDAO.getCacheStats());
+    }
+
+    public void testCacheRacingWithPersist() throws Exception {
+        final CountDownLatch fetched = new CountDownLatch(1), persisted = new CountDownLatch(1);
+        // a DAO whose gets stall after fetching a row, until it's persisted afresh
+        final AbstractHBDAO<CrawlNoVersion> slowDao = new AbstractHBDAO<CrawlNoVersion>(configuration) {
+            @Override
+            Result fetchRow(byte[] rowKey, int versions) throws IOException {
+                Result result = super.fetchRow(rowKey, versions);
+                fetched.countDown();
+                try {
+                    persisted.await();
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException();
+                }
+                return result;
+            }
+        };
+        slowDao.enableCache(CacheOptions.DEFAULTS);
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            final byte[] rowKey = slowDao.persist(new CrawlNoVersion("racing").setF1(1.0));
+            Future<CrawlNoVersion> slowGet = executorService.submit(new Callable<CrawlNoVersion>() {
+                @Override
+                public CrawlNoVersion call() throws Exception {
+                    return slowDao.get(rowKey);
+                }
+            });
+            fetched.await();
+            slowDao.persist(new CrawlNoVersion("racing").setF1(2.0));
+            persisted.countDown();
+            assertEquals(1.0, slowGet.get().getF1(), 1e-9);
+            assertEquals("Row fetched before it was persisted was cached after it", 2.0, slowDao.get(rowKey).getF1(), 1e-9);
+        } finally {
+            executorService.shutdown();
+            slowDao.close();
+        }
+    }
+
+    public void testCoalescing() throws Exception {
+        final int NUM_THREADS = 8;
+        final AtomicInteger fetches = new AtomicInteger();
+        // a DAO that counts multi-gets
+        final AbstractHBDAO<CrawlNoVersion> countingDao = new AbstractHBDAO<CrawlNoVersion>(configuration) {
+            @Override
+            Result[] fetchRows(List<RowKey> rowKeys, int versions) throws IOException {
+                fetches.incrementAndGet();
+                return super.fetchRows(rowKeys, versions);
+            }
+        };
+        final List<byte[]> rowKeys = new ArrayList<>();
+        for (int i = 0; i < NUM_THREADS / 2 - 1; i++) {
+            rowKeys.add(countingDao.persist(new CrawlNoVersion("coalesced" + i).setF1((double) i)));
+        }
+        rowKeys.add("coalescedMissing".getBytes());
+        // window is wide enough for all threads to join one batch, so that gets of the same row key share a fetch
+        countingDao.enableCoalescing(100, 500, TimeUnit.MILLISECONDS);
+        ExecutorService executorService = Executors.newFixedThreadPool(NUM_THREADS);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            List<Future<CrawlNoVersion>> futures = new ArrayList<>();
+            for (int t = 0; t < NUM_THREADS; t++) {
+                final byte[] rowKey = rowKeys.get(t % rowKeys.size());
+                futures.add(executorService.submit(new Callable<CrawlNoVersion>() {
+                    @Override
+                    public CrawlNoVersion call() throws Exception {
+                        start.await();
+                        return countingDao.get(rowKey);
+                    }
+                }));
+            }
+            start.countDown();
+            for (int t = 0; t < NUM_THREADS; t++) {
+                int i = t % rowKeys.size();
+                CrawlNoVersion record = futures.get(t).get();
+                if (i == rowKeys.size() - 1) {
+                    assertNull("Coalesced get of a missing row returned a record", record);
+                } else {
+                    assertEquals("Coalesced get returned an unexpected row", (double) i, record.getF1(), 1e-9);
+                    if (t != i)
+                        assertNotSame("Concurrent gets of the same row key share a record", futures.get(i).get(), record);
+                }
+            }
+            assertEquals("Concurrent gets weren't coalesced into one fetch", 1, fetches.get());
+        } finally {
+            executorService.shutdown();
+            countingDao.disableCoalescing();
+        }
+        assertEquals("Get didn't work after coalescing was disabled", 0.0, countingDao.get(rowKeys.get(0)).getF1(), 1e-9);
+        countingDao.close();
+    }
+
+    public void testCoalescingRacingWithPersist() throws Exception {
+        final CountDownLatch fetched = new CountDownLatch(1), persisted = new CountDownLatch(1);
+        final AtomicInteger fetches = new AtomicInteger();
+        // a DAO whose first multi-get stalls after fetching rows, until they're persisted afresh
+        final AbstractHBDAO<CrawlNoVersion> slowDao = new AbstractHBDAO<CrawlNoVersion>(configuration) {
+            @Override
+            Result[] fetchRows(List<RowKey> rowKeys, int versions) throws IOException {
+                Result[] results = super.fetchRows(rowKeys, versions);
+                if (fetches.incrementAndGet() == 1) {
+                    fetched.countDown();
+                    try {
+                        persisted.await();
+                    } catch (InterruptedException e) {
+                        throw new InterruptedIOException();
+                    }
+                }
+                return results;
+            }
+        };
+        final byte[] rowKey = slowDao.persist(new CrawlNoVersion("coalescedRacing").setF1(1.0));
+        slowDao.enableCoalescing(1, 0, TimeUnit.MILLISECONDS);
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            Callable<CrawlNoVersion> get = new Callable<CrawlNoVersion>() {
+                @Override
+                public CrawlNoVersion call() throws Exception {
+                    return slowDao.get(rowKey);
+                }
+            };
+            Future<CrawlNoVersion> slowGet = executorService.submit(get);
+            fetched.await();
+            slowDao.persist(new CrawlNoVersion("coalescedRacing").setF1(2.0));
+            Future<CrawlNoVersion> getAfterPersist = executorService.submit(get);
+            try {
+                assertEquals("Get that began after a persist returned the row from before it", 2.0, getAfterPersist.get(10, TimeUnit.SECONDS).getF1(), 1e-9);
+            } catch (TimeoutException e) {
+                fail("Get that began after a persist joined a fetch that began before it");
+            } finally {
+                persisted.countDown();
+            }
+            assertEquals(1.0, slowGet.get().getF1(), 1e-9);
+        } finally {
+            executorService.shutdown();
+            slowDao.close();
+        }
+    }
+
+    public void testParallelScan() throws Exception {
+        final int NUM_RECORDS = 30;
+        List<String> expectedKeys = new ArrayList<>();
+        for (int i = 0; i < NUM_RECORDS; i++) {
+            String key = String.format("parallel%02d", i);
+            crawlNoVersionDAO.persist(new CrawlNoVersion(key).setF1((double) i));
+            if (i >= 5 && i < 25)
+                expectedKeys.add(key);
+        }
+        HBaseAdmin hBaseAdmin = new HBaseAdmin(configuration);
+        try {
+            for (String splitKey : new String[]{"parallel10", "parallel20"}) {
+                hBaseAdmin.split(crawlNoVersionDAO.getTableName().getBytes(), splitKey.getBytes());
+                for (int i = 0; i < 60 && !isRegionStart(hBaseAdmin, splitKey); i++) {
+                    Thread.sleep(500);
+                }
+            }
+            int numOnlineRegions = 0;
+            for (HRegionInfo regionInfo : hBaseAdmin.getTableRegions(crawlNoVersionDAO.getTableName().getBytes())) {
+                if (!regionInfo.isOffline() && !regionInfo.isSplit())
+                    numOnlineRegions++;
+            }
+            assertTrue("Table wasn't split into 3 regions (parallel scan would go untested)", numOnlineRegions >= 3);
+        } finally {
+            hBaseAdmin.close();
+        }
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            for (boolean ordered : new boolean[]{true, false}) {
+                List<String> keys = new ArrayList<>();
+                try (CloseableIterator<CrawlNoVersion> records = crawlNoVersionDAO.scan("parallel05".getBytes(), "parallel25".getBytes(), 1, executorService, 2, ordered)) {
+                    while (records.hasNext()) {
+                        keys.add(Bytes.toString(records.next().composeRowKey()));
+                    }
+                }
+                if (!ordered)
+                    Collections.sort(keys);
+                assertEquals("Parallel scan (ordered: " + ordered + ") returned unexpected rows", expectedKeys, keys);
+            }
+            try (CloseableIterator<CrawlNoVersion> records = crawlNoVersionDAO.scan("parallel".getBytes(), "parallel99".getBytes(), 1, executorService, 2, false)) {
+                assertTrue(records.hasNext());
+                records.next();
+            } // closing early shouldn't leave scans hanging on executor
+            assertEquals("Parallel scan didn't work after an earlier one was abandoned", expectedKeys.size(), crawlNoVersionDAO.get("parallel05".getBytes(), "parallel25".getBytes()).size());
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    private boolean isRegionStart(HBaseAdmin hBaseAdmin, String rowKey) throws IOException {
+        List<HRegionInfo> regions = hBaseAdmin.getTableRegions(crawlNoVersionDAO.getTableName().getBytes());
+        if (regions == null) // table's regions are in transition
+            return false;
+        for (HRegionInfo regionInfo : regions) {
+            if (!regionInfo.isOffline() && !regionInfo.isSplit() && Bytes.equals(regionInfo.getStartKey(), rowKey.getBytes()))
+                return true;
+        }
+        return false;
+    }
+
+    public void testQuery() throws IOException {
+        List<Citizen> citizens = citizenDao.get(HConstants.EMPTY_START_ROW, HConstants.EMPTY_END_ROW);
+        assertQuery("gt", citizens, citizenDao.where("age").gt((short) 5), new Predicate<Citizen>() {
+            @Override
+            public boolean apply(Citizen c) {
+                return c.getAge() != null && c.getAge() > 5;
+            }
+        });
+        assertQuery("lt (across sign)", citizens, citizenDao.where("age").lt((short) 28), new Predicate<Citizen>() {
+            @Override
+            public boolean apply(Citizen c) {
+                return c.getAge() != null && c.getAge() < 28;
+            }
+        });
+        assertQuery("le (negative bound)", citizens, citizenDao.where("f3").le(-1L), new Predicate<Citizen>() {
+            @Override
+            public boolean apply(Citizen c) {
+                return c.getF3() != null && c.getF3() <= -1L;
+            }
+        });
+        assertQuery("ge (negative bound)", citizens, citizenDao.where("f3").ge(-34L), new Predicate<Citizen>() {
+            @Override
+            public boolean apply(Citizen c) {
+                return c.getF3() != null && c.getF3() >= -34L;
+            }
+        });
+        assertQuery("and/or", citizens, citizenDao.where("name").prefix("A").and("age").ge((short) 0).or("name").in("Manu", "Nilesh"), new Predicate<Citizen>() {
+            @Override
+            public boolean apply(Citizen c) {
+                return c.getName() != null && (c.getName().startsWith("A") && c.getAge() != null && c.getAge() >= 0 || c.getName().equals("Manu") || c.getName().equals("Nilesh"));
+            }
+        });
+        assertQuery("ne", citizens, citizenDao.where("name").ne("Manu"), new Predicate<Citizen>() {
+            @Override
+            public boolean apply(Citizen c) {
+                return c.getName() != null && !c.getName().equals("Manu");
+            }
+        });
+        Map<String, Object> unorderedFields = new HashMap<>();
+        unorderedFields.put("f1", 0f);
+        unorderedFields.put("pincode", 0);
+        unorderedFields.put("f4", BigDecimal.ZERO);
+        for (Map.Entry<String, Object> field : unorderedFields.entrySet()) {
+            try {
+                citizenDao.where(field.getKey()).gt(field.getValue());
+                fail("Range condition on field '" + field.getKey() + "', whose encoding doesn't preserve order, was accepted");
+            } catch (IllegalArgumentException ignored) {
+            }
+        }
+        try {
+            citizenDao.where("age").eq(30);
+            fail("Condition with a value of wrong type was accepted");
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+
+    public void testAggregations() throws IOException {
+        byte[] start = HConstants.EMPTY_START_ROW, end = HConstants.EMPTY_END_ROW;
+        List<Citizen> citizens = citizenDao.get(start, end);
+        assertEquals("Count of rows didn't match", citizens.size(), citizenDao.count(start, end));
+        LongSummaryStatistics expectedAges = new LongSummaryStatistics(), expectedPincodes = new LongSummaryStatistics();
+        DoubleSummaryStatistics expectedF2s = new DoubleSummaryStatistics();
+        NavigableMap<Double, Long> expectedAgeHistogram = new TreeMap<>();
+        for (Citizen citizen : citizens) {
+            if (citizen.getAge() != null) {
+                expectedAges.accept(citizen.getAge());
+                double bucket = Math.floor(citizen.getAge() / 10.0) * 10;
+                expectedAgeHistogram.put(bucket, expectedAgeHistogram.containsKey(bucket) ? expectedAgeHistogram.get(bucket) + 1 : 1);
+            }
+            if (citizen.getPincode() != null)
+                expectedPincodes.accept(citizen.getPincode());
+            if (citizen.getF2() != null)
+                expectedF2s.accept(citizen.getF2());
+        }
+        assertEquals("Summary of field stored in binary didn't match", expectedAges.toString(), citizenDao.summarizeLong("age", start, end).toString());
+        assertEquals("Summary of field stored as string didn't match", expectedPincodes.toString(), citizenDao.summarizeLong("pincode", start, end).toString());
+        assertEquals("Summary of floating point field didn't match", expectedF2s.toString(), citizenDao.summarizeDouble("f2", start, end).toString());
+        assertEquals("Histogram of field didn't match", expectedAgeHistogram, citizenDao.histogram("age", 10, start, end));
+        try {
+            citizenDao.summarizeLong("f2", start, end);
+            fail("Integral summary of a floating point field was allowed");
+        } catch (IllegalArgumentException ignored) {
+        }
+        try {
+            citizenDao.summarizeDouble("name", start, end);
+            fail("Summary of a non-numeric field was allowed");
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+
+    public void testProjection() throws IOException {
+        List<Citizen> citizens = citizenDao.get(HConstants.EMPTY_START_ROW, HConstants.EMPTY_END_ROW);
+        List<RowKey> rowKeys = new ArrayList<>();
+        for (Citizen citizen : citizens) {
+            rowKeys.add(new RowKey(citizen.composeRowKey()));
+        }
+        rowKeys.add(new RowKey("ZZZ#1".getBytes()));
+        List<String> fieldNames = Arrays.asList("name", "age");
+        List<Citizen> projected = citizenDao.fetchFields(rowKeys, fieldNames);
+        assertNull("Projection of a row that doesn't exist isn't null", projected.get(citizens.size()));
+        assertProjection(citizens, projected.subList(0, citizens.size()));
+        assertProjection(citizens, citizenDao.fetchFields(HConstants.EMPTY_START_ROW, HConstants.EMPTY_END_ROW, fieldNames));
+        try {
+            citizenDao.fetchFields(rowKeys, Collections.singletonList("nameInUpper"));
+            fail("Projection of an unmapped field was allowed");
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+
+    public void testCounters() throws Exception {
+        final byte[] rowKey = "counters".getBytes();
+        assertEquals("Increment returned unexpected value of counter", 5L, citizenSummaryDAO.increment(rowKey, "numCitizens", 5));
+        assertEquals("Increment returned unexpected value of counter", 2L, citizenSummaryDAO.increment(rowKey, "numCitizens", -3));
+        assertEquals("Counter has unexpected value after increments", Long.valueOf(2), citizenSummaryDAO.get(rowKey).getNumCitizens());
+        CitizenSummary read = citizenSummaryDAO.get(rowKey);
+        citizenSummaryDAO.increment(rowKey, "numCitizens", 1); // an increment made since the object was read
+        read.setAverageAge(40);
+        citizenSummaryDAO.persist(read);
+        assertEquals("Persisting an object overwrote it's counter", Long.valueOf(3), citizenSummaryDAO.get(rowKey).getNumCitizens());
+        CitizenSummary fresh = new CitizenSummary();
+        fresh.parseRowKey(rowKey);
+        fresh.setNumCitizens(0L); // as a primitive counter would be
+        citizenSummaryDAO.persist(fresh);
+        assertEquals("Persisting an object reset it's counter", Long.valueOf(3), citizenSummaryDAO.get(rowKey).getNumCitizens());
+        citizenSummaryDAO.increment(rowKey, "numCitizens", -1);
+        final int NUM_THREADS = 8, NUM_INCREMENTS_PER_THREAD = 500;
+        final IncrementCombiner<CitizenSummary> combiner = citizenSummaryDAO.newIncrementCombiner(20, TimeUnit.MILLISECONDS);
+        ExecutorService executor = Executors.newFixedThreadPool(NUM_THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < NUM_THREADS; t++) {
+            futures.add(executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < NUM_INCREMENTS_PER_THREAD; i++) {
+                        combiner.increment(rowKey, "numCitizens", 1);
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        combiner.flush();
+        assertEquals("Counter has unexpected value after combined increments were flushed", Long.valueOf(2 + NUM_THREADS * NUM_INCREMENTS_PER_THREAD), citizenSummaryDAO.get(rowKey).getNumCitizens());
+        combiner.increment(rowKey, "numCitizens", -2);
+        combiner.close();
+        combiner.close(); // closing again is harmless
+        assertEquals("Combined increment wasn't flushed on close", Long.valueOf(NUM_THREADS * NUM_INCREMENTS_PER_THREAD), citizenSummaryDAO.get(rowKey).getNumCitizens());
+        try {
+            combiner.increment(rowKey, "numCitizens", 1);
+            fail("Increment combiner accepted an increment after it was closed");
+        } catch (IllegalStateException ignored) {
+        }
+        try {
+            citizenSummaryDAO.increment(rowKey, "averageAge", 1);
+            fail("Increment of a field that isn't a counter was allowed");
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+
+    public void testChangeTracking() throws IOException {
+        byte[] rowKey = "tracked".getBytes();
+        CitizenSummary summary = new CitizenSummary();
+        summary.parseRowKey(rowKey);
+        summary.setAverageAge(30);
+        citizenSummaryDAO.enableChangeTracking();
+        assertTrue(citizenSummaryDAO.persistIfUnchanged(summary));
+        CitizenSummary read = citizenSummaryDAO.get(rowKey);
+        assertTrue(citizenSummaryDAO.persistIfUnchanged(citizenSummaryDAO.get(rowKey))); // a write made since the object was read
+        read.setAverageAge(31);
+        citizenSummaryDAO.persist(read);
+        CitizenSummary persisted = citizenSummaryDAO.get(rowKey);
+        assertEquals("Changed field wasn't written", Float.valueOf(31), persisted.getAverageAge());
+        assertEquals("Unchanged field was written", Long.valueOf(2), persisted.getVersion());
+        assertTrue(citizenSummaryDAO.persistIfUnchanged(persisted));
+        citizenSummaryDAO.persist(read);
+        assertEquals("Object that didn't change since it was last persisted was written", Long.valueOf(3), citizenSummaryDAO.get(rowKey).getVersion());
+        citizenSummaryDAO.disableChangeTracking();
+        citizenSummaryDAO.persist(read);
+        assertEquals("Object wasn't written in full after change tracking was disabled", Long.valueOf(1), citizenSummaryDAO.get(rowKey).getVersion());
+    }
+
+    public void testOptimisticConcurrency() throws Exception {
+        final byte[] rowKey = "versioned".getBytes();
+        CitizenSummary summary = new CitizenSummary();
+        summary.parseRowKey(rowKey);
+        summary.setAverageAge(20);
+        assertTrue("New object wasn't written", citizenSummaryDAO.persistIfUnchanged(summary));
+        assertEquals("Version of object wasn't bumped once written", Long.valueOf(1), summary.getVersion());
+        CitizenSummary first = citizenSummaryDAO.get(rowKey), second = citizenSummaryDAO.get(rowKey);
+        first.setAverageAge(21);
+        assertTrue("Object that's up to date wasn't written", citizenSummaryDAO.persistIfUnchanged(first));
+        assertEquals("Version of object wasn't bumped once written", Long.valueOf(2), first.getVersion());
+        second.setAverageAge(22);
+        assertFalse("Stale object was written", citizenSummaryDAO.persistIfUnchanged(second));
+        assertEquals("Version of object that wasn't written was changed", Long.valueOf(1), second.getVersion());
+        assertEquals("Stale object overwrote row", Float.valueOf(21), citizenSummaryDAO.get(rowKey).getAverageAge());
+        CitizenSummary unversioned = new CitizenSummary();
+        unversioned.parseRowKey(rowKey);
+        unversioned.setAverageAge(0);
+        assertFalse("New object overwrote a versioned row", citizenSummaryDAO.persistIfUnchanged(unversioned));
+        final int NUM_THREADS = 4, NUM_UPDATES_PER_THREAD = 10;
+        ExecutorService executor = Executors.newFixedThreadPool(NUM_THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < NUM_THREADS; t++) {
+            futures.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws IOException {
+                    for (int i = 0; i < NUM_UPDATES_PER_THREAD; i++) {
+                        CitizenSummary record;
+                        do { // read-modify-write, retried on conflicts
+                            record = citizenSummaryDAO.get(rowKey);
+                            record.setAverageAge(record.getAverageAge() + 1);
+                        } while (!citizenSummaryDAO.persistIfUnchanged(record));
+                    }
+                    return null;
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        CitizenSummary updated = citizenSummaryDAO.get(rowKey);
+        assertEquals("Concurrent read-modify-writes lost updates", Float.valueOf(21 + NUM_THREADS * NUM_UPDATES_PER_THREAD), updated.getAverageAge());
+        assertEquals("Version of row doesn't match number of writes", Long.valueOf(2 + NUM_THREADS * NUM_UPDATES_PER_THREAD), updated.getVersion());
+        try {
+            citizenDao.persistIfUnchanged(testObjs.get(0));
+            fail("Object of a class without a version column was written conditionally");
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+
+    private void assertProjection(List<Citizen> citizens, List<Citizen> projected) {
+        int j = 0;
+        for (Citizen citizen : citizens) {
+            if (citizen.getName() == null && citizen.getAge() == null)
+                continue; // row has none of the projected fields
+            Citizen projection = projected.get(j++);
+            assertEquals("Projected field has unexpected value", citizen.getName(), projection.getName());
+            assertEquals("Projected field has unexpected value", citizen.getAge(), projection.getAge());
+            assertNull("Field that wasn't projected was populated", projection.getSal());
+        }
+        assertEquals("Projection has unexpected number of rows", j, projected.size() - Collections.frequency(projected, null));
+    }
+
+    private void assertQuery(String operator, List<Citizen> citizens, Query<Citizen> query, Predicate<Citizen> predicate) throws IOException {
+        assertEquals("Query with " + operator + " returned unexpected rows", Lists.newArrayList(Iterables.filter(citizens, predicate)), query.get());
+    }
 
     @Test
     public void test() throws Exception {
@@ -293,8 +978,36 @@ public class TestsAbstractHBDAO {
         testTableParticulars();
         System.out.println("Testing data access objects");
         testHBaseDAO();
+        System.out.println("Testing queries of data access objects");
+        testQuery();
+        System.out.println("Testing aggregations of data access objects");
+        testAggregations();
+        System.out.println("Testing projections of data access objects");
+        testProjection();
         System.out.println("Testing multi-versioned data access objects");
         testHBaseMultiVersionDAO();
+        System.out.println("Testing buffered writer");
+        testBufferedWriter();
+        System.out.println("Testing data access object shared across threads");
+        testSharedDAO();
+        System.out.println("Testing asynchronous data access object");
+        testAsyncDAO();
+        System.out.println("Testing cache of data access object");
+        testCache();
+        System.out.println("Testing cache of data access object racing with writes");
+        testCacheRacingWithPersist();
+        System.out.println("Testing coalescing of concurrent gets");
+        testCoalescing();
+        System.out.println("Testing coalescing of concurrent gets racing with writes");
+        testCoalescingRacingWithPersist();
+        System.out.println("Testing parallel scans of data access object");
+        testParallelScan();
+        System.out.println("Testing counters of data access object");
+        testCounters();
+        System.out.println("Testing change tracking of data access object");
+        testChangeTracking();
+        System.out.println("Testing optimistic concurrency of data access object");
+        testOptimisticConcurrency();
     }
 
     @After
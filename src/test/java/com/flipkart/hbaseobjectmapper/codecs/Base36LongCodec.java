@@ -0,0 +1,19 @@
+package com.flipkart.hbaseobjectmapper.codecs;
+
+import com.flipkart.hbaseobjectmapper.codec.HBCodec;
+import org.apache.hadoop.hbase.util.Bytes;
+
+/**
+ * Stores a {@link Long} as a base-36 string
+ */
+public class Base36LongCodec implements HBCodec<Long> {
+    @Override
+    public byte[] toBytes(Long value) {
+        return Bytes.toBytes(Long.toString(value, Character.MAX_RADIX));
+    }
+
+    @Override
+    public Long fromBytes(byte[] bytes, int offset, int length) {
+        return Long.parseLong(Bytes.toString(bytes, offset, length), Character.MAX_RADIX);
+    }
+}
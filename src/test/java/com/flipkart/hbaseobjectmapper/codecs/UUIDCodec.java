@@ -0,0 +1,21 @@
+package com.flipkart.hbaseobjectmapper.codecs;
+
+import com.flipkart.hbaseobjectmapper.codec.HBCodec;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.util.UUID;
+
+/**
+ * Stores a {@link UUID} in 16 bytes
+ */
+public class UUIDCodec implements HBCodec<UUID> {
+    @Override
+    public byte[] toBytes(UUID value) {
+        return Bytes.add(Bytes.toBytes(value.getMostSignificantBits()), Bytes.toBytes(value.getLeastSignificantBits()));
+    }
+
+    @Override
+    public UUID fromBytes(byte[] bytes, int offset, int length) {
+        return new UUID(Bytes.toLong(bytes, offset, Bytes.SIZEOF_LONG), Bytes.toLong(bytes, offset + Bytes.SIZEOF_LONG, Bytes.SIZEOF_LONG));
+    }
+}
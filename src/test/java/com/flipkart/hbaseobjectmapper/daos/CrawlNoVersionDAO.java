@@ -4,6 +4,7 @@ package com.flipkart.hbaseobjectmapper.daos;
 import com.flipkart.hbaseobjectmapper.AbstractHBDAO;
 import com.flipkart.hbaseobjectmapper.entities.CrawlNoVersion;
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.client.HTablePool;
 
 import java.io.IOException;
 
@@ -12,4 +13,8 @@ public class CrawlNoVersionDAO extends AbstractHBDAO<CrawlNoVersion> {
     public CrawlNoVersionDAO(Configuration conf) throws IOException {
         super(conf);
     }
+
+    public CrawlNoVersionDAO(Configuration conf, HTablePool tablePool) throws IOException {
+        super(conf, tablePool);
+    }
 }
@@ -2,9 +2,11 @@ package com.flipkart.hbaseobjectmapper.entities;
 
 
 import com.flipkart.hbaseobjectmapper.HBColumn;
+import com.flipkart.hbaseobjectmapper.HBCounter;
 import com.flipkart.hbaseobjectmapper.HBRecord;
 import com.flipkart.hbaseobjectmapper.HBRowKey;
 import com.flipkart.hbaseobjectmapper.HBTable;
+import com.flipkart.hbaseobjectmapper.HBVersionColumn;
 import lombok.ToString;
 
 @ToString
@@ -17,6 +19,12 @@ public class CitizenSummary implements HBRecord {
     @HBColumn(family = "a", column = "average_age")
     private Float averageAge;
 
+    @HBCounter(family = "a", column = "num_citizens")
+    private Long numCitizens;
+
+    @HBVersionColumn(family = "a", column = "version")
+    private Long version;
+
     public CitizenSummary() {
         key = "summary".getBytes();
     }
@@ -38,4 +46,16 @@ public class CitizenSummary implements HBRecord {
     public void setAverageAge(float averageAge) {
         this.averageAge = averageAge;
     }
+
+    public Long getNumCitizens() {
+        return numCitizens;
+    }
+
+    public void setNumCitizens(Long numCitizens) {
+        this.numCitizens = numCitizens;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
 }
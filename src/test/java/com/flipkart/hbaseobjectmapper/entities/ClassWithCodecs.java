@@ -0,0 +1,50 @@
+package com.flipkart.hbaseobjectmapper.entities;
+
+import com.flipkart.hbaseobjectmapper.HBColumn;
+import com.flipkart.hbaseobjectmapper.HBColumnMultiVersion;
+import com.flipkart.hbaseobjectmapper.HBRecord;
+import com.flipkart.hbaseobjectmapper.HBRowKey;
+import com.flipkart.hbaseobjectmapper.HBTable;
+import com.flipkart.hbaseobjectmapper.codecs.Base36LongCodec;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.util.NavigableMap;
+import java.util.UUID;
+
+@HBTable("codecs")
+@ToString
+@EqualsAndHashCode
+public class ClassWithCodecs implements HBRecord {
+    @HBRowKey
+    private String key;
+
+    @HBColumn(family = "a", column = "id")
+    private UUID id;
+
+    @HBColumn(family = "a", column = "count", codec = Base36LongCodec.class)
+    private Long count;
+
+    @HBColumnMultiVersion(family = "a", column = "history", codec = Base36LongCodec.class)
+    private NavigableMap<Long, Long> history;
+
+    public ClassWithCodecs() {
+    }
+
+    public ClassWithCodecs(String key, UUID id, Long count, NavigableMap<Long, Long> history) {
+        this.key = key;
+        this.id = id;
+        this.count = count;
+        this.history = history;
+    }
+
+    @Override
+    public byte[] composeRowKey() {
+        return key.getBytes();
+    }
+
+    @Override
+    public void parseRowKey(byte[] rowKey) {
+        this.key = new String(rowKey);
+    }
+}
@@ -0,0 +1,54 @@
+package com.flipkart.hbaseobjectmapper.entities;
+
+import com.flipkart.hbaseobjectmapper.HBColumn;
+import com.flipkart.hbaseobjectmapper.HBColumnMultiVersion;
+import com.flipkart.hbaseobjectmapper.HBRecord;
+import com.flipkart.hbaseobjectmapper.HBRowKey;
+import com.flipkart.hbaseobjectmapper.HBTable;
+import com.flipkart.hbaseobjectmapper.codec.Format;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+
+import java.util.Map;
+import java.util.NavigableMap;
+
+@HBTable("formats")
+@ToString
+@EqualsAndHashCode
+public class ClassWithFormats implements HBRecord {
+    @HBRowKey
+    private String key;
+
+    @HBColumn(family = "a", column = "json")
+    private Map<String, Integer> json;
+
+    @HBColumn(family = "a", column = "smile", format = Format.SMILE)
+    private Map<String, Integer> smile;
+
+    @HBColumn(family = "a", column = "cbor", format = Format.CBOR)
+    private Map<String, Integer> cbor;
+
+    @HBColumnMultiVersion(family = "a", column = "dependents", format = Format.SMILE)
+    private NavigableMap<Long, Dependents> dependents;
+
+    public ClassWithFormats() {
+    }
+
+    public ClassWithFormats(String key, Map<String, Integer> flags, NavigableMap<Long, Dependents> dependents) {
+        this.key = key;
+        this.json = flags;
+        this.smile = flags;
+        this.cbor = flags;
+        this.dependents = dependents;
+    }
+
+    @Override
+    public byte[] composeRowKey() {
+        return key.getBytes();
+    }
+
+    @Override
+    public void parseRowKey(byte[] rowKey) {
+        this.key = new String(rowKey);
+    }
+}
@@ -0,0 +1,39 @@
+package com.flipkart.hbaseobjectmapper.entities;
+
+import com.flipkart.hbaseobjectmapper.HBColumn;
+import com.flipkart.hbaseobjectmapper.HBRecord;
+import com.flipkart.hbaseobjectmapper.HBRowKey;
+import com.flipkart.hbaseobjectmapper.codec.HBCodec;
+
+public class ClassWithInaccessibleCodec implements HBRecord {
+    @HBRowKey
+    protected byte[] key = "key".getBytes();
+
+    @HBColumn(family = "a", column = "b", codec = PrivateCodec.class)
+    private Integer i = 1;
+
+    @Override
+    public byte[] composeRowKey() {
+        return key;
+    }
+
+    @Override
+    public void parseRowKey(byte[] rowKey) {
+        this.key = rowKey;
+    }
+
+    static class PrivateCodec implements HBCodec<Integer> {
+        private PrivateCodec() {
+        }
+
+        @Override
+        public byte[] toBytes(Integer value) {
+            return new byte[0];
+        }
+
+        @Override
+        public Integer fromBytes(byte[] bytes, int offset, int length) {
+            return null;
+        }
+    }
+}
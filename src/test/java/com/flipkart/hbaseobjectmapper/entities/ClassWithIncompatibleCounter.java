@@ -0,0 +1,27 @@
+package com.flipkart.hbaseobjectmapper.entities;
+
+import com.flipkart.hbaseobjectmapper.HBCounter;
+import com.flipkart.hbaseobjectmapper.HBRecord;
+import com.flipkart.hbaseobjectmapper.HBRowKey;
+
+public class ClassWithIncompatibleCounter implements HBRecord {
+    @HBRowKey
+    protected byte[] key = "key".getBytes();
+
+    @Override
+    public byte[] composeRowKey() {
+        return key;
+    }
+
+    @Override
+    public void parseRowKey(byte[] rowKey) {
+        this.key = rowKey;
+    }
+
+    @HBCounter(family = "a", column = "count")
+    private Integer count = 1;
+
+    public ClassWithIncompatibleCounter() {
+
+    }
+}
@@ -0,0 +1,27 @@
+package com.flipkart.hbaseobjectmapper.entities;
+
+import com.flipkart.hbaseobjectmapper.HBRecord;
+import com.flipkart.hbaseobjectmapper.HBRowKey;
+import com.flipkart.hbaseobjectmapper.HBVersionColumn;
+
+public class ClassWithIncompatibleVersionColumn implements HBRecord {
+    @HBRowKey
+    protected byte[] key = "key".getBytes();
+
+    @Override
+    public byte[] composeRowKey() {
+        return key;
+    }
+
+    @Override
+    public void parseRowKey(byte[] rowKey) {
+        this.key = rowKey;
+    }
+
+    @HBVersionColumn(family = "a", column = "version")
+    private String version = "1";
+
+    public ClassWithIncompatibleVersionColumn() {
+
+    }
+}
@@ -3,29 +3,55 @@ package com.flipkart.hbaseobjectmapper.entities;
 import com.flipkart.hbaseobjectmapper.HBColumn;
 import com.flipkart.hbaseobjectmapper.HBRecord;
 import com.flipkart.hbaseobjectmapper.HBRowKey;
+import com.flipkart.hbaseobjectmapper.HBTable;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
+@HBTable("primitives")
+@ToString
+@EqualsAndHashCode
 public class ClassWithPrimitives implements HBRecord {
     @HBRowKey
-    protected byte[] key = "key".getBytes();
+    protected String key = "key";
 
-    @Override
-    public byte[] composeRowKey() {
-        return key;
-    }
+    @HBColumn(family = "a", column = "flag")
+    private boolean flag;
 
-    @Override
-    public void parseRowKey(byte[] rowKey) {
-        this.key = rowKey;
-    }
+    @HBColumn(family = "a", column = "s")
+    private short s;
+
+    @HBColumn(family = "a", column = "i")
+    private int i;
 
-    @HBColumn(family = "a", column = "b")
+    @HBColumn(family = "a", column = "l")
+    private long l = -1; // value for when column is absent
+
+    @HBColumn(family = "a", column = "f")
     private float f;
 
+    @HBColumn(family = "a", column = "d", serializeAsString = true)
+    private double d;
+
     public ClassWithPrimitives() {
 
     }
 
-    public ClassWithPrimitives(float f) {
+    public ClassWithPrimitives(boolean flag, short s, int i, long l, float f, double d) {
+        this.flag = flag;
+        this.s = s;
+        this.i = i;
+        this.l = l;
         this.f = f;
+        this.d = d;
+    }
+
+    @Override
+    public byte[] composeRowKey() {
+        return key.getBytes();
+    }
+
+    @Override
+    public void parseRowKey(byte[] rowKey) {
+        this.key = new String(rowKey);
     }
 }
@@ -0,0 +1,30 @@
+package com.flipkart.hbaseobjectmapper.entities;
+
+import com.flipkart.hbaseobjectmapper.HBRecordCodec;
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.client.Result;
+
+/**
+ * Stands in for a codec that was generated before {@link ClassWithStaleCodec} was changed (and made invalid)
+ */
+public class ClassWithStaleCodecHBCodec implements HBRecordCodec<ClassWithStaleCodec> {
+    @Override
+    public String getMappingFingerprint() {
+        return "fingerprint of the class before it was changed";
+    }
+
+    @Override
+    public Put toPut(ClassWithStaleCodec record) {
+        return new Put(record.composeRowKey());
+    }
+
+    @Override
+    public Result toResult(ClassWithStaleCodec record) {
+        return new Result();
+    }
+
+    @Override
+    public ClassWithStaleCodec fromResult(byte[] rowKey, Result result) {
+        return new ClassWithStaleCodec();
+    }
+}
@@ -6,5 +6,8 @@ if [ -z "$newVersion"  ] ; then
     exit 1
 fi
 
-mvn -q versions:set -DnewVersion="$newVersion" -f pom.xml
+# processor and benchmarks depend on the library at their own version, so all three must move together
+for pom in pom.xml processor/pom.xml benchmarks/pom.xml ; do
+    mvn -q versions:set -DnewVersion="$newVersion" -f "$pom" || exit 1
+done
 echo Done